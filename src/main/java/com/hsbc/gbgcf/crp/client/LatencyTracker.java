@@ -0,0 +1,79 @@
+package com.hsbc.gbgcf.crp.client;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Tracks the latencies of recent successful calls per endpoint, so hedging delays follow the latency each
+ * endpoint actually shows. Keeps the last {@code window} samples of each endpoint and re-sorts them once a
+ * tenth of the window has been replaced.
+ */
+public class LatencyTracker {
+
+    private final int window;
+
+    private final int minSamples;
+
+    private final ConcurrentMap<String, Samples> endpoints = new ConcurrentHashMap<>();
+
+    /**
+     * @param window the number of recent samples kept per endpoint
+     * @param minSamples the number of samples needed before a percentile is reported
+     */
+    public LatencyTracker(int window, int minSamples) {
+        this.window = window;
+        this.minSamples = minSamples;
+    }
+
+    public void record(String endpoint, Duration latency) {
+        endpoints.computeIfAbsent(endpoint, name -> new Samples(window)).add(latency.toNanos());
+    }
+
+    /**
+     * Returns the given latency percentile of the endpoint's recent calls
+     *
+     * @param endpoint the endpoint name
+     * @param percentile the percentile, between 0 and 100
+     * @return the latency, or empty while fewer than minSamples calls have been recorded
+     */
+    public Optional<Duration> percentile(String endpoint, double percentile) {
+        Samples samples = endpoints.get(endpoint);
+        return samples == null ? Optional.empty() : samples.percentile(percentile, minSamples);
+    }
+
+    private static final class Samples {
+
+        private final long[] ring;
+        private long[] sorted = new long[0];
+        private int count;
+        private int next;
+        private int sinceSort;
+
+        private Samples(int window) {
+            this.ring = new long[window];
+        }
+
+        private synchronized void add(long nanos) {
+            ring[next] = nanos;
+            next = (next + 1) % ring.length;
+            count = Math.min(count + 1, ring.length);
+            sinceSort++;
+        }
+
+        private synchronized Optional<Duration> percentile(double percentile, int minSamples) {
+            if (count < minSamples) {
+                return Optional.empty();
+            }
+            if (sorted.length == 0 || sinceSort * 10 >= ring.length) {
+                sorted = Arrays.copyOf(ring, count);
+                Arrays.sort(sorted);
+                sinceSort = 0;
+            }
+            int index = (int) Math.ceil(percentile / 100.0 * sorted.length) - 1;
+            return Optional.of(Duration.ofNanos(sorted[Math.max(0, Math.min(index, sorted.length - 1))]));
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.hsbc.gbgcf.crp.client;
+
+import com.hsbc.gbgcf.crp.config.FeignTransportProperties.MethodTimeout;
+import feign.Client;
+import feign.MethodMetadata;
+import feign.Request;
+import feign.Response;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Feign client that applies per-method connect and read timeouts before delegating to the pooled transport.
+ */
+public class MethodTimeoutClient implements Client {
+
+    private final Client delegate;
+
+    private final Map<String, MethodTimeout> methodTimeouts;
+
+    public MethodTimeoutClient(Client delegate, Map<String, MethodTimeout> methodTimeouts) {
+        this.delegate = delegate;
+        this.methodTimeouts = methodTimeouts;
+    }
+
+    @Override
+    public Response execute(Request request, Request.Options options) throws IOException {
+        return delegate.execute(request, optionsFor(request, options));
+    }
+
+    Request.Options optionsFor(Request request, Request.Options options) {
+        MethodMetadata metadata = request.requestTemplate() != null ? request.requestTemplate().methodMetadata() : null;
+        if (metadata == null || metadata.method() == null) {
+            return options;
+        }
+        MethodTimeout timeout = methodTimeouts.get(metadata.method().getName());
+        if (timeout == null) {
+            return options;
+        }
+        long connectTimeoutMillis = timeout.getConnectTimeout() != null ? timeout.getConnectTimeout().toMillis() : options.connectTimeoutMillis();
+        long readTimeoutMillis = timeout.getReadTimeout() != null ? timeout.getReadTimeout().toMillis() : options.readTimeoutMillis();
+        return new Request.Options(connectTimeoutMillis, TimeUnit.MILLISECONDS, readTimeoutMillis, TimeUnit.MILLISECONDS, options.isFollowRedirects());
+    }
+
+    public Client getDelegate() {
+        return delegate;
+    }
+}
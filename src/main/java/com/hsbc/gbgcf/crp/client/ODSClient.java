@@ -7,9 +7,10 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 
 /**
- * Client for interacting with the ODS (Operational Data Store) service
+ * Client for interacting with the ODS (Operational Data Store) service.
+ * Callers get ResilientODSClient, which wraps this Feign client in circuit breakers, bulkheads and retries.
  */
-@FeignClient(name = "ods-service", url = "${ods.service.url}")
+@FeignClient(name = "ods-service", url = "${ods.service.url}", qualifiers = "odsFeignClient", primary = false)
 public interface ODSClient {
     
     /**
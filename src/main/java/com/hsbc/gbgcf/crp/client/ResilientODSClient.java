@@ -0,0 +1,246 @@
+package com.hsbc.gbgcf.crp.client;
+
+import com.hsbc.gbgcf.crp.util.JourneyTags;
+import feign.FeignException;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.retry.Retry;
+import io.github.resilience4j.retry.RetryRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * ODS client used by the services. Each ODS endpoint gets its own bulkhead, capping concurrent calls, and its
+ * own circuit breaker, named after the client method and configured under resilience4j.* in
+ * application.properties. The idempotent GETs are also retried with jittered backoff within a shared
+ * RetryBudget. A call rejected by an open circuit throws CallNotPermittedException, and a call rejected by a
+ * full bulkhead throws BulkheadFullException, without reaching ODS.
+ * With ods.hedging.enable set, each attempt of an idempotent GET that has not answered within the endpoint's
+ * recent ods.hedging.percentile latency is hedged with a second call, within its own budget, and the first
+ * successful answer wins.
+ * Every call, retries and hedges included, is timed as ods.client.requests, tagged by method, journey,
+ * outcome and the HTTP status of the final answer.
+ */
+@Component
+@Primary
+@Slf4j
+public class ResilientODSClient implements ODSClient {
+
+    @Autowired
+    @Qualifier("odsFeignClient")
+    private ODSClient odsFeignClient;
+
+    @Autowired
+    private CircuitBreakerRegistry circuitBreakerRegistry;
+
+    @Autowired
+    private BulkheadRegistry bulkheadRegistry;
+
+    @Autowired
+    private RetryRegistry retryRegistry;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    @Qualifier("odsRetryBudget")
+    private RetryBudget odsRetryBudget;
+
+    @Autowired
+    @Qualifier("odsHedgeBudget")
+    private RetryBudget odsHedgeBudget;
+
+    @Autowired
+    @Qualifier("odsHedgeExecutor")
+    private Executor odsHedgeExecutor;
+
+    @Value("${ods.hedging.enable:false}")
+    boolean hedgingEnabled;
+
+    @Value("${ods.hedging.percentile:95}")
+    double hedgePercentile;
+
+    @Value("${ods.hedging.min-delay:PT0.05S}")
+    Duration hedgeMinDelay;
+
+    private final LatencyTracker latencies = new LatencyTracker(1000, 100);
+
+    @Override
+    public String executeFormReadyRequest(String journeyType, String customerIdentificationId) {
+        return measured("executeFormReadyRequest", journeyType,
+                () -> retried("executeFormReadyRequest", () -> odsFeignClient.executeFormReadyRequest(journeyType, customerIdentificationId)));
+    }
+
+    @Override
+    public String executeSaveRequest(String journeyType, String customerIdentificationId, String formData) {
+        return measured("executeSaveRequest", journeyType,
+                () -> guarded("executeSaveRequest", () -> odsFeignClient.executeSaveRequest(journeyType, customerIdentificationId, formData)));
+    }
+
+    @Override
+    public String executeSubmitRequest(String journeyType, String customerIdentificationId, String formData) {
+        return measured("executeSubmitRequest", journeyType,
+                () -> guarded("executeSubmitRequest", () -> odsFeignClient.executeSubmitRequest(journeyType, customerIdentificationId, formData)));
+    }
+
+    @Override
+    public String executeResetRequest(String journeyType, String customerIdentificationId) {
+        return measured("executeResetRequest", journeyType,
+                () -> retried("executeResetRequest", () -> odsFeignClient.executeResetRequest(journeyType, customerIdentificationId)));
+    }
+
+    /**
+     * Not retried: although a GET, a retake starts a new questionnaire cycle in ODS
+     */
+    @Override
+    public String executeRetakeRequest(String journeyType, String customerIdentificationId) {
+        return measured("executeRetakeRequest", journeyType,
+                () -> guarded("executeRetakeRequest", () -> odsFeignClient.executeRetakeRequest(journeyType, customerIdentificationId)));
+    }
+
+    @Override
+    public String executeQuestionnaireErrorRequest(String journeyType, String customerIdentificationId) {
+        return measured("executeQuestionnaireErrorRequest", journeyType,
+                () -> retried("executeQuestionnaireErrorRequest", () -> odsFeignClient.executeQuestionnaireErrorRequest(journeyType, customerIdentificationId)));
+    }
+
+    /**
+     * Times the call as the service sees it. The outcome is SUCCESS, CLIENT_ERROR or SERVER_ERROR after an
+     * answer from ODS, IO_ERROR without one, CIRCUIT_OPEN or BULKHEAD_FULL when rejected locally, and ERROR
+     * otherwise; the status is 2xx on success, the HTTP status of an error answer, or NONE.
+     */
+    private String measured(String endpoint, String journeyType, Supplier<String> call) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "ERROR";
+        String status = "NONE";
+        try {
+            String result = call.get();
+            outcome = "SUCCESS";
+            status = "2xx";
+            return result;
+        } catch (FeignException e) {
+            if (e.status() > 0) {
+                status = String.valueOf(e.status());
+                outcome = e.status() >= 500 ? "SERVER_ERROR" : "CLIENT_ERROR";
+            } else {
+                outcome = "IO_ERROR";
+            }
+            throw e;
+        } catch (CallNotPermittedException e) {
+            outcome = "CIRCUIT_OPEN";
+            throw e;
+        } catch (BulkheadFullException e) {
+            outcome = "BULKHEAD_FULL";
+            throw e;
+        } finally {
+            sample.stop(Timer.builder("ods.client.requests")
+                    .description("ODS calls as seen by the services, retries and hedges included")
+                    .tag("method", endpoint)
+                    .tag(JourneyTags.TAG, JourneyTags.of(journeyType))
+                    .tag("outcome", outcome)
+                    .tag("status", status)
+                    .register(meterRegistry));
+        }
+    }
+
+    private String guarded(String endpoint, Supplier<String> call) {
+        Bulkhead bulkhead = bulkheadRegistry.bulkhead(endpoint);
+        CircuitBreaker circuitBreaker = circuitBreakerRegistry.circuitBreaker(endpoint);
+        return CircuitBreaker.decorateSupplier(circuitBreaker, Bulkhead.decorateSupplier(bulkhead, call)).get();
+    }
+
+    private String retried(String endpoint, Supplier<String> call) {
+        odsRetryBudget.recordCall();
+        Retry retry = retryRegistry.retry(endpoint);
+        Supplier<String> attempt = hedgingEnabled ? () -> hedged(endpoint, () -> timed(endpoint, call)) : () -> timed(endpoint, call);
+        return Retry.decorateSupplier(retry, attempt).get();
+    }
+
+    private String timed(String endpoint, Supplier<String> call) {
+        long start = System.nanoTime();
+        String result = guarded(endpoint, call);
+        latencies.record(endpoint, Duration.ofNanos(System.nanoTime() - start));
+        return result;
+    }
+
+    /**
+     * Runs the call and, if it has not answered within the hedge delay and the hedge budget allows, a second
+     * identical call; returns the first successful answer, or the last failure if both fail. No hedge is sent
+     * until the endpoint has enough recorded latencies to derive the delay from.
+     */
+    private String hedged(String endpoint, Supplier<String> call) {
+        odsHedgeBudget.recordCall();
+        Optional<Duration> observed = latencies.percentile(endpoint, hedgePercentile);
+        if (observed.isEmpty()) {
+            return call.get();
+        }
+        Duration delay = observed.get().compareTo(hedgeMinDelay) > 0 ? observed.get() : hedgeMinDelay;
+        CompletableFuture<String> answer = new CompletableFuture<>();
+        AtomicInteger pending = new AtomicInteger(1);
+        CompletableFuture.supplyAsync(call, odsHedgeExecutor)
+                .whenComplete((result, failure) -> settle(answer, pending, result, failure));
+        try {
+            return answer.get(delay.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            if (odsHedgeBudget.tryAcquireRetry()) {
+                log.debug("No answer from {} within {} ms, sending a hedged request", endpoint, delay.toMillis());
+                pending.incrementAndGet();
+                CompletableFuture.supplyAsync(call, odsHedgeExecutor)
+                        .whenComplete((result, failure) -> settle(answer, pending, result, failure));
+            }
+        } catch (ExecutionException e) {
+            throw unwrap(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted waiting for " + endpoint, e);
+        }
+        try {
+            return answer.join();
+        } catch (CompletionException e) {
+            throw unwrap(e.getCause());
+        }
+    }
+
+    /**
+     * Completes the answer with the first success, or with the failure of the last call still pending.
+     * A primary call that fails before the hedge delay therefore fails the attempt straight away.
+     */
+    private static void settle(CompletableFuture<String> answer, AtomicInteger pending, String result, Throwable failure) {
+        if (failure == null) {
+            answer.complete(result);
+        } else if (pending.decrementAndGet() == 0) {
+            answer.completeExceptionally(failure instanceof CompletionException ? failure.getCause() : failure);
+        }
+    }
+
+    private static RuntimeException unwrap(Throwable failure) {
+        if (failure instanceof RuntimeException runtimeException) {
+            return runtimeException;
+        }
+        if (failure instanceof Error error) {
+            throw error;
+        }
+        return new IllegalStateException(failure);
+    }
+}
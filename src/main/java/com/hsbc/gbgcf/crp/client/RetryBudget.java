@@ -0,0 +1,49 @@
+package com.hsbc.gbgcf.crp.client;
+
+/**
+ * Caps retries to a fraction of the calls made, so retries cannot multiply the load on a struggling service.
+ * Every call deposits {@code ratio} of a token and every retry spends a whole one; the balance is capped at
+ * {@code maxTokens}, which is also the allowance available at start-up and after quiet periods.
+ */
+public class RetryBudget {
+
+    private final double ratio;
+
+    private final double maxTokens;
+
+    private double tokens;
+
+    /**
+     * @param ratio the retries allowed per call, e.g. 0.1 for one retry per ten calls
+     * @param maxTokens the largest number of retries that can be saved up
+     */
+    public RetryBudget(double ratio, double maxTokens) {
+        this.ratio = ratio;
+        this.maxTokens = maxTokens;
+        this.tokens = maxTokens;
+    }
+
+    /**
+     * Records a call, earning a fraction of a retry
+     */
+    public synchronized void recordCall() {
+        tokens = Math.min(maxTokens, tokens + ratio);
+    }
+
+    /**
+     * Spends one retry if the budget allows it
+     *
+     * @return true if the retry may go ahead
+     */
+    public synchronized boolean tryAcquireRetry() {
+        if (tokens < 1) {
+            return false;
+        }
+        tokens -= 1;
+        return true;
+    }
+
+    public synchronized double getAvailableRetries() {
+        return tokens;
+    }
+}
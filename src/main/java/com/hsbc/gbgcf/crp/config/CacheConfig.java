@@ -0,0 +1,13 @@
+package com.hsbc.gbgcf.crp.config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Enables the in-process Caffeine caches used for reference data.
+ * Cache names, size and TTL are configured through the spring.cache.* properties.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+}
@@ -0,0 +1,56 @@
+package com.hsbc.gbgcf.crp.config;
+
+import com.hsbc.gbgcf.crp.client.MethodTimeoutClient;
+import feign.Capability;
+import feign.Client;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.io.HttpClientConnectionManager;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration of the transport behind the Feign clients.
+ * The pooled Apache HttpClient 5 client (or the HTTP/2 client) itself is set up by Spring Cloud OpenFeign
+ * from the spring.cloud.openfeign.httpclient.* properties; this adds per-method timeouts and pool metrics.
+ */
+@Configuration
+@EnableConfigurationProperties(FeignTransportProperties.class)
+public class FeignTransportConfig {
+
+    /**
+     * Wraps the transport of every Feign client so that methods listed under http.client.method-timeouts
+     * get their own connect and read timeouts.
+     *
+     * @param properties the per-method timeouts
+     * @return the capability applied by Spring Cloud OpenFeign to each client
+     */
+    @Bean
+    public Capability methodTimeoutCapability(FeignTransportProperties properties) {
+        return new Capability() {
+            @Override
+            public Client enrich(Client client) {
+                return new MethodTimeoutClient(client, properties.getMethodTimeouts());
+            }
+        };
+    }
+
+    /**
+     * Publishes the httpcomponents.httpclient.pool.* metrics of the Feign connection pool, when the pooled
+     * HttpClient 5 transport is in use.
+     *
+     * @param connectionManager the connection manager created by Spring Cloud OpenFeign
+     * @return the pool metrics binder
+     */
+    @Bean
+    public MeterBinder feignConnectionPoolMetrics(ObjectProvider<HttpClientConnectionManager> connectionManager) {
+        return registry -> connectionManager.ifAvailable(manager -> {
+            if (manager instanceof PoolingHttpClientConnectionManager pool) {
+                new PoolingHttpClientConnectionManagerMetricsBinder(pool, "feign").bindTo(registry);
+            }
+        });
+    }
+}
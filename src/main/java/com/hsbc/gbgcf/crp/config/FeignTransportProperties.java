@@ -0,0 +1,28 @@
+package com.hsbc.gbgcf.crp.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Per-method timeouts for the Feign clients, keyed by client method name, for example
+ * http.client.method-timeouts.executeSubmitRequest.read-timeout=PT30S.
+ * Methods without an entry, or timeouts left unset, keep the client's configured timeouts.
+ */
+@Data
+@ConfigurationProperties(prefix = "http.client")
+public class FeignTransportProperties {
+
+    private Map<String, MethodTimeout> methodTimeouts = new LinkedHashMap<>();
+
+    @Data
+    public static class MethodTimeout {
+
+        private Duration connectTimeout;
+
+        private Duration readTimeout;
+    }
+}
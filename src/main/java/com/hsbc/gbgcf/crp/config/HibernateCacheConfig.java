@@ -0,0 +1,81 @@
+package com.hsbc.gbgcf.crp.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import com.hsbc.gbgcf.crp.constants.PolicyConstants;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.jcache.MissingCacheStrategy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+/**
+ * Configuration of the Hibernate second-level cache regions holding the policy reference data: policies,
+ * legal entities and clients with their policy collections. The lookups by business ID are not cached as
+ * queries, since the reference data cache already holds their results. Every region is created here, bounded
+ * in size, in a local Caffeine JCache manager of its own; Hibernate fails to start rather than create an
+ * unbounded region for anything else marked cacheable.
+ */
+@Configuration
+public class HibernateCacheConfig {
+
+    private static final List<String> ENTITY_REGIONS = List.of(PolicyConstants.CACHE_REGION_POLICIES,
+            PolicyConstants.CACHE_REGION_LEGAL_ENTITIES, PolicyConstants.CACHE_REGION_LEGAL_ENTITY_POLICIES,
+            PolicyConstants.CACHE_REGION_CLIENTS, PolicyConstants.CACHE_REGION_CLIENT_POLICIES);
+
+    /**
+     * Creates the cache manager holding the second-level cache regions. Entries expire after the TTL, so rows
+     * changed outside the application are picked up again.
+     *
+     * @param entityMaxEntries the most entries kept per entity or collection region
+     * @param ttl how long an entry is kept after it was written
+     * @return the second-level cache manager
+     */
+    @Bean(name = "hibernateCacheManager", destroyMethod = "close")
+    public CacheManager hibernateCacheManager(@Value("${second-level-cache.entity-max-entries:10000}") long entityMaxEntries,
+                                              @Value("${second-level-cache.ttl:PT10M}") Duration ttl) {
+        CaffeineCachingProvider provider = (CaffeineCachingProvider) Caching.getCachingProvider(CaffeineCachingProvider.class.getName());
+        // a manager per application context, so contexts sharing a JVM never share regions
+        CacheManager cacheManager = provider.getCacheManager(
+                URI.create("hibernate-second-level-cache:" + UUID.randomUUID()), getClass().getClassLoader());
+        ENTITY_REGIONS.forEach(region -> cacheManager.createCache(region, region(entityMaxEntries, ttl)));
+        return cacheManager;
+    }
+
+    /**
+     * Hands the cache manager to Hibernate, when the second-level cache is enabled through the
+     * spring.jpa.properties.hibernate.cache.* properties
+     *
+     * @param hibernateCacheManager the second-level cache manager
+     * @return the Hibernate properties customizer
+     */
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheCustomizer(CacheManager hibernateCacheManager) {
+        return properties -> {
+            properties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+            properties.put(ConfigSettings.MISSING_CACHE_STRATEGY, MissingCacheStrategy.FAIL.getExternalRepresentation());
+        };
+    }
+
+    /**
+     * Entries are kept by reference: Hibernate already stores disassembled state, so copying it on every
+     * read would only add garbage
+     */
+    private static CaffeineConfiguration<Object, Object> region(long maxEntries, Duration ttl) {
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        configuration.setMaximumSize(OptionalLong.of(maxEntries));
+        configuration.setExpireAfterWrite(OptionalLong.of(ttl.toNanos()));
+        configuration.setStoreByValue(false);
+        configuration.setStatisticsEnabled(true);
+        return configuration;
+    }
+}
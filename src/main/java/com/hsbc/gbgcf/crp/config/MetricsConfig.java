@@ -0,0 +1,91 @@
+package com.hsbc.gbgcf.crp.config;
+
+import com.hsbc.gbgcf.crp.util.JourneyTags;
+import io.micrometer.common.KeyValues;
+import io.micrometer.core.instrument.Tags;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.boot.actuate.metrics.data.DefaultRepositoryTagsProvider;
+import org.springframework.boot.actuate.metrics.data.RepositoryTagsProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.server.observation.DefaultServerRequestObservationConvention;
+import org.springframework.http.server.observation.ServerRequestObservationContext;
+import org.springframework.http.server.observation.ServerRequestObservationConvention;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.Map;
+
+/**
+ * Configuration tagging the request and repository metrics with the journey (LE or MG) of the request.
+ * The journey is resolved once per request from its journeyType path variable or parameter.
+ */
+@Configuration
+public class MetricsConfig implements WebMvcConfigurer {
+
+    static final String JOURNEY_ATTRIBUTE = MetricsConfig.class.getName() + ".journey";
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new AsyncHandlerInterceptor() {
+            @Override
+            public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+                String journey = JourneyTags.of(journeyType(request));
+                request.setAttribute(JOURNEY_ATTRIBUTE, journey);
+                JourneyTags.set(journey);
+                return true;
+            }
+
+            @Override
+            public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+                JourneyTags.clear();
+            }
+
+            @Override
+            public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+                JourneyTags.clear();
+            }
+        });
+    }
+
+    /**
+     * Adds the journey tag to the http.server.requests metrics
+     *
+     * @return the server request observation convention
+     */
+    @Bean
+    public ServerRequestObservationConvention journeyServerRequestObservationConvention() {
+        return new DefaultServerRequestObservationConvention() {
+            @Override
+            public KeyValues getLowCardinalityKeyValues(ServerRequestObservationContext context) {
+                Object journey = context.getCarrier().getAttribute(JOURNEY_ATTRIBUTE);
+                return super.getLowCardinalityKeyValues(context)
+                        .and(JourneyTags.TAG, journey != null ? journey.toString() : JourneyTags.NONE);
+            }
+        };
+    }
+
+    /**
+     * Adds the journey tag of the current request to the spring.data.repository.invocations metrics
+     *
+     * @return the repository tags provider
+     */
+    @Bean
+    public RepositoryTagsProvider journeyRepositoryTagsProvider() {
+        DefaultRepositoryTagsProvider defaults = new DefaultRepositoryTagsProvider();
+        return invocation -> Tags.of(defaults.repositoryTags(invocation)).and(JourneyTags.TAG, JourneyTags.current());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static String journeyType(HttpServletRequest request) {
+        String journeyType = request.getParameter("journeyType");
+        if (journeyType != null) {
+            return journeyType;
+        }
+        Object pathVariables = request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+        return pathVariables instanceof Map ? ((Map<String, String>) pathVariables).get("journeyType") : null;
+    }
+}
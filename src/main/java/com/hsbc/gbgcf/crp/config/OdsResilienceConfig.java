@@ -0,0 +1,110 @@
+package com.hsbc.gbgcf.crp.config;
+
+import com.hsbc.gbgcf.crp.client.RetryBudget;
+import feign.FeignException;
+import feign.RetryableException;
+import io.github.resilience4j.common.retry.configuration.RetryConfigCustomizer;
+import io.github.resilience4j.core.IntervalBiFunction;
+import io.github.resilience4j.core.IntervalFunction;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.function.Predicate;
+
+/**
+ * Configuration for the retries and hedging of the idempotent ODS GETs. Circuit breakers, bulkheads and retry
+ * attempt counts are plain resilience4j.* properties; this adds what properties cannot express: jittered
+ * exponential backoff, the retry and hedge budgets and the hedge executor.
+ */
+@Configuration
+public class OdsResilienceConfig {
+
+    /**
+     * Creates the retry budget shared by all ODS endpoints.
+     *
+     * @param ratio the retries allowed per call
+     * @param maxRetries the largest number of retries that can be saved up
+     * @return the ODS retry budget
+     */
+    @Bean
+    public RetryBudget odsRetryBudget(@Value("${ods.retry.budget.ratio:0.1}") double ratio,
+                                      @Value("${ods.retry.budget.max-retries:10}") double maxRetries) {
+        return new RetryBudget(ratio, maxRetries);
+    }
+
+    /**
+     * Creates the budget capping hedged ODS requests to a fraction of the hedgeable calls.
+     *
+     * @param ratio the hedged requests allowed per call
+     * @param maxHedges the largest number of hedged requests that can be saved up
+     * @return the ODS hedge budget
+     */
+    @Bean
+    public RetryBudget odsHedgeBudget(@Value("${ods.hedging.budget.ratio:0.05}") double ratio,
+                                      @Value("${ods.hedging.budget.max-hedges:5}") double maxHedges) {
+        return new RetryBudget(ratio, maxHedges);
+    }
+
+    /**
+     * Creates the executor running hedged ODS reads. It is separate from the questionnaire executor, whose
+     * tasks wait on these calls; when it is saturated the calling thread runs the call itself.
+     *
+     * @param maxSize the maximum number of threads
+     * @return the ODS hedge executor
+     */
+    @Bean(name = "odsHedgeExecutor")
+    public ThreadPoolTaskExecutor odsHedgeExecutor(@Value("${ods.hedging.executor.max-size:64}") int maxSize) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(Math.min(8, maxSize));
+        executor.setMaxPoolSize(maxSize);
+        executor.setQueueCapacity(0);
+        executor.setThreadNamePrefix("ods-hedge-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.initialize();
+        return executor;
+    }
+
+    @Bean
+    public RetryConfigCustomizer formReadyRetryCustomizer(RetryBudget odsRetryBudget,
+                                                          @Value("${ods.retry.initial-backoff:PT0.1S}") Duration initialBackoff) {
+        return odsGetRetry("executeFormReadyRequest", odsRetryBudget, initialBackoff);
+    }
+
+    @Bean
+    public RetryConfigCustomizer resetRetryCustomizer(RetryBudget odsRetryBudget,
+                                                      @Value("${ods.retry.initial-backoff:PT0.1S}") Duration initialBackoff) {
+        return odsGetRetry("executeResetRequest", odsRetryBudget, initialBackoff);
+    }
+
+    @Bean
+    public RetryConfigCustomizer questionnaireErrorRetryCustomizer(RetryBudget odsRetryBudget,
+                                                                   @Value("${ods.retry.initial-backoff:PT0.1S}") Duration initialBackoff) {
+        return odsGetRetry("executeQuestionnaireErrorRequest", odsRetryBudget, initialBackoff);
+    }
+
+    /**
+     * Retries connection failures and 5xx responses, with exponential backoff randomised by half either way,
+     * as long as the budget has a retry to spend. Rejections by an open circuit or a full bulkhead are not retried.
+     * The budget is charged from the interval function, which resilience4j only consults once it has decided to
+     * make another attempt, so a failure of the last allowed attempt does not spend a retry.
+     */
+    private static RetryConfigCustomizer odsGetRetry(String endpoint, RetryBudget retryBudget, Duration initialBackoff) {
+        Predicate<Throwable> transientFailure = e -> e instanceof RetryableException || e instanceof FeignException.FeignServerException;
+        IntervalFunction backoff = IntervalFunction.ofExponentialRandomBackoff(initialBackoff, 2.0, 0.5);
+        IntervalBiFunction<Object> budgetedBackoff = (attempt, outcome) -> {
+            if (!retryBudget.tryAcquireRetry()) {
+                throw outcome.isLeft() && outcome.getLeft() instanceof RuntimeException failure
+                        ? failure
+                        : new IllegalStateException("ODS retry budget spent", outcome.isLeft() ? outcome.getLeft() : null);
+            }
+            return backoff.apply(attempt);
+        };
+        return RetryConfigCustomizer.of(endpoint, builder -> builder
+                .intervalBiFunction(budgetedBackoff)
+                .retryOnException(transientFailure));
+    }
+}
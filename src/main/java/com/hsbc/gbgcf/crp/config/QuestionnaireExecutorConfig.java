@@ -0,0 +1,85 @@
+package com.hsbc.gbgcf.crp.config;
+
+import com.hsbc.gbgcf.crp.util.JourneyTags;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Configuration for the bounded executors used to run questionnaire lookups and ODS calls concurrently,
+ * to deliver asynchronous submits and to flush coalesced autosaves.
+ */
+@Configuration
+public class QuestionnaireExecutorConfig {
+
+    /**
+     * Creates the executor shared by the concurrent questionnaire flows.
+     * When the pool and its queue are saturated the calling thread runs the task itself,
+     * which throttles callers instead of rejecting requests. Tasks keep the journey metric tag of the caller.
+     *
+     * @param coreSize the number of threads kept alive
+     * @param maxSize the maximum number of threads
+     * @param queueCapacity the number of tasks that can wait for a thread
+     * @return the questionnaire executor
+     */
+    @Bean(name = "questionnaireExecutor")
+    public ThreadPoolTaskExecutor questionnaireExecutor(@Value("${questionnaire.executor.core-size:8}") int coreSize,
+                                                        @Value("${questionnaire.executor.max-size:32}") int maxSize,
+                                                        @Value("${questionnaire.executor.queue-capacity:200}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(coreSize);
+        executor.setMaxPoolSize(maxSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("questionnaire-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setTaskDecorator(JourneyTags::propagate);
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Creates the executor delivering asynchronous submits to ODS. The dispatcher never hands it more
+     * submits than it has threads, so the queue only absorbs a poll racing a finishing delivery.
+     *
+     * @param concurrency the most submits delivered at once
+     * @return the submit dispatch executor
+     */
+    @Bean(name = "submitDispatchExecutor")
+    public ThreadPoolTaskExecutor submitDispatchExecutor(@Value("${questionnaire.submit.outbox.concurrency:4}") int concurrency) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(concurrency);
+        executor.setMaxPoolSize(concurrency);
+        executor.setQueueCapacity(concurrency);
+        executor.setThreadNamePrefix("submit-dispatch-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Creates the executor flushing coalesced autosaves when their window closes. Its queue is unbounded,
+     * since a flush must not be rejected or run on the timer thread, and it holds at most one flush per
+     * customer and journey. On shutdown it waits up to shutdownWait for the flushes already running.
+     *
+     * @param threads the most autosaves flushed at once
+     * @param shutdownWait how long shutdown waits for running flushes
+     * @return the autosave flush executor
+     */
+    @Bean(name = "autosaveFlushExecutor")
+    public ThreadPoolTaskExecutor autosaveFlushExecutor(@Value("${questionnaire.autosave.flush-threads:8}") int threads,
+                                                        @Value("${questionnaire.autosave.shutdown-wait:PT30S}") Duration shutdownWait) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setThreadNamePrefix("autosave-flush-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationMillis(shutdownWait.toMillis());
+        executor.initialize();
+        return executor;
+    }
+}
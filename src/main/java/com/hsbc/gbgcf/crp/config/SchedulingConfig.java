@@ -0,0 +1,12 @@
+package com.hsbc.gbgcf.crp.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables the scheduled background jobs of the application.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
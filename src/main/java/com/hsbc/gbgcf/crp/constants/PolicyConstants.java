@@ -24,8 +24,32 @@ public final class PolicyConstants {
     // Error Messages
     public static final String ERROR_RESETTING_FORM = "Error occurred while resetting the form";
     public static final String ERROR_PROCESSING_REQUEST = "Error occurred while processing the request";
+    public static final String ODS_UNAVAILABLE = "ODS service temporarily unavailable";
+    public static final String BULK_REQUEST_TOO_LARGE = "Too many customers in one bulk request";
+    public static final String INVALID_BULK_REQUEST = "Every bulk request entry needs a journeyType and a customerIdentificationId";
+    public static final String INVALID_IDEMPOTENCY_KEY = "Invalid Idempotency-Key header";
+    public static final String IDEMPOTENCY_KEY_REUSED = "Idempotency-Key already used for a different request";
+    public static final String IDEMPOTENCY_KEY_IN_PROGRESS = "A request with this Idempotency-Key is still in progress";
+    
+    // Idempotency Headers
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    public static final String IDEMPOTENT_REPLAYED_HEADER = "Idempotent-Replayed";
+    
+    // Asynchronous Submit
+    public static final String SUBMISSION_STATUS_PATH = "/api/v1/submissions/";
     
     // Journey Type Parts
     public static final String JOURNEY_TYPE_LE = "LE";
     public static final String JOURNEY_TYPE_MG = "MG";
-}
\ No newline at end of file
+    
+    // Cache Names
+    public static final String CACHE_LEGAL_ENTITIES = "legalEntities";
+    public static final String CACHE_CLIENTS = "clients";
+    
+    // Hibernate Second-Level Cache Regions
+    public static final String CACHE_REGION_POLICIES = "entity.policy";
+    public static final String CACHE_REGION_LEGAL_ENTITIES = "entity.legalEntity";
+    public static final String CACHE_REGION_LEGAL_ENTITY_POLICIES = "entity.legalEntity.policies";
+    public static final String CACHE_REGION_CLIENTS = "entity.client";
+    public static final String CACHE_REGION_CLIENT_POLICIES = "entity.client.policies";
+}
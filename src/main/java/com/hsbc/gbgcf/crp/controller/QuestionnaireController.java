@@ -1,11 +1,30 @@
 package com.hsbc.gbgcf.crp.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hsbc.gbgcf.crp.constants.PolicyConstants;
+import com.hsbc.gbgcf.crp.dto.FormDataRequest;
+import com.hsbc.gbgcf.crp.dto.FormDataResult;
+import com.hsbc.gbgcf.crp.dto.SubmissionStatus;
+import com.hsbc.gbgcf.crp.service.IdempotencyService;
 import com.hsbc.gbgcf.crp.service.QuestionnaireService;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Supplier;
 
 @RestController
 @RequestMapping("/api/v1")
@@ -15,17 +34,74 @@ public class QuestionnaireController {
     @Autowired
     private QuestionnaireService questionnaireService;
 
+    @Autowired
+    private IdempotencyService idempotencyService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${questionnaire.streaming.enable:false}")
+    boolean streamingEnabled;
+
+    @Value("${questionnaire.bulk.max-size:200}")
+    int bulkMaxSize;
+
     @GetMapping("/form-data/{journeyType}/{customerIdentificationId}")
     public ResponseEntity<String> getODSData(@PathVariable("journeyType") String journeyType, @PathVariable("customerIdentificationId") String customerIdentificationId) {
         log.info("in /form-data {}", journeyType, customerIdentificationId);
         return questionnaireService.getODSdata(journeyType, customerIdentificationId);
     }
 
+    @PostMapping(value = "/form-data/bulk", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> getODSDataBulk(@RequestBody List<FormDataRequest> requests) {
+        log.info("in /form-data/bulk for {} customers", requests.size());
+        if (requests.size() > bulkMaxSize) {
+            return bulkBadRequest(PolicyConstants.BULK_REQUEST_TOO_LARGE);
+        }
+        // Checked before streaming starts, as a bad entry failing mid-stream would leave a truncated 200
+        if (requests.stream().anyMatch(request -> request == null || isBlank(request.journeyType()) || isBlank(request.customerIdentificationId()))) {
+            return bulkBadRequest(PolicyConstants.INVALID_BULK_REQUEST);
+        }
+        StreamingResponseBody body = output -> {
+            try {
+                questionnaireService.getODSdataBulk(requests, result -> writeLine(output, result));
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    private static ResponseEntity<StreamingResponseBody> bulkBadRequest(String message) {
+        return ResponseEntity.badRequest()
+                .contentType(MediaType.TEXT_PLAIN)
+                .body(output -> output.write(message.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+
+    /**
+     * Writes one NDJSON line and flushes it, so the client receives each customer's form as soon as it is ready
+     */
+    private void writeLine(OutputStream output, FormDataResult result) {
+        try {
+            output.write(objectMapper.writeValueAsBytes(result));
+            output.write('\n');
+            output.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
     @PutMapping("/saveODSData")
-    public ResponseEntity<String> saveODSData(@RequestParam("journeyType") String journeyType, @RequestParam("customerIdentificationId") String customerIdentificationId, @RequestBody String formData) {
+    public ResponseEntity<String> saveODSData(@RequestParam("journeyType") String journeyType, @RequestParam("customerIdentificationId") String customerIdentificationId,
+                                              @RequestHeader(value = PolicyConstants.IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey, @RequestBody String formData) {
         log.info("Entering /saveODSData with journeyType: {}, customerIdentificationId: {}", journeyType, customerIdentificationId);
         try {
-            ResponseEntity<String> response = questionnaireService.saveOdsData(journeyType, customerIdentificationId, formData);
+            ResponseEntity<String> response = idempotent("saveODSData", idempotencyKey, journeyType, customerIdentificationId, formData,
+                    () -> questionnaireService.saveOdsData(journeyType, customerIdentificationId, formData));
             log.info("Exiting saveODSData with response status: {}", response.getStatusCode());
             return response;
         } catch (Exception e) {
@@ -34,11 +110,26 @@ public class QuestionnaireController {
         }
     }
 
+    @PostMapping("/saveODSData/flush")
+    public ResponseEntity<String> flushODSData(@RequestParam("journeyType") String journeyType, @RequestParam("customerIdentificationId") String customerIdentificationId) {
+        log.info("Entering /saveODSData/flush with journeyType: {}, customerIdentificationId: {}", journeyType, customerIdentificationId);
+        try {
+            ResponseEntity<String> response = questionnaireService.flushOdsData(journeyType, customerIdentificationId);
+            log.info("Exiting flushODSData with response status: {}", response.getStatusCode());
+            return response;
+        } catch (Exception e) {
+            log.error("Exception in flushODSData: {}", e.getMessage(), e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(null);
+        }
+    }
+
     @PostMapping("/submitODSData")
-    public ResponseEntity<String> submitODSData(@RequestParam("journeyType") String journeyType, @RequestParam("customer IdentificationId") String customerIdentificationId, @RequestBody String formData) {
+    public ResponseEntity<String> submitODSData(@RequestParam("journeyType") String journeyType, @RequestParam("customer IdentificationId") String customerIdentificationId,
+                                                @RequestHeader(value = PolicyConstants.IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey, @RequestBody String formData) {
         log.info("Entering /submitODSData with journeyType: {}, customerIdentificationId: {}", journeyType, customerIdentificationId);
         try {
-            ResponseEntity<String> response = questionnaireService.submitOdsData(journeyType, customerIdentificationId, formData);
+            ResponseEntity<String> response = idempotent("submitODSData", idempotencyKey, journeyType, customerIdentificationId, formData,
+                    () -> questionnaireService.submitOdsData(journeyType, customerIdentificationId, formData));
             log.info("Exiting submitODSData with response status: {}", response.getStatusCode());
             return response;
         } catch (Exception e) {
@@ -47,10 +138,47 @@ public class QuestionnaireController {
         }
     }
 
+    @GetMapping("/submissions/{submissionId}")
+    public ResponseEntity<SubmissionStatus> getSubmissionStatus(@PathVariable("submissionId") Long submissionId) {
+        log.info("in /submissions {}", submissionId);
+        return questionnaireService.findSubmission(submissionId)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Runs the call once per Idempotency-Key, so gateway and browser retries replay the first response
+     * instead of calling ODS and writing the tracking row again. Requests without the header always run.
+     */
+    private ResponseEntity<String> idempotent(String operation, String idempotencyKey, String journeyType, String customerIdentificationId,
+                                              String formData, Supplier<ResponseEntity<String>> call) {
+        if (idempotencyKey == null) {
+            return call.get();
+        }
+        return idempotencyService.execute(operation, idempotencyKey, journeyType + "\n" + customerIdentificationId + "\n" + formData, call);
+    }
+
     @GetMapping("/viewForm")
-    public ResponseEntity<String> viewForm(@RequestParam("journeyType") String journeyType, @RequestParam("customerIdentificationId") String customerIdentificationId) {
+    public ResponseEntity<String> viewForm(@RequestParam("journeyType") String journeyType, @RequestParam("customerIdentificationId") String customerIdentificationId, WebRequest webRequest, HttpServletResponse servletResponse) {
         try {
             log.info("in /viewForm {}", journeyType, customerIdentificationId);
+            Optional<String> etag = questionnaireService.findFormEtag(journeyType, customerIdentificationId);
+            if (etag.isPresent() && webRequest.checkNotModified(etag.get())) {
+                log.info("Exiting viewForm with form not modified");
+                // checkNotModified has already set the 304 status and the ETag header
+                return null;
+            }
+            if (streamingEnabled) {
+                boolean found = questionnaireService.streamViewForm(journeyType, customerIdentificationId, () -> {
+                    servletResponse.setStatus(HttpServletResponse.SC_OK);
+                    servletResponse.setContentType(MediaType.TEXT_PLAIN_VALUE);
+                    servletResponse.setCharacterEncoding(StandardCharsets.UTF_8.name());
+                    return servletResponse.getOutputStream();
+                });
+                log.info("Exiting viewForm with streamed form found: {}", found);
+                // A null entity tells Spring MVC the response has already been written
+                return found ? null : new ResponseEntity<>(PolicyConstants.FORM_NOT_AVAILABLE, HttpStatus.NOT_FOUND);
+            }
             ResponseEntity<String> response = questionnaireService.viewForm(journeyType, customerIdentificationId);
             log.info("Exiting viewForm with response status: {}", response.getStatusCode());
             return response;
@@ -0,0 +1,121 @@
+package com.hsbc.gbgcf.crp.converter;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Codecs available for storing form data. The id is written into the stored header,
+ * so a codec id must never be reused for a different algorithm.
+ */
+public enum FormDataCodec {
+    NONE(0) {
+        @Override
+        OutputStream wrap(OutputStream out) {
+            return out;
+        }
+
+        @Override
+        public InputStream wrap(InputStream in) {
+            return in;
+        }
+    },
+    GZIP(1) {
+        @Override
+        OutputStream wrap(OutputStream out) throws IOException {
+            return new GZIPOutputStream(out, BUFFER_SIZE);
+        }
+
+        @Override
+        public InputStream wrap(InputStream in) throws IOException {
+            return new GZIPInputStream(in, BUFFER_SIZE);
+        }
+    },
+    /**
+     * Raw deflate at the fastest compression level: a smaller ratio than GZIP but much cheaper to encode.
+     */
+    DEFLATE_FAST(2) {
+        @Override
+        OutputStream wrap(OutputStream out) {
+            return new DeflaterOutputStream(out, new Deflater(Deflater.BEST_SPEED), BUFFER_SIZE) {
+                @Override
+                public void close() throws IOException {
+                    try {
+                        super.close();
+                    } finally {
+                        def.end();
+                    }
+                }
+            };
+        }
+
+        @Override
+        public InputStream wrap(InputStream in) {
+            return new InflaterInputStream(in);
+        }
+    };
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private final byte id;
+
+    FormDataCodec(int id) {
+        this.id = (byte) id;
+    }
+
+    public byte getId() {
+        return id;
+    }
+
+    abstract OutputStream wrap(OutputStream out) throws IOException;
+
+    /**
+     * Wraps a stream of encoded bytes (without the header) in a decoding stream
+     *
+     * @param in the encoded bytes
+     * @return the decoded stream
+     * @throws IOException if the stream cannot be opened
+     */
+    public abstract InputStream wrap(InputStream in) throws IOException;
+
+    byte[] encode(byte[] data) {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(Math.max(64, data.length / 4));
+        try (OutputStream out = wrap(buffer)) {
+            out.write(data);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to encode form data with " + this, e);
+        }
+        return buffer.toByteArray();
+    }
+
+    byte[] decode(byte[] data, int offset) {
+        try (InputStream in = wrap(new ByteArrayInputStream(data, offset, data.length - offset))) {
+            return in.readAllBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to decode form data with " + this, e);
+        }
+    }
+
+    /**
+     * Finds the codec for an id read from a stored header
+     *
+     * @param id the codec id
+     * @return the codec
+     */
+    public static FormDataCodec fromId(byte id) {
+        for (FormDataCodec codec : values()) {
+            if (codec.id == id) {
+                return codec;
+            }
+        }
+        throw new IllegalArgumentException("Unknown form data codec id " + id);
+    }
+}
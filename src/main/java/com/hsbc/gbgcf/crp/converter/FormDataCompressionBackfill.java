@@ -0,0 +1,102 @@
+package com.hsbc.gbgcf.crp.converter;
+
+import com.hsbc.gbgcf.crp.util.FormEtag;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Background migration that compresses form content stored before the form_data column existed.
+ * Each run moves one batch of rows from form_data_content into form_data, tags them with their entity tag
+ * and clears the legacy column.
+ * Rows keep reading correctly while they wait, through PolicyTracking's legacy fallback.
+ * Completion is recorded in background_migrations, so instances started later skip the scan altogether.
+ */
+@Component
+@Slf4j
+@ConditionalOnProperty(name = "form.compression.backfill.enabled", havingValue = "true", matchIfMissing = true)
+public class FormDataCompressionBackfill {
+
+    private static final String SELECT_BATCH = "SELECT id, form_data_content FROM policy_tracking "
+            + "WHERE form_data IS NULL AND form_data_content IS NOT NULL ORDER BY id FETCH FIRST ? ROWS ONLY";
+    private static final String UPDATE_ROW = "UPDATE policy_tracking SET form_data = ?, form_etag = ?, form_data_content = NULL "
+            + "WHERE id = ? AND form_data IS NULL";
+    private static final String CLEAR_SUPERSEDED = "UPDATE policy_tracking SET form_data_content = NULL "
+            + "WHERE form_data IS NOT NULL AND form_data_content IS NOT NULL";
+    private static final String MIGRATION_NAME = "form_data_compression";
+    private static final String SELECT_MARKER = "SELECT COUNT(*) FROM background_migrations WHERE name = ?";
+    private static final String INSERT_MARKER = "INSERT INTO background_migrations (name, completed_date) VALUES (?, ?)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${form.compression.codec:GZIP}")
+    private FormDataCodec codec;
+
+    @Value("${form.compression.backfill.batch-size:500}")
+    private int batchSize;
+
+    private volatile boolean completed;
+
+    private volatile boolean markerChecked;
+
+    /**
+     * Compresses the next batch of legacy rows. Stops querying once a run finds nothing left to move, or once
+     * another instance has recorded the backfill as completed.
+     */
+    @Scheduled(initialDelayString = "${form.compression.backfill.initial-delay:PT30S}",
+            fixedDelayString = "${form.compression.backfill.interval:PT5S}")
+    @Transactional
+    public void migrateBatch() {
+        if (completed) {
+            return;
+        }
+        if (!markerChecked) {
+            Integer markers = jdbcTemplate.queryForObject(SELECT_MARKER, Integer.class, MIGRATION_NAME);
+            markerChecked = true;
+            if (markers != null && markers > 0) {
+                log.info("Form data compression backfill already completed");
+                completed = true;
+                return;
+            }
+        }
+        FormDataCompressionConverter converter = new FormDataCompressionConverter(codec);
+        List<Object[]> updates = jdbcTemplate.query(SELECT_BATCH,
+                (resultSet, rowNum) -> {
+                    String content = resultSet.getString("form_data_content");
+                    return new Object[]{converter.convertToDatabaseColumn(content), FormEtag.of(content), resultSet.getLong("id")};
+                },
+                batchSize);
+        if (updates.isEmpty()) {
+            int cleared = jdbcTemplate.update(CLEAR_SUPERSEDED);
+            log.info("Form data compression backfill completed, cleared {} superseded legacy values", cleared);
+            recordCompletion();
+            completed = true;
+            return;
+        }
+        jdbcTemplate.batchUpdate(UPDATE_ROW, updates);
+        log.info("Compressed form data for {} policy tracking rows", updates.size());
+    }
+
+    private void recordCompletion() {
+        try {
+            jdbcTemplate.update(INSERT_MARKER, MIGRATION_NAME, Timestamp.valueOf(LocalDateTime.now()));
+        } catch (DuplicateKeyException e) {
+            log.debug("Form data compression backfill completion already recorded by another instance");
+        }
+    }
+
+    public boolean isCompleted() {
+        return completed;
+    }
+}
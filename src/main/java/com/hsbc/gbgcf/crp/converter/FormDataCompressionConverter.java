@@ -0,0 +1,94 @@
+package com.hsbc.gbgcf.crp.converter;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+import org.springframework.beans.factory.annotation.Value;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PushbackInputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Stores questionnaire form JSON as compressed bytes.
+ * Every stored value starts with a four byte header: the magic bytes "FD", the format version and the codec id.
+ * Values without the header are read as plain UTF-8 so rows written before compression stay readable.
+ */
+@Converter
+public class FormDataCompressionConverter implements AttributeConverter<String, byte[]> {
+
+    public static final byte MAGIC_0 = 'F';
+    public static final byte MAGIC_1 = 'D';
+    public static final byte FORMAT_VERSION = 1;
+    public static final int HEADER_LENGTH = 4;
+
+    @Value("${form.compression.codec:GZIP}")
+    private FormDataCodec codec = FormDataCodec.GZIP;
+
+    public FormDataCompressionConverter() {
+    }
+
+    public FormDataCompressionConverter(FormDataCodec codec) {
+        this.codec = codec;
+    }
+
+    @Override
+    public byte[] convertToDatabaseColumn(String attribute) {
+        if (attribute == null) {
+            return null;
+        }
+        byte[] encoded = codec.encode(attribute.getBytes(StandardCharsets.UTF_8));
+        byte[] stored = new byte[HEADER_LENGTH + encoded.length];
+        stored[0] = MAGIC_0;
+        stored[1] = MAGIC_1;
+        stored[2] = FORMAT_VERSION;
+        stored[3] = codec.getId();
+        System.arraycopy(encoded, 0, stored, HEADER_LENGTH, encoded.length);
+        return stored;
+    }
+
+    @Override
+    public String convertToEntityAttribute(byte[] dbData) {
+        if (dbData == null) {
+            return null;
+        }
+        if (!hasHeader(dbData)) {
+            return new String(dbData, StandardCharsets.UTF_8);
+        }
+        if (dbData[2] != FORMAT_VERSION) {
+            throw new IllegalStateException("Unsupported form data format version " + dbData[2]);
+        }
+        return new String(FormDataCodec.fromId(dbData[3]).decode(dbData, HEADER_LENGTH), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Wraps a stream of stored bytes so that reading it yields the decoded UTF-8 form content,
+     * without materializing the stored value
+     *
+     * @param stored the stored bytes, header included
+     * @return the decoded stream
+     * @throws IOException if the header cannot be read
+     */
+    public static InputStream decodingStream(InputStream stored) throws IOException {
+        PushbackInputStream in = new PushbackInputStream(stored, HEADER_LENGTH);
+        byte[] header = in.readNBytes(HEADER_LENGTH);
+        if (!hasHeader(header)) {
+            in.unread(header);
+            return in;
+        }
+        if (header[2] != FORMAT_VERSION) {
+            throw new IllegalStateException("Unsupported form data format version " + header[2]);
+        }
+        return FormDataCodec.fromId(header[3]).wrap(in);
+    }
+
+    /**
+     * Checks whether stored bytes start with the form data header
+     *
+     * @param dbData the stored bytes
+     * @return true if the bytes carry the header
+     */
+    public static boolean hasHeader(byte[] dbData) {
+        return dbData.length >= HEADER_LENGTH && dbData[0] == MAGIC_0 && dbData[1] == MAGIC_1;
+    }
+}
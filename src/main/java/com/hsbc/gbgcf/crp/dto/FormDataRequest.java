@@ -0,0 +1,10 @@
+package com.hsbc.gbgcf.crp.dto;
+
+/**
+ * One customer of a bulk form-data request
+ *
+ * @param journeyType the type of journey
+ * @param customerIdentificationId the customer identification ID
+ */
+public record FormDataRequest(String journeyType, String customerIdentificationId) {
+}
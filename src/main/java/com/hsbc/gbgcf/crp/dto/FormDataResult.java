@@ -0,0 +1,12 @@
+package com.hsbc.gbgcf.crp.dto;
+
+/**
+ * The form-data outcome for one customer of a bulk request, written as one NDJSON line
+ *
+ * @param journeyType the type of journey
+ * @param customerIdentificationId the customer identification ID
+ * @param status the HTTP status the single-customer endpoint would have returned
+ * @param body the response body the single-customer endpoint would have returned
+ */
+public record FormDataResult(String journeyType, String customerIdentificationId, int status, String body) {
+}
@@ -0,0 +1,22 @@
+package com.hsbc.gbgcf.crp.dto;
+
+import com.hsbc.gbgcf.crp.enums.OutboxStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * The delivery status of an asynchronous submit, returned by the submission status endpoint
+ *
+ * @param submissionId the submission ID
+ * @param journeyType the type of journey
+ * @param customerIdentificationId the customer identification ID
+ * @param status PENDING or IN_FLIGHT until ODS has answered, then DELIVERED, REJECTED (ODS refused the form)
+ *               or FAILED (attempts exhausted)
+ * @param attempts the number of delivery attempts so far
+ * @param lastError the error of the last failed attempt, if any
+ * @param createdDate when the submit was accepted
+ * @param updatedDate when the status last changed
+ */
+public record SubmissionStatus(Long submissionId, String journeyType, String customerIdentificationId, OutboxStatus status,
+                               int attempts, String lastError, LocalDateTime createdDate, LocalDateTime updatedDate) {
+}
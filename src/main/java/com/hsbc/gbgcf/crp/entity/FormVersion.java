@@ -0,0 +1,54 @@
+package com.hsbc.gbgcf.crp.entity;
+
+import com.hsbc.gbgcf.crp.converter.FormDataCompressionConverter;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+import jakarta.persistence.*;
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * Entity representing one stored version of a customer's form for a journey type.
+ * Snapshot versions hold the full form, the others a JSON patch against the previous version.
+ */
+@Entity
+@Table(name = "form_versions")
+@Data
+@NoArgsConstructor
+public class FormVersion implements Serializable {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "customer_id")
+    private String customerId;
+
+    @Column(name = "journey_type")
+    private String journeyType;
+
+    @Column(name = "version")
+    private Integer version;
+
+    @Column(name = "policy_tracking_id")
+    private Long policyTrackingId;
+
+    @Column(name = "snapshot")
+    private boolean snapshot;
+
+    @Lob
+    @ToString.Exclude
+    @Convert(converter = FormDataCompressionConverter.class)
+    @Column(name = "content", columnDefinition = "BLOB")
+    private String content;
+
+    @Column(name = "created_date")
+    private LocalDateTime createdDate;
+
+    @PrePersist
+    protected void onCreate() {
+        createdDate = LocalDateTime.now();
+    }
+}
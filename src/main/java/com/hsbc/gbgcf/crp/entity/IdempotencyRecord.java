@@ -0,0 +1,40 @@
+package com.hsbc.gbgcf.crp.entity;
+
+import com.hsbc.gbgcf.crp.converter.FormDataCompressionConverter;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+import jakarta.persistence.*;
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * Entity representing the stored response of a request sent with an Idempotency-Key header.
+ * The key is scoped by operation, and the request hash detects a key reused for a different request.
+ */
+@Entity
+@Table(name = "idempotency_keys")
+@Data
+@NoArgsConstructor
+public class IdempotencyRecord implements Serializable {
+
+    @Id
+    @Column(name = "idempotency_key")
+    private String idempotencyKey;
+
+    @Column(name = "request_hash")
+    private String requestHash;
+
+    @Column(name = "status_code")
+    private Integer statusCode;
+
+    @Lob
+    @ToString.Exclude
+    @Convert(converter = FormDataCompressionConverter.class)
+    @Column(name = "response_body", columnDefinition = "BLOB")
+    private String responseBody;
+
+    @Column(name = "created_date")
+    private LocalDateTime createdDate;
+}
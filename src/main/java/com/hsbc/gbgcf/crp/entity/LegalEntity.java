@@ -1,7 +1,16 @@
 package com.hsbc.gbgcf.crp.entity;
 
+import com.hsbc.gbgcf.crp.constants.PolicyConstants;
+import lombok.AccessLevel;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
 import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import jakarta.persistence.*;
 import java.io.Serializable;
@@ -12,10 +21,18 @@ import java.util.List;
  */
 @Entity
 @Table(name = "legal_entities")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = PolicyConstants.CACHE_REGION_LEGAL_ENTITIES)
+@BatchSize(size = 50)
+@NamedEntityGraph(name = LegalEntity.WITH_POLICIES, attributeNodes = @NamedAttributeNode("policies"))
 @Data
 @NoArgsConstructor
 public class LegalEntity implements Serializable {
 
+    /**
+     * Entity graph loading the policies together with the legal entity, for lookups whose result outlives the session
+     */
+    public static final String WITH_POLICIES = "LegalEntity.withPolicies";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -26,11 +43,41 @@ public class LegalEntity implements Serializable {
     @Column(name = "entity_name")
     private String entityName;
 
-    @ManyToMany(fetch = FetchType.EAGER)
+    @ManyToMany(fetch = FetchType.LAZY)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = PolicyConstants.CACHE_REGION_LEGAL_ENTITY_POLICIES)
+    @BatchSize(size = 50)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     @JoinTable(
         name = "legal_entity_policies",
         joinColumns = @JoinColumn(name = "legal_entity_id"),
         inverseJoinColumns = @JoinColumn(name = "policy_id")
     )
     private List<Policy> policies;
+
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @ToString.Exclude
+    private transient volatile PolicyIndex policyIndex;
+
+    public void setPolicies(List<Policy> policies) {
+        this.policies = policies;
+        this.policyIndex = null;
+    }
+
+    /**
+     * Find one of this legal entity's policies by its policy code.
+     * The code index is built once per loaded policy collection and rebuilt when its size changes.
+     *
+     * @param policyCode the policy code
+     * @return the policy, or null if the legal entity has no policy with that code
+     */
+    public Policy getPolicyByCode(String policyCode) {
+        PolicyIndex index = policyIndex;
+        if (index == null || !index.isBuiltFrom(policies)) {
+            index = PolicyIndex.of(policies);
+            policyIndex = index;
+        }
+        return index.get(policyCode);
+    }
 }
\ No newline at end of file
@@ -1,16 +1,23 @@
 package com.hsbc.gbgcf.crp.entity;
 
+import com.hsbc.gbgcf.crp.constants.PolicyConstants;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import jakarta.persistence.*;
 import java.io.Serializable;
 
 /**
- * Entity representing a policy
+ * Entity representing a policy. Policies are reference data only ever written by migrations,
+ * so they are kept read-only in the second-level cache.
  */
 @Entity
 @Table(name = "policies")
+@Cache(usage = CacheConcurrencyStrategy.READ_ONLY, region = PolicyConstants.CACHE_REGION_POLICIES)
+@BatchSize(size = 50)
 @Data
 @NoArgsConstructor
 public class Policy implements Serializable {
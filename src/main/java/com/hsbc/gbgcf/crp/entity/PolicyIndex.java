@@ -0,0 +1,65 @@
+package com.hsbc.gbgcf.crp.entity;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Immutable lookup of policies by policy code, built once per loaded policy collection and rebuilt when
+ * policies are added to or removed from it
+ */
+final class PolicyIndex {
+
+    private final Collection<Policy> source;
+
+    private final int sourceSize;
+
+    private final Map<String, Policy> policiesByCode;
+
+    private PolicyIndex(Collection<Policy> source, Map<String, Policy> policiesByCode) {
+        this.source = source;
+        this.sourceSize = source == null ? 0 : source.size();
+        this.policiesByCode = policiesByCode;
+    }
+
+    /**
+     * Builds an index over the given policies. The first policy wins when two share a code.
+     *
+     * @param policies the policies to index, may be null
+     * @return the policy index
+     */
+    static PolicyIndex of(Collection<Policy> policies) {
+        if (policies == null || policies.isEmpty()) {
+            return new PolicyIndex(policies, Collections.emptyMap());
+        }
+        Map<String, Policy> policiesByCode = new HashMap<>();
+        for (Policy policy : policies) {
+            if (policy != null && policy.getPolicyCode() != null) {
+                policiesByCode.putIfAbsent(policy.getPolicyCode(), policy);
+            }
+        }
+        return new PolicyIndex(policies, Collections.unmodifiableMap(policiesByCode));
+    }
+
+    /**
+     * Checks whether this index was built from the given collection instance at its current size.
+     * Replacing an element in place, which keeps the size, is not detected; replace the collection instead.
+     *
+     * @param policies the current policy collection
+     * @return true if the index is still valid for the collection
+     */
+    boolean isBuiltFrom(Collection<Policy> policies) {
+        return source == policies && (policies == null || sourceSize == policies.size());
+    }
+
+    /**
+     * Finds a policy by its code
+     *
+     * @param policyCode the policy code
+     * @return the policy, or null if none has the code
+     */
+    Policy get(String policyCode) {
+        return policiesByCode.get(policyCode);
+    }
+}
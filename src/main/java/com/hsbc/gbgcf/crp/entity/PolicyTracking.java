@@ -1,8 +1,15 @@
 package com.hsbc.gbgcf.crp.entity;
 
+import com.hsbc.gbgcf.crp.converter.FormDataCompressionConverter;
 import com.hsbc.gbgcf.crp.enums.Status;
+import com.hsbc.gbgcf.crp.util.FormEtag;
+import lombok.AccessLevel;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
 import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
 
 import jakarta.persistence.*;
 import java.io.Serializable;
@@ -13,24 +20,38 @@ import java.time.LocalDateTime;
  */
 @Entity
 @Table(name = "policy_tracking")
+@NamedEntityGraph(name = PolicyTracking.WITH_POLICY, attributeNodes = @NamedAttributeNode("policy"))
 @Data
 @NoArgsConstructor
 public class PolicyTracking implements Serializable {
 
+    /**
+     * Entity graph loading the policy together with the tracking rows, for the tracking history queries.
+     * The customer is never loaded with a row: it is the one the rows were looked up by.
+     */
+    public static final String WITH_POLICY = "PolicyTracking.withPolicy";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "policy_tracking_seq")
+    @SequenceGenerator(name = "policy_tracking_seq", sequenceName = "policy_tracking_seq", allocationSize = 50)
     private Long id;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "legal_entity_id")
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     private LegalEntity legalEntity;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "client_id")
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     private Client client;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "policy_id")
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     private Policy policy;
 
     @Enumerated(EnumType.STRING)
@@ -40,15 +61,41 @@ public class PolicyTracking implements Serializable {
     @Column(name = "journey_type")
     private String journeyType;
 
-    @Column(name = "form_data_content", columnDefinition = "TEXT")
+    @Lob
+    @Convert(converter = FormDataCompressionConverter.class)
+    @Column(name = "form_data", columnDefinition = "BLOB")
     private String formDataContent;
 
+    /**
+     * Uncompressed content written before form_data existed, read until the backfill has moved it
+     */
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @ToString.Exclude
+    @Column(name = "form_data_content", columnDefinition = "TEXT", insertable = false, updatable = false)
+    private String legacyFormDataContent;
+
+    /**
+     * Entity tag of the form content, kept in step with it by setFormDataContent
+     */
+    @Column(name = "form_etag", length = 64)
+    private String formEtag;
+
     @Column(name = "retake")
     private String retake;
 
     @Column(name = "created_date")
     private LocalDateTime createdDate;
 
+    public String getFormDataContent() {
+        return formDataContent != null ? formDataContent : legacyFormDataContent;
+    }
+
+    public void setFormDataContent(String formDataContent) {
+        this.formDataContent = formDataContent;
+        this.formEtag = FormEtag.of(formDataContent);
+    }
+
     @PrePersist
     protected void onCreate() {
         createdDate = LocalDateTime.now();
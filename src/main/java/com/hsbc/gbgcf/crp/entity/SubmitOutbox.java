@@ -0,0 +1,67 @@
+package com.hsbc.gbgcf.crp.entity;
+
+import com.hsbc.gbgcf.crp.converter.FormDataCompressionConverter;
+import com.hsbc.gbgcf.crp.enums.OutboxStatus;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+import jakarta.persistence.*;
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * Entity representing an asynchronous submit waiting for, or done with, its delivery to ODS.
+ * Dispatcher claims and outcomes are conditional updates on the version, so a claim that has lost its
+ * lease cannot overwrite the outcome of the one that took over.
+ */
+@Entity
+@Table(name = "submit_outbox")
+@Data
+@NoArgsConstructor
+public class SubmitOutbox implements Serializable {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "policy_tracking_id")
+    private Long policyTrackingId;
+
+    @Column(name = "customer_id")
+    private String customerId;
+
+    @Column(name = "journey_type")
+    private String journeyType;
+
+    @Lob
+    @ToString.Exclude
+    @Convert(converter = FormDataCompressionConverter.class)
+    @Column(name = "form_data", columnDefinition = "BLOB")
+    private String formData;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status")
+    private OutboxStatus status;
+
+    @Column(name = "attempts")
+    private int attempts;
+
+    @Column(name = "next_attempt_at")
+    private LocalDateTime nextAttemptAt;
+
+    @Column(name = "claimed_at")
+    private LocalDateTime claimedAt;
+
+    @Column(name = "last_error", length = 1000)
+    private String lastError;
+
+    @Column(name = "version")
+    private long version;
+
+    @Column(name = "created_date")
+    private LocalDateTime createdDate;
+
+    @Column(name = "updated_date")
+    private LocalDateTime updatedDate;
+}
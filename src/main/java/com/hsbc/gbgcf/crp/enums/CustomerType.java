@@ -0,0 +1,22 @@
+package com.hsbc.gbgcf.crp.enums;
+
+import com.hsbc.gbgcf.crp.constants.PolicyConstants;
+
+/**
+ * Enum representing the kind of customer a journey is for, identified by its code in the journey type
+ */
+public enum CustomerType {
+    LEGAL_ENTITY(PolicyConstants.JOURNEY_TYPE_LE),
+    MASTER_GROUP(PolicyConstants.JOURNEY_TYPE_MG),
+    NONE("none");
+
+    private final String code;
+
+    CustomerType(String code) {
+        this.code = code;
+    }
+
+    public String getCode() {
+        return code;
+    }
+}
@@ -0,0 +1,12 @@
+package com.hsbc.gbgcf.crp.enums;
+
+/**
+ * Enum representing the delivery status of an asynchronous submit
+ */
+public enum OutboxStatus {
+    PENDING,
+    IN_FLIGHT,
+    DELIVERED,
+    REJECTED,
+    FAILED
+}
@@ -1,9 +1,17 @@
 package com.hsbc.gbgcf.crp.repository;
 
+import com.hsbc.gbgcf.crp.constants.PolicyConstants;
 import com.hsbc.gbgcf.crp.entity.Client;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -13,10 +21,41 @@ import java.util.Optional;
 public interface ClientRepository extends JpaRepository<Client, Long> {
     
     /**
-     * Find a client by its master group ID
+     * Find a client by its master group ID. The result is kept in the reference data cache and outlives
+     * the session, so the policies are loaded with it
      * 
      * @param masterGroupId the master group ID
      * @return an Optional containing the client if found
      */
+    @EntityGraph(Client.WITH_POLICIES)
+    @Cacheable(cacheNames = PolicyConstants.CACHE_CLIENTS, unless = "#result == null")
     Optional<Client> findByMasterGroupId(String masterGroupId);
+
+    /**
+     * Find the clients with the given master group IDs, together with their policies, in one query
+     * 
+     * @param masterGroupIds the master group IDs
+     * @return the clients found
+     */
+    @Query("SELECT DISTINCT c FROM Client c LEFT JOIN FETCH c.policies WHERE c.masterGroupId IN (:masterGroupIds)")
+    List<Client> findAllByMasterGroupIdIn(@Param("masterGroupIds") Collection<String> masterGroupIds);
+
+    /**
+     * Save a client and evict its cached lookup
+     * 
+     * @param entity the entity to save
+     * @return the saved entity
+     */
+    @Override
+    @CacheEvict(cacheNames = PolicyConstants.CACHE_CLIENTS, key = "#p0.masterGroupId", condition = "#p0.masterGroupId != null")
+    <S extends Client> S save(S entity);
+
+    /**
+     * Delete a client and evict its cached lookup
+     * 
+     * @param entity the entity to delete
+     */
+    @Override
+    @CacheEvict(cacheNames = PolicyConstants.CACHE_CLIENTS, key = "#p0.masterGroupId", condition = "#p0.masterGroupId != null")
+    void delete(Client entity);
 }
\ No newline at end of file
@@ -0,0 +1,107 @@
+package com.hsbc.gbgcf.crp.repository;
+
+import com.hsbc.gbgcf.crp.converter.FormDataCompressionConverter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Streams stored form content straight from the JDBC result set to an output stream,
+ * decompressing on the fly, so large forms are never held in the heap as a whole.
+ */
+@Repository
+public class FormContentStreamRepository {
+
+    private static final String LATEST_BY_LE = "SELECT pt.form_data, pt.form_data_content FROM policy_tracking pt "
+            + "JOIN legal_entities le ON le.id = pt.legal_entity_id "
+            + "WHERE le.entity_id = ? AND pt.journey_type = ? AND (pt.form_data IS NOT NULL OR pt.form_data_content IS NOT NULL) "
+            + "ORDER BY pt.created_date DESC FETCH FIRST 1 ROWS ONLY";
+
+    private static final String LATEST_BY_MG = "SELECT pt.form_data, pt.form_data_content FROM policy_tracking pt "
+            + "JOIN clients c ON c.id = pt.client_id "
+            + "WHERE c.master_group_id = ? AND pt.journey_type = ? AND (pt.form_data IS NOT NULL OR pt.form_data_content IS NOT NULL) "
+            + "ORDER BY pt.created_date DESC FETCH FIRST 1 ROWS ONLY";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * Opens the destination stream only once a form has been found, so callers can still answer NOT_FOUND
+     */
+    @FunctionalInterface
+    public interface OutputStreamOpener {
+        OutputStream open() throws IOException;
+    }
+
+    /**
+     * Stream the latest non-null form content by legal entity and journey type
+     * 
+     * @param legalEntityId the legal entity ID
+     * @param journeyType the journey type
+     * @param output opens the destination stream
+     * @return true if a form was found and written
+     * @throws IOException if writing to the destination fails
+     */
+    public boolean streamLatestFormByLE(String legalEntityId, String journeyType, OutputStreamOpener output) throws IOException {
+        return streamLatest(LATEST_BY_LE, legalEntityId, journeyType, output);
+    }
+
+    /**
+     * Stream the latest non-null form content by master group and journey type
+     * 
+     * @param masterGroupId the master group ID
+     * @param journeyType the journey type
+     * @param output opens the destination stream
+     * @return true if a form was found and written
+     * @throws IOException if writing to the destination fails
+     */
+    public boolean streamLatestFormByMg(String masterGroupId, String journeyType, OutputStreamOpener output) throws IOException {
+        return streamLatest(LATEST_BY_MG, masterGroupId, journeyType, output);
+    }
+
+    private boolean streamLatest(String sql, String customerId, String journeyType, OutputStreamOpener output) throws IOException {
+        try {
+            Boolean found = jdbcTemplate.query(sql, resultSet -> {
+                if (!resultSet.next()) {
+                    return false;
+                }
+                try {
+                    writeContent(resultSet, output);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                return true;
+            }, customerId, journeyType);
+            return Boolean.TRUE.equals(found);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private void writeContent(ResultSet resultSet, OutputStreamOpener output) throws SQLException, IOException {
+        try (InputStream stored = resultSet.getBinaryStream("form_data")) {
+            if (stored != null) {
+                OutputStream out = output.open();
+                FormDataCompressionConverter.decodingStream(stored).transferTo(out);
+                out.flush();
+                return;
+            }
+        }
+        try (Reader legacy = resultSet.getCharacterStream("form_data_content")) {
+            Writer writer = new OutputStreamWriter(output.open(), StandardCharsets.UTF_8);
+            legacy.transferTo(writer);
+            writer.flush();
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.hsbc.gbgcf.crp.repository;
+
+import com.hsbc.gbgcf.crp.entity.FormVersion;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Repository for FormVersion entities
+ */
+@Repository
+public interface FormVersionRepository extends JpaRepository<FormVersion, Long> {
+
+    /**
+     * Find the latest snapshot version of a customer's form
+     * 
+     * @param customerId the customer identification ID
+     * @param journeyType the journey type
+     * @return an Optional containing the latest snapshot if any
+     */
+    Optional<FormVersion> findFirstByCustomerIdAndJourneyTypeAndSnapshotTrueOrderByVersionDesc(String customerId, String journeyType);
+
+    /**
+     * Find the versions from a given version onwards, oldest first
+     * 
+     * @param customerId the customer identification ID
+     * @param journeyType the journey type
+     * @param fromVersion the first version to return
+     * @return list of form versions ordered by version
+     */
+    @Query("SELECT fv FROM FormVersion fv WHERE fv.customerId = :customerId AND fv.journeyType = :journeyType AND fv.version >= :fromVersion ORDER BY fv.version ASC")
+    List<FormVersion> findFromVersion(@Param("customerId") String customerId, @Param("journeyType") String journeyType, @Param("fromVersion") Integer fromVersion);
+}
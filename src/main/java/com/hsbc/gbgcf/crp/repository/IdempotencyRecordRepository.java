@@ -0,0 +1,85 @@
+package com.hsbc.gbgcf.crp.repository;
+
+import com.hsbc.gbgcf.crp.entity.IdempotencyRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+/**
+ * Repository for IdempotencyRecord entities
+ */
+@Repository
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, String> {
+
+    /**
+     * Delete the records created before the given time
+     * 
+     * @param createdBefore the oldest creation time to keep
+     * @return the number of deleted records
+     */
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord ir WHERE ir.createdDate < :createdBefore")
+    int deleteCreatedBefore(@Param("createdBefore") LocalDateTime createdBefore);
+
+    /**
+     * Reserve a key with a pending record, failing with a DataIntegrityViolationException if a record already
+     * exists for it
+     * 
+     * @param idempotencyKey the scoped idempotency key
+     * @param requestHash the hash of the request
+     * @param createdDate the current time
+     * @return the number of inserted records
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO idempotency_keys (idempotency_key, request_hash, created_date) VALUES (:idempotencyKey, :requestHash, :createdDate)",
+            nativeQuery = true)
+    int insertPending(@Param("idempotencyKey") String idempotencyKey, @Param("requestHash") String requestHash,
+                      @Param("createdDate") LocalDateTime createdDate);
+
+    /**
+     * Store the response on a pending record, leaving a completed one untouched
+     * 
+     * @param idempotencyKey the scoped idempotency key
+     * @param statusCode the response status code
+     * @param responseBody the response body
+     * @return 1 if the record was completed, 0 otherwise
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE IdempotencyRecord ir SET ir.statusCode = :statusCode, ir.responseBody = :responseBody "
+            + "WHERE ir.idempotencyKey = :idempotencyKey AND ir.statusCode IS NULL")
+    int complete(@Param("idempotencyKey") String idempotencyKey, @Param("statusCode") Integer statusCode,
+                 @Param("responseBody") String responseBody);
+
+    /**
+     * Delete the pending record of a key, freeing it for a retry
+     * 
+     * @param idempotencyKey the scoped idempotency key
+     * @return the number of deleted records
+     */
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord ir WHERE ir.idempotencyKey = :idempotencyKey AND ir.statusCode IS NULL")
+    int deletePending(@Param("idempotencyKey") String idempotencyKey);
+
+    /**
+     * Delete the record of a key if it has expired, or if it is pending and was reserved before the given time
+     * 
+     * @param idempotencyKey the scoped idempotency key
+     * @param createdBefore the oldest creation time to keep
+     * @param pendingBefore the oldest creation time to keep for a pending record
+     * @return the number of deleted records
+     */
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord ir WHERE ir.idempotencyKey = :idempotencyKey "
+            + "AND (ir.createdDate < :createdBefore OR (ir.statusCode IS NULL AND ir.createdDate < :pendingBefore))")
+    int deleteStale(@Param("idempotencyKey") String idempotencyKey, @Param("createdBefore") LocalDateTime createdBefore,
+                    @Param("pendingBefore") LocalDateTime pendingBefore);
+}
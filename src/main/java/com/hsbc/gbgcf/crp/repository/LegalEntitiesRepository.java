@@ -1,9 +1,17 @@
 package com.hsbc.gbgcf.crp.repository;
 
+import com.hsbc.gbgcf.crp.constants.PolicyConstants;
 import com.hsbc.gbgcf.crp.entity.LegalEntity;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -13,10 +21,41 @@ import java.util.Optional;
 public interface LegalEntitiesRepository extends JpaRepository<LegalEntity, Long> {
     
     /**
-     * Find a legal entity by its entity ID
+     * Find a legal entity by its entity ID. The result is kept in the reference data cache and outlives
+     * the session, so the policies are loaded with it
      * 
      * @param entityId the entity ID
      * @return an Optional containing the legal entity if found
      */
+    @EntityGraph(LegalEntity.WITH_POLICIES)
+    @Cacheable(cacheNames = PolicyConstants.CACHE_LEGAL_ENTITIES, unless = "#result == null")
     Optional<LegalEntity> findByEntityId(String entityId);
+
+    /**
+     * Find the legal entities with the given entity IDs, together with their policies, in one query
+     * 
+     * @param entityIds the entity IDs
+     * @return the legal entities found
+     */
+    @Query("SELECT DISTINCT le FROM LegalEntity le LEFT JOIN FETCH le.policies WHERE le.entityId IN (:entityIds)")
+    List<LegalEntity> findAllByEntityIdIn(@Param("entityIds") Collection<String> entityIds);
+
+    /**
+     * Save a legal entity and evict its cached lookup
+     * 
+     * @param entity the entity to save
+     * @return the saved entity
+     */
+    @Override
+    @CacheEvict(cacheNames = PolicyConstants.CACHE_LEGAL_ENTITIES, key = "#p0.entityId", condition = "#p0.entityId != null")
+    <S extends LegalEntity> S save(S entity);
+
+    /**
+     * Delete a legal entity and evict its cached lookup
+     * 
+     * @param entity the entity to delete
+     */
+    @Override
+    @CacheEvict(cacheNames = PolicyConstants.CACHE_LEGAL_ENTITIES, key = "#p0.entityId", condition = "#p0.entityId != null")
+    void delete(LegalEntity entity);
 }
\ No newline at end of file
@@ -2,11 +2,14 @@ package com.hsbc.gbgcf.crp.repository;
 
 import com.hsbc.gbgcf.crp.entity.PolicyTracking;
 import com.hsbc.gbgcf.crp.enums.Status;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -32,6 +35,26 @@ public interface PolicyTrackingRepository extends JpaRepository<PolicyTracking,
     @Query("SELECT pt FROM PolicyTracking pt WHERE pt.client.masterGroupId = :clientId AND pt.status IN (:statuses)")
     PolicyTracking findByClientIdAndMultipleStatuses(@Param("clientId") String clientId, @Param("statuses") Status... statuses);
 
+    /**
+     * Find policy tracking for several legal entity IDs and multiple statuses in one query
+     * 
+     * @param legalEntityIds the legal entity IDs
+     * @param statuses the statuses to filter by
+     * @return the policy tracking of every legal entity that has one
+     */
+    @Query("SELECT pt FROM PolicyTracking pt JOIN FETCH pt.legalEntity le WHERE le.entityId IN (:legalEntityIds) AND pt.status IN (:statuses)")
+    List<PolicyTracking> findByLegalEntityIdsAndMultipleStatuses(@Param("legalEntityIds") Collection<String> legalEntityIds, @Param("statuses") Status... statuses);
+
+    /**
+     * Find policy tracking for several client IDs and multiple statuses in one query
+     * 
+     * @param clientIds the client IDs
+     * @param statuses the statuses to filter by
+     * @return the policy tracking of every client that has one
+     */
+    @Query("SELECT pt FROM PolicyTracking pt JOIN FETCH pt.client c WHERE c.masterGroupId IN (:clientIds) AND pt.status IN (:statuses)")
+    List<PolicyTracking> findByClientIdsAndMultipleStatuses(@Param("clientIds") Collection<String> clientIds, @Param("statuses") Status... statuses);
+
     /**
      * Find policy tracking by legal entity ID and statuses
      * 
@@ -73,42 +96,106 @@ public interface PolicyTrackingRepository extends JpaRepository<PolicyTracking,
     List<PolicyTracking> findByClientIdAndStatusesLatest(@Param("clientId") String clientId, @Param("statuses") Status... statuses);
 
     /**
-     * Find policy tracking by legal entity and journey type (latest)
+     * Find policy tracking by legal entity and journey type (latest), with their policies
      * 
      * @param legalEntityId the legal entity ID
      * @param journeyType the journey type
      * @return list of policy tracking
      */
+    @EntityGraph(PolicyTracking.WITH_POLICY)
     @Query("SELECT pt FROM PolicyTracking pt WHERE pt.legalEntity.entityId = :legalEntityId AND pt.journeyType = :journeyType ORDER BY pt.createdDate DESC")
     List<PolicyTracking> findByLEAndJourneyTypeLatest(@Param("legalEntityId") String legalEntityId, @Param("journeyType") String journeyType);
 
     /**
-     * Find policy tracking by legal entity and journey type (previous)
+     * Find policy tracking by legal entity and journey type (previous), with their policies
      * 
      * @param legalEntityId the legal entity ID
      * @param journeyType the journey type
      * @return list of policy tracking
      */
-    @Query("SELECT pt FROM PolicyTracking pt WHERE pt.legalEntity.entityId = :legalEntityId AND pt.journeyType = :journeyType AND pt.formDataContent IS NOT NULL ORDER BY pt.createdDate DESC")
+    @EntityGraph(PolicyTracking.WITH_POLICY)
+    @Query("SELECT pt FROM PolicyTracking pt WHERE pt.legalEntity.entityId = :legalEntityId AND pt.journeyType = :journeyType AND (pt.formDataContent IS NOT NULL OR pt.legacyFormDataContent IS NOT NULL) ORDER BY pt.createdDate DESC")
     List<PolicyTracking> findByLEAndJourneyTypePrevious(@Param("legalEntityId") String legalEntityId, @Param("journeyType") String journeyType);
 
     /**
-     * Find policy tracking by master group and journey type (latest)
+     * Find policy tracking by master group and journey type (latest), with their policies
      * 
      * @param masterGroupId the master group ID
      * @param journeyType the journey type
      * @return list of policy tracking
      */
+    @EntityGraph(PolicyTracking.WITH_POLICY)
     @Query("SELECT pt FROM PolicyTracking pt WHERE pt.client.masterGroupId = :masterGroupId AND pt.journeyType = :journeyType ORDER BY pt.createdDate DESC")
     List<PolicyTracking> findByMgAndJourneyTypeLatest(@Param("masterGroupId") String masterGroupId, @Param("journeyType") String journeyType);
 
     /**
-     * Find policy tracking by master group and journey type (previous)
+     * Find policy tracking by master group and journey type (previous), with their policies
      * 
      * @param masterGroupId the master group ID
      * @param journeyType the journey type
      * @return list of policy tracking
      */
-    @Query("SELECT pt FROM PolicyTracking pt WHERE pt.client.masterGroupId = :masterGroupId AND pt.journeyType = :journeyType AND pt.formDataContent IS NOT NULL ORDER BY pt.createdDate DESC")
+    @EntityGraph(PolicyTracking.WITH_POLICY)
+    @Query("SELECT pt FROM PolicyTracking pt WHERE pt.client.masterGroupId = :masterGroupId AND pt.journeyType = :journeyType AND (pt.formDataContent IS NOT NULL OR pt.legacyFormDataContent IS NOT NULL) ORDER BY pt.createdDate DESC")
     List<PolicyTracking> findByMgAndJourneyTypePrevious(@Param("masterGroupId") String masterGroupId, @Param("journeyType") String journeyType);
-}
\ No newline at end of file
+
+    /**
+     * Find the latest non-null form content by legal entity and journey type.
+     * Pass a single-row page to fetch only the latest form.
+     * 
+     * @param legalEntityId the legal entity ID
+     * @param journeyType the journey type
+     * @param pageable the page limiting the result size
+     * @return list of stored form contents ordered by creation date
+     */
+    @Query("SELECT new com.hsbc.gbgcf.crp.repository.StoredFormContent(pt.formDataContent, pt.legacyFormDataContent) FROM PolicyTracking pt WHERE pt.legalEntity.entityId = :legalEntityId AND pt.journeyType = :journeyType AND (pt.formDataContent IS NOT NULL OR pt.legacyFormDataContent IS NOT NULL) ORDER BY pt.createdDate DESC")
+    List<StoredFormContent> findLatestFormDataContentByLE(@Param("legalEntityId") String legalEntityId, @Param("journeyType") String journeyType, Pageable pageable);
+
+    /**
+     * Find the latest non-null form content by master group and journey type.
+     * Pass a single-row page to fetch only the latest form.
+     * 
+     * @param masterGroupId the master group ID
+     * @param journeyType the journey type
+     * @param pageable the page limiting the result size
+     * @return list of stored form contents ordered by creation date
+     */
+    @Query("SELECT new com.hsbc.gbgcf.crp.repository.StoredFormContent(pt.formDataContent, pt.legacyFormDataContent) FROM PolicyTracking pt WHERE pt.client.masterGroupId = :masterGroupId AND pt.journeyType = :journeyType AND (pt.formDataContent IS NOT NULL OR pt.legacyFormDataContent IS NOT NULL) ORDER BY pt.createdDate DESC")
+    List<StoredFormContent> findLatestFormDataContentByMg(@Param("masterGroupId") String masterGroupId, @Param("journeyType") String journeyType, Pageable pageable);
+
+    /**
+     * Find the entity tag of the latest non-null form content by legal entity and journey type.
+     * Selects the same row as findLatestFormDataContentByLE without reading the content; rows whose
+     * content lives in the versioned form store only carry the tag.
+     * 
+     * @param legalEntityId the legal entity ID
+     * @param journeyType the journey type
+     * @param pageable the page limiting the result size
+     * @return list of entity tags ordered by creation date
+     */
+    @Query("SELECT pt.formEtag FROM PolicyTracking pt WHERE pt.legalEntity.entityId = :legalEntityId AND pt.journeyType = :journeyType AND (pt.formEtag IS NOT NULL OR pt.formDataContent IS NOT NULL OR pt.legacyFormDataContent IS NOT NULL) ORDER BY pt.createdDate DESC")
+    List<String> findLatestFormEtagByLE(@Param("legalEntityId") String legalEntityId, @Param("journeyType") String journeyType, Pageable pageable);
+
+    /**
+     * Find the entity tag of the latest non-null form content by master group and journey type.
+     * Selects the same row as findLatestFormDataContentByMg without reading the content; rows whose
+     * content lives in the versioned form store only carry the tag.
+     * 
+     * @param masterGroupId the master group ID
+     * @param journeyType the journey type
+     * @param pageable the page limiting the result size
+     * @return list of entity tags ordered by creation date
+     */
+    @Query("SELECT pt.formEtag FROM PolicyTracking pt WHERE pt.client.masterGroupId = :masterGroupId AND pt.journeyType = :journeyType AND (pt.formEtag IS NOT NULL OR pt.formDataContent IS NOT NULL OR pt.legacyFormDataContent IS NOT NULL) ORDER BY pt.createdDate DESC")
+    List<String> findLatestFormEtagByMg(@Param("masterGroupId") String masterGroupId, @Param("journeyType") String journeyType, Pageable pageable);
+
+    /**
+     * Locks a tracking row until the end of the current transaction, so form versions appended for it
+     * are numbered one at a time
+     * 
+     * @param id the policy tracking ID
+     * @return the policy tracking ID, or null if there is no such row
+     */
+    @Query(value = "SELECT id FROM policy_tracking WHERE id = :id FOR UPDATE", nativeQuery = true)
+    Long lockById(@Param("id") Long id);
+}
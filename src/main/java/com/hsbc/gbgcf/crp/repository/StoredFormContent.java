@@ -0,0 +1,20 @@
+package com.hsbc.gbgcf.crp.repository;
+
+/**
+ * Projection of the stored form content of a policy tracking row.
+ * Rows not yet moved by the compression backfill only have the legacy content.
+ *
+ * @param formDataContent the decompressed form content
+ * @param legacyFormDataContent the uncompressed legacy form content
+ */
+public record StoredFormContent(String formDataContent, String legacyFormDataContent) {
+
+    /**
+     * Returns the current form content
+     *
+     * @return the form content, preferring the compressed column
+     */
+    public String content() {
+        return formDataContent != null ? formDataContent : legacyFormDataContent;
+    }
+}
@@ -0,0 +1,90 @@
+package com.hsbc.gbgcf.crp.repository;
+
+import com.hsbc.gbgcf.crp.entity.SubmitOutbox;
+import com.hsbc.gbgcf.crp.enums.OutboxStatus;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Repository for SubmitOutbox entities
+ */
+@Repository
+public interface SubmitOutboxRepository extends JpaRepository<SubmitOutbox, Long> {
+
+    /**
+     * Find the submits ready for delivery, oldest first: pending ones whose next attempt is due, and in flight
+     * ones whose claim has expired. Only the oldest open submit of each customer and journey type is returned,
+     * so a customer's submits reach ODS in order.
+     * 
+     * @param now the current time
+     * @param claimedBefore claims older than this have expired
+     * @param pending the pending status
+     * @param inFlight the in flight status
+     * @param pageable the page limiting the result size
+     * @return list of submits ready for delivery
+     */
+    @Query("SELECT so FROM SubmitOutbox so WHERE ((so.status = :pending AND so.nextAttemptAt <= :now) "
+            + "OR (so.status = :inFlight AND so.claimedAt < :claimedBefore)) "
+            + "AND NOT EXISTS (SELECT earlier.id FROM SubmitOutbox earlier WHERE earlier.customerId = so.customerId "
+            + "AND earlier.journeyType = so.journeyType AND earlier.id < so.id AND earlier.status IN (:pending, :inFlight)) "
+            + "ORDER BY so.id")
+    List<SubmitOutbox> findReady(@Param("now") LocalDateTime now, @Param("claimedBefore") LocalDateTime claimedBefore,
+                                 @Param("pending") OutboxStatus pending, @Param("inFlight") OutboxStatus inFlight, Pageable pageable);
+
+    /**
+     * Claim a submit for delivery, unless another dispatcher has changed it since it was read. The persistence
+     * context is cleared afterwards, so the submits read before are detached and changing them to match the claim
+     * does not write them again.
+     * 
+     * @param id the submit ID
+     * @param version the version the submit was read at
+     * @param inFlight the in flight status
+     * @param now the current time
+     * @return 1 if the submit was claimed, 0 otherwise
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE SubmitOutbox so SET so.status = :inFlight, so.claimedAt = :now, so.attempts = so.attempts + 1, "
+            + "so.version = so.version + 1, so.updatedDate = :now WHERE so.id = :id AND so.version = :version")
+    int claim(@Param("id") Long id, @Param("version") long version, @Param("inFlight") OutboxStatus inFlight, @Param("now") LocalDateTime now);
+
+    /**
+     * Record the outcome of a delivery attempt, unless the claim has since been taken over
+     * 
+     * @param id the submit ID
+     * @param version the version the submit was claimed at
+     * @param status the new status
+     * @param nextAttemptAt the time of the next attempt
+     * @param lastError the error of the attempt, if any
+     * @param now the current time
+     * @return 1 if the outcome was recorded, 0 otherwise
+     */
+    @Modifying
+    @Query("UPDATE SubmitOutbox so SET so.status = :status, so.nextAttemptAt = :nextAttemptAt, so.lastError = :lastError, "
+            + "so.version = so.version + 1, so.updatedDate = :now WHERE so.id = :id AND so.version = :version")
+    int complete(@Param("id") Long id, @Param("version") long version, @Param("status") OutboxStatus status,
+                 @Param("nextAttemptAt") LocalDateTime nextAttemptAt, @Param("lastError") String lastError, @Param("now") LocalDateTime now);
+
+    /**
+     * Hand a claimed submit back without counting its attempt, unless the claim has since been taken over
+     * 
+     * @param id the submit ID
+     * @param version the version the submit was claimed at
+     * @param pending the pending status
+     * @param nextAttemptAt the time of the next attempt
+     * @param lastError why the attempt was not made
+     * @param now the current time
+     * @return 1 if the submit was handed back, 0 otherwise
+     */
+    @Modifying
+    @Query("UPDATE SubmitOutbox so SET so.status = :pending, so.nextAttemptAt = :nextAttemptAt, so.lastError = :lastError, "
+            + "so.attempts = so.attempts - 1, so.version = so.version + 1, so.updatedDate = :now WHERE so.id = :id AND so.version = :version")
+    int release(@Param("id") Long id, @Param("version") long version, @Param("pending") OutboxStatus pending,
+                @Param("nextAttemptAt") LocalDateTime nextAttemptAt, @Param("lastError") String lastError, @Param("now") LocalDateTime now);
+}
@@ -0,0 +1,104 @@
+package com.hsbc.gbgcf.crp.service;
+
+import com.hsbc.gbgcf.crp.entity.PolicyTracking;
+import com.hsbc.gbgcf.crp.enums.CustomerType;
+import com.hsbc.gbgcf.crp.repository.FormContentStreamRepository.OutputStreamOpener;
+import com.hsbc.gbgcf.crp.repository.StoredFormContent;
+import org.springframework.data.domain.Pageable;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * The customer lookups and tracking queries of a questionnaire journey, for one kind of customer.
+ * The questionnaire service picks the strategy matching the journey type, so the legal entity and
+ * master group flows share a single code path.
+ */
+public interface CustomerJourney {
+
+    /**
+     * @return the kind of customer this strategy handles
+     */
+    CustomerType getCustomerType();
+
+    /**
+     * Finds the customer's open (case initiated, pulled or in progress) tracking row, or creates one, and
+     * attaches the customer's TCPOP policy to it
+     *
+     * @param customerIdentificationId the customer identification ID
+     * @return the tracking row, not yet saved
+     */
+    PolicyTracking trackOpenPolicy(String customerIdentificationId);
+
+    /**
+     * Runs the lookups of trackOpenPolicy in parallel on the executor. The returned future completes once
+     * all lookups have, with the step attaching the policy, which the caller runs when it is ready.
+     *
+     * @param customerIdentificationId the customer identification ID
+     * @param executor the executor running the lookups
+     * @return the future step returning the tracking row
+     */
+    CompletableFuture<Supplier<PolicyTracking>> lookupOpenPolicyAsync(String customerIdentificationId, Executor executor);
+
+    /**
+     * Loads the open tracking rows and the customers of several customers with one query each, for
+     * trackOpenPolicy calls that no longer hit the database. A customer is given the same tracking row on every
+     * call, including the row created for a customer that had none, so it is never tracked twice.
+     *
+     * @param customerIdentificationIds the customer identification IDs
+     * @return trackOpenPolicy over the prefetched rows and customers
+     */
+    Function<String, PolicyTracking> prefetchOpenPolicies(Collection<String> customerIdentificationIds);
+
+    /**
+     * Finds the customer's pulled or in progress tracking row
+     *
+     * @param customerIdentificationId the customer identification ID
+     * @return the tracking row, or null if there is none
+     */
+    PolicyTracking findActiveTracking(String customerIdentificationId);
+
+    /**
+     * Finds the customer's submitted or decided tracking rows
+     *
+     * @param customerIdentificationId the customer identification ID
+     * @return the tracking rows, latest first
+     */
+    List<PolicyTracking> findSubmittedTrackingsLatest(String customerIdentificationId);
+
+    /**
+     * Finds the customer's stored form contents for the journey type
+     *
+     * @param customerIdentificationId the customer identification ID
+     * @param journeyType the journey type
+     * @param pageable the page limiting the result size
+     * @return the stored form contents, latest first
+     */
+    List<StoredFormContent> findLatestFormContent(String customerIdentificationId, String journeyType, Pageable pageable);
+
+    /**
+     * Finds the entity tags of the customer's stored forms for the journey type
+     *
+     * @param customerIdentificationId the customer identification ID
+     * @param journeyType the journey type
+     * @param pageable the page limiting the result size
+     * @return the entity tags, latest first
+     */
+    List<String> findLatestFormEtag(String customerIdentificationId, String journeyType, Pageable pageable);
+
+    /**
+     * Streams the customer's latest stored form for the journey type
+     *
+     * @param customerIdentificationId the customer identification ID
+     * @param journeyType the journey type
+     * @param output opens the response stream once a form has been found
+     * @return true if a form was found and written
+     * @throws IOException if writing the response fails
+     */
+    boolean streamLatestForm(String customerIdentificationId, String journeyType, OutputStreamOpener output) throws IOException;
+}
@@ -0,0 +1,29 @@
+package com.hsbc.gbgcf.crp.service;
+
+import java.time.Duration;
+import java.util.Optional;
+
+public interface DspTokenService {
+
+    /**
+     * Returns the cached DSP token, fetching a new one only when none is cached or it is about to expire.
+     * Concurrent callers that find no usable token share a single fetch.
+     * 
+     * @return the authentication token
+     */
+    String getToken();
+
+    /**
+     * Fetches a new token now, replacing the cached one
+     * 
+     * @return the new authentication token
+     */
+    String refreshToken();
+
+    /**
+     * Returns how long ago the cached token was fetched
+     * 
+     * @return the age of the cached token, or empty if no token has been fetched yet
+     */
+    Optional<Duration> getTokenAge();
+}
@@ -0,0 +1,38 @@
+package com.hsbc.gbgcf.crp.service;
+
+import java.util.Optional;
+
+public interface FormVersionService {
+
+    /**
+     * Rewrites a JSON form the way versions are stored and returned, keeping every decimal digit, so the
+     * same form always has the same bytes and entity tag. Content that is not JSON is returned unchanged.
+     * 
+     * @param formData the form content
+     * @return the form as findLatest returns it once appended
+     */
+    String normalize(String formData);
+
+    /**
+     * Stores a new version of a customer's form. The version is stored as a JSON patch against the previous
+     * version, or in full when it starts a new snapshot interval. JSON content is stored normalized.
+     * Unchanged content is not stored again. An array whose length changed is replaced whole in the patch, and
+     * versions are kept for as long as the tracking data, as nothing prunes them. Must run in the caller's
+     * transaction, which holds the lock on the tracking row so concurrent appends are numbered one after the other.
+     * 
+     * @param customerIdentificationId the customer identification ID
+     * @param journeyType the type of journey
+     * @param policyTrackingId the policy tracking row the form belongs to
+     * @param formData the full form content
+     */
+    void append(String customerIdentificationId, String journeyType, Long policyTrackingId, String formData);
+
+    /**
+     * Reconstructs the latest version of a customer's form
+     * 
+     * @param customerIdentificationId the customer identification ID
+     * @param journeyType the type of journey
+     * @return an Optional containing the latest form if any version is stored
+     */
+    Optional<String> findLatest(String customerIdentificationId, String journeyType);
+}
@@ -0,0 +1,27 @@
+package com.hsbc.gbgcf.crp.service;
+
+import org.springframework.http.ResponseEntity;
+
+import java.util.function.Supplier;
+
+public interface IdempotencyService {
+
+    /**
+     * Runs the call once per idempotency key and replays its response to later requests with the same key,
+     * without running the call again, on any instance. Responses are kept for idempotency.replay.ttl, except
+     * server errors, which leave the key free for a retry.
+     * 
+     * @param operation the operation the key is scoped to
+     * @param idempotencyKey the client supplied idempotency key
+     * @param request the request content, which must be the same for every use of the key
+     * @param call the call to run
+     * @return the response of the call, 400 for an invalid key, 409 while another instance is running the call for
+     *         the key, or 422 if the key was used for another request
+     */
+    ResponseEntity<String> execute(String operation, String idempotencyKey, String request, Supplier<ResponseEntity<String>> call);
+
+    /**
+     * Deletes the stored responses older than idempotency.replay.ttl
+     */
+    void purgeExpired();
+}
@@ -0,0 +1,28 @@
+package com.hsbc.gbgcf.crp.service;
+
+import com.hsbc.gbgcf.crp.entity.PolicyTracking;
+import com.hsbc.gbgcf.crp.entity.SubmitOutbox;
+
+public interface PolicyTrackingService {
+
+    /**
+     * Saves the tracking row together with its form content, in one transaction. With form versioning enabled
+     * the content is appended to the versioned form store instead of being written in full on the tracking row.
+     * 
+     * @param policyTracking the tracking row to save
+     * @param customerIdentificationId the customer identification ID
+     * @param journeyType the type of journey
+     * @param form the form returned by ODS
+     * @return the form as stored, which is what viewForm returns and what the tracking entity tag is computed on
+     */
+    String saveWithForm(PolicyTracking policyTracking, String customerIdentificationId, String journeyType, String form);
+
+    /**
+     * Stores the form ODS returned for a delivered submit on its tracking row and marks the submit delivered,
+     * in one transaction
+     * 
+     * @param submission the delivered submit
+     * @param form the form returned by ODS
+     */
+    void recordDelivery(SubmitOutbox submission, String form);
+}
@@ -1,11 +1,21 @@
 package com.hsbc.gbgcf.crp.service;
 
+import com.hsbc.gbgcf.crp.dto.FormDataRequest;
+import com.hsbc.gbgcf.crp.dto.FormDataResult;
+import com.hsbc.gbgcf.crp.dto.SubmissionStatus;
+import com.hsbc.gbgcf.crp.repository.FormContentStreamRepository.OutputStreamOpener;
 import org.springframework.http.ResponseEntity;
 
+import java.io.IOException;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
 public interface QuestionnaireService {
     
     /**
-     * Retrieves ODS data for a specific journey type and customer identification
+     * Retrieves ODS data for a specific journey type and customer identification. The response carries no
+     * entity tag: every call pulls the form from ODS, so a conditional GET would save nothing but the body.
      * 
      * @param journeyType the type of journey
      * @param customerIdentificationId the customer identification ID
@@ -13,26 +23,55 @@ public interface QuestionnaireService {
      */
     ResponseEntity<String> getODSdata(String journeyType, String customerIdentificationId);
     
+    /**
+     * Retrieves ODS data for several customers with bounded parallelism, passing each customer's results to
+     * the consumer as soon as they are ready, on the calling thread. The journeys of one customer run one after
+     * the other, and a request repeated in the batch is run once and answered for every copy.
+     * 
+     * @param requests the journey types and customer identification IDs
+     * @param results receives one result per request, customers in completion order
+     */
+    void getODSdataBulk(List<FormDataRequest> requests, Consumer<FormDataResult> results);
+    
     /**
      * Saves ODS data for a specific journey type and customer identification
      * 
      * @param journeyType the type of journey
      * @param customerIdentificationId the customer identification ID
      * @param formData the form data to save
-     * @return ResponseEntity containing the result of the save operation
+     * @return ResponseEntity containing the result of the save operation, or with autosave coalescing
+     *         enabled a 202 once the form is queued for the save that sends the latest form of the window
      */
     ResponseEntity<String> saveOdsData(String journeyType, String customerIdentificationId, String formData);
-    
+
+    /**
+     * Sends the save waiting in the autosave coalescing window right away, for callers that need its result
+     *
+     * @param journeyType the type of journey
+     * @param customerIdentificationId the customer identification ID
+     * @return ResponseEntity containing the result of the save operation, or no content if no save was pending
+     */
+    ResponseEntity<String> flushOdsData(String journeyType, String customerIdentificationId);
+
     /**
      * Submits ODS data for a specific journey type and customer identification
      * 
      * @param journeyType the type of journey
      * @param customerIdentificationId the customer identification ID
      * @param formData the form data to submit
-     * @return ResponseEntity containing the result of the submit operation
+     * @return ResponseEntity containing the result of the submit operation, or with asynchronous submits
+     *         enabled a 202 with the URL of the submission status
      */
     ResponseEntity<String> submitOdsData(String journeyType, String customerIdentificationId, String formData);
     
+    /**
+     * Looks up the delivery status of an asynchronous submit
+     * 
+     * @param submissionId the submission ID from the status URL
+     * @return the submission status, or empty if there is no such submission
+     */
+    Optional<SubmissionStatus> findSubmission(Long submissionId);
+    
     /**
      * Retrieves a form for viewing
      * 
@@ -42,6 +81,26 @@ public interface QuestionnaireService {
      */
     ResponseEntity<String> viewForm(String journeyType, String customerIdentificationId);
     
+    /**
+     * Looks up the entity tag of the form returned by viewForm, without reading the form itself
+     * 
+     * @param journeyType the type of journey
+     * @param customerIdentificationId the customer identification ID
+     * @return the unquoted entity tag, or empty if the form has none
+     */
+    Optional<String> findFormEtag(String journeyType, String customerIdentificationId);
+    
+    /**
+     * Streams a form for viewing straight to the response, without holding it in the heap
+     * 
+     * @param journeyType the type of journey
+     * @param customerIdentificationId the customer identification ID
+     * @param output opens the response stream once a form has been found
+     * @return true if a form was found and written
+     * @throws IOException if writing the response fails
+     */
+    boolean streamViewForm(String journeyType, String customerIdentificationId, OutputStreamOpener output) throws IOException;
+    
     /**
      * Gets the initial form for a specific journey type and customer identification
      * 
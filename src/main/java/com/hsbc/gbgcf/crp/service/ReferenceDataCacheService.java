@@ -0,0 +1,34 @@
+package com.hsbc.gbgcf.crp.service;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+import java.util.Map;
+
+public interface ReferenceDataCacheService {
+
+    /**
+     * Evicts the cached legal entity for the given entity ID
+     * 
+     * @param entityId the entity ID
+     */
+    void evictLegalEntity(String entityId);
+
+    /**
+     * Evicts the cached client for the given master group ID
+     * 
+     * @param masterGroupId the master group ID
+     */
+    void evictClient(String masterGroupId);
+
+    /**
+     * Evicts every entry from the reference data caches
+     */
+    void evictAll();
+
+    /**
+     * Returns hit, miss and eviction statistics for each reference data cache
+     * 
+     * @return the statistics keyed by cache name
+     */
+    Map<String, CacheStats> getStatistics();
+}
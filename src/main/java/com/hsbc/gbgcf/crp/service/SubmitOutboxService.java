@@ -0,0 +1,70 @@
+package com.hsbc.gbgcf.crp.service;
+
+import com.hsbc.gbgcf.crp.entity.PolicyTracking;
+import com.hsbc.gbgcf.crp.entity.SubmitOutbox;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface SubmitOutboxService {
+
+    /**
+     * Saves the submitted tracking row and records its submit for delivery to ODS, in one transaction
+     * 
+     * @param policyTracking the tracking row, already marked submitted
+     * @param journeyType the type of journey
+     * @param customerIdentificationId the customer identification ID
+     * @param formData the form data to submit
+     * @return the recorded submit
+     */
+    SubmitOutbox enqueue(PolicyTracking policyTracking, String journeyType, String customerIdentificationId, String formData);
+
+    /**
+     * Finds a submit by its ID
+     * 
+     * @param submissionId the submission ID
+     * @return an Optional containing the submit if found
+     */
+    Optional<SubmitOutbox> findById(Long submissionId);
+
+    /**
+     * Claims up to limit submits ready for delivery, at most one per customer and journey type
+     * 
+     * @param limit the most submits to claim
+     * @return the claimed submits, oldest first
+     */
+    List<SubmitOutbox> claimReady(int limit);
+
+    /**
+     * Records that ODS has accepted the submit
+     * 
+     * @param submission the claimed submit
+     */
+    void markDelivered(SubmitOutbox submission);
+
+    /**
+     * Records that ODS has refused the submit, which is not retried
+     * 
+     * @param submission the claimed submit
+     * @param reason why ODS refused it
+     */
+    void markRejected(SubmitOutbox submission, String reason);
+
+    /**
+     * Records a failed delivery attempt, scheduling a retry with exponential backoff until the submit is older
+     * than the retry horizon
+     * 
+     * @param submission the claimed submit
+     * @param error the error of the attempt
+     */
+    void markAttemptFailed(SubmitOutbox submission, String error);
+
+    /**
+     * Hands back a submit that was never sent, e.g. because the ODS circuit was open, without counting the
+     * attempt. It is tried again after the initial backoff.
+     * 
+     * @param submission the claimed submit
+     * @param reason why it was not sent
+     */
+    void markAttemptDeferred(SubmitOutbox submission, String reason);
+}
@@ -0,0 +1,95 @@
+package com.hsbc.gbgcf.crp.service.impl;
+
+import com.hsbc.gbgcf.crp.constants.PolicyConstants;
+import com.hsbc.gbgcf.crp.entity.Policy;
+import com.hsbc.gbgcf.crp.entity.PolicyTracking;
+import com.hsbc.gbgcf.crp.enums.Status;
+import com.hsbc.gbgcf.crp.repository.PolicyTrackingRepository;
+import com.hsbc.gbgcf.crp.service.CustomerJourney;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Tracking logic shared by the legal entity and master group journeys. Subclasses only supply the
+ * customer-specific queries, so the two journeys cannot drift apart.
+ *
+ * @param <C> the customer entity
+ */
+abstract class AbstractCustomerJourney<C> implements CustomerJourney {
+
+    static final Status[] OPEN_STATUSES = {Status.CASE_INITIATED, Status.PULL_FORM, Status.IN_PROGRESS};
+    static final Status[] ACTIVE_STATUSES = {Status.PULL_FORM, Status.IN_PROGRESS};
+    static final Status[] SUBMITTED_STATUSES = {Status.SUBMITTED, Status.DECISION_RECEIVED};
+
+    @Autowired
+    protected PolicyTrackingRepository policyTrackingRepository;
+
+    protected abstract PolicyTracking findOpenTracking(String customerIdentificationId);
+
+    protected abstract Optional<C> findCustomer(String customerIdentificationId);
+
+    protected abstract List<PolicyTracking> findOpenTrackings(Collection<String> customerIdentificationIds);
+
+    protected abstract List<C> findCustomers(Collection<String> customerIdentificationIds);
+
+    protected abstract String trackedCustomerId(PolicyTracking policyTracking);
+
+    protected abstract String customerId(C customer);
+
+    protected abstract void setCustomer(PolicyTracking policyTracking, C customer);
+
+    protected abstract Policy findPolicy(C customer, String policyCode);
+
+    @Override
+    public PolicyTracking trackOpenPolicy(String customerIdentificationId) {
+        PolicyTracking policyTracking = findOpenTracking(customerIdentificationId);
+        return track(policyTracking, findCustomer(customerIdentificationId));
+    }
+
+    @Override
+    public CompletableFuture<Supplier<PolicyTracking>> lookupOpenPolicyAsync(String customerIdentificationId, Executor executor) {
+        CompletableFuture<PolicyTracking> trackingLookup = CompletableFuture.supplyAsync(() -> findOpenTracking(customerIdentificationId), executor);
+        CompletableFuture<Optional<C>> customerLookup = CompletableFuture.supplyAsync(() -> findCustomer(customerIdentificationId), executor);
+        return trackingLookup.thenCombine(customerLookup, (policyTracking, customer) -> () -> track(policyTracking, customer));
+    }
+
+    @Override
+    public Function<String, PolicyTracking> prefetchOpenPolicies(Collection<String> customerIdentificationIds) {
+        Map<String, PolicyTracking> trackings = new ConcurrentHashMap<>();
+        findOpenTrackings(customerIdentificationIds)
+                .forEach(policyTracking -> trackings.putIfAbsent(trackedCustomerId(policyTracking), policyTracking));
+        Map<String, C> customers = new HashMap<>();
+        findCustomers(customerIdentificationIds).forEach(customer -> customers.put(customerId(customer), customer));
+        // The policy lookup runs outside the map, so it never holds up other customers' map updates
+        return customerIdentificationId -> {
+            PolicyTracking tracked = track(trackings.get(customerIdentificationId), Optional.ofNullable(customers.get(customerIdentificationId)));
+            PolicyTracking existing = trackings.putIfAbsent(customerIdentificationId, tracked);
+            return existing != null ? existing : tracked;
+        };
+    }
+
+    private PolicyTracking track(PolicyTracking policyTracking, Optional<C> customer) {
+        if (policyTracking == null) {
+            policyTracking = new PolicyTracking();
+            policyTracking.setStatus(Status.CASE_INITIATED);
+            setCustomer(policyTracking, customer.get());
+        }
+        Policy policy = findPolicy(customer.get(), PolicyConstants.POLICY_CODE_TCPOP);
+        if (policy == null) {
+            throw new NoSuchElementException("No " + PolicyConstants.POLICY_CODE_TCPOP + " policy found");
+        }
+        policyTracking.setPolicy(policy);
+        return policyTracking;
+    }
+}
@@ -0,0 +1,97 @@
+package com.hsbc.gbgcf.crp.service.impl;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hsbc.gbgcf.crp.client.DspTokenClient;
+import com.hsbc.gbgcf.crp.service.DspTokenService;
+import com.hsbc.gbgcf.crp.util.SingleFlight;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Optional;
+
+/**
+ * Caches the DSP token until shortly before it expires, so callers only wait for the token service once per
+ * token. The expiry comes from the token's exp claim when it is a JWT, and from dsp.token.ttl otherwise.
+ */
+@Service
+@Slf4j
+public class DspTokenServiceImpl implements DspTokenService {
+
+    private static final String TOKEN_KEY = "dsp-token";
+
+    @Autowired
+    private DspTokenClient dspTokenClient;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${dsp.token.ttl:PT30M}")
+    Duration defaultTtl;
+
+    @Value("${dsp.token.expiry-margin:PT10S}")
+    Duration expiryMargin;
+
+    Clock clock = Clock.systemUTC();
+
+    private final SingleFlight<String, CachedToken> tokenFetches = new SingleFlight<>();
+
+    private volatile CachedToken cachedToken;
+
+    @Override
+    public String getToken() {
+        CachedToken token = cachedToken;
+        if (token != null && clock.instant().isBefore(token.expiresAt().minus(expiryMargin))) {
+            return token.value();
+        }
+        return tokenFetches.execute(TOKEN_KEY, this::fetchToken).value();
+    }
+
+    @Override
+    public String refreshToken() {
+        return tokenFetches.execute(TOKEN_KEY, this::fetchToken).value();
+    }
+
+    @Override
+    public Optional<Duration> getTokenAge() {
+        CachedToken token = cachedToken;
+        return token == null ? Optional.empty() : Optional.of(Duration.between(token.fetchedAt(), clock.instant()));
+    }
+
+    private CachedToken fetchToken() {
+        String value = dspTokenClient.getToken();
+        Instant fetchedAt = clock.instant();
+        CachedToken token = new CachedToken(value, fetchedAt, expiryOf(value, fetchedAt));
+        cachedToken = token;
+        log.info("Fetched DSP token, expires at {}", token.expiresAt());
+        return token;
+    }
+
+    /**
+     * Reads the exp claim of a JWT, falling back to the configured time to live for opaque tokens.
+     */
+    private Instant expiryOf(String token, Instant fetchedAt) {
+        String[] parts = token == null ? new String[0] : token.split("\\.");
+        if (parts.length == 3) {
+            try {
+                JsonNode claims = objectMapper.readTree(new String(Base64.getUrlDecoder().decode(parts[1]), StandardCharsets.UTF_8));
+                if (claims.path("exp").canConvertToLong()) {
+                    return Instant.ofEpochSecond(claims.get("exp").asLong());
+                }
+            } catch (Exception e) {
+                log.debug("DSP token is not a readable JWT, using the configured time to live: {}", e.getMessage());
+            }
+        }
+        return fetchedAt.plus(defaultTtl);
+    }
+
+    private record CachedToken(String value, Instant fetchedAt, Instant expiresAt) {
+    }
+}
@@ -0,0 +1,153 @@
+package com.hsbc.gbgcf.crp.service.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.cfg.JsonNodeFeature;
+import com.hsbc.gbgcf.crp.entity.FormVersion;
+import com.hsbc.gbgcf.crp.repository.FormVersionRepository;
+import com.hsbc.gbgcf.crp.service.FormVersionService;
+import com.hsbc.gbgcf.crp.util.JsonDiff;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Optional;
+
+@Service
+@Slf4j
+public class FormVersionServiceImpl implements FormVersionService {
+
+    @Autowired
+    private FormVersionRepository formVersionRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${form.versioning.snapshot-interval:10}")
+    int snapshotInterval;
+
+    /**
+     * Reads numbers as exact decimals and keeps them that way in the tree, so a version rebuilt from patches
+     * is written back with the same digits as the snapshot it came from
+     */
+    private ObjectMapper exactMapper;
+
+    @PostConstruct
+    void init() {
+        exactMapper = objectMapper.copy()
+                .enable(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS)
+                .configure(JsonNodeFeature.STRIP_TRAILING_BIGDECIMAL_ZEROES, false);
+    }
+
+    @Override
+    public String normalize(String formData) {
+        JsonNode document = parse(formData);
+        return document != null ? write(document) : formData;
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void append(String customerIdentificationId, String journeyType, Long policyTrackingId, String formData) {
+        Optional<LatestVersion> latest = loadLatest(customerIdentificationId, journeyType);
+        int version = latest.map(l -> l.version() + 1).orElse(1);
+        JsonNode current = parse(formData);
+        String content = current != null ? write(current) : formData;
+
+        FormVersion formVersion = new FormVersion();
+        formVersion.setCustomerId(customerIdentificationId);
+        formVersion.setJourneyType(journeyType);
+        formVersion.setVersion(version);
+        formVersion.setPolicyTrackingId(policyTrackingId);
+        formVersion.setSnapshot(true);
+        formVersion.setContent(content);
+
+        if (latest.isPresent() && (version - 1) % snapshotInterval != 0) {
+            JsonNode previous = latest.get().document() != null ? latest.get().document() : parse(latest.get().content());
+            if (previous != null && current != null) {
+                JsonNode patch = JsonDiff.diff(previous, current);
+                if (patch.isEmpty()) {
+                    log.info("Form unchanged for {} {}, keeping version {}", journeyType, customerIdentificationId, version - 1);
+                    return;
+                }
+                formVersion.setSnapshot(false);
+                formVersion.setContent(write(patch));
+            }
+        } else if (latest.isPresent() && content.equals(text(latest.get()))) {
+            log.info("Form unchanged for {} {}, keeping version {}", journeyType, customerIdentificationId, version - 1);
+            return;
+        }
+        formVersionRepository.save(formVersion);
+        log.info("Stored form version {} ({}) for {} {}", version, formVersion.isSnapshot() ? "snapshot" : "patch",
+                journeyType, customerIdentificationId);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<String> findLatest(String customerIdentificationId, String journeyType) {
+        return loadLatest(customerIdentificationId, journeyType).map(this::text);
+    }
+
+    /**
+     * Rebuilds the latest version from the newest snapshot and the patches stored after it.
+     * At most snapshotInterval rows are read.
+     */
+    private Optional<LatestVersion> loadLatest(String customerIdentificationId, String journeyType) {
+        Optional<FormVersion> snapshot = formVersionRepository
+                .findFirstByCustomerIdAndJourneyTypeAndSnapshotTrueOrderByVersionDesc(customerIdentificationId, journeyType);
+        if (snapshot.isEmpty()) {
+            return Optional.empty();
+        }
+        List<FormVersion> versions = formVersionRepository.findFromVersion(customerIdentificationId, journeyType, snapshot.get().getVersion());
+        String content = null;
+        JsonNode document = null;
+        int version = 0;
+        for (FormVersion formVersion : versions) {
+            if (formVersion.isSnapshot()) {
+                content = formVersion.getContent();
+                document = null;
+            } else {
+                if (document == null) {
+                    document = parse(content);
+                }
+                document = JsonDiff.apply(document, parse(formVersion.getContent()));
+                content = null;
+            }
+            version = formVersion.getVersion();
+        }
+        return Optional.of(new LatestVersion(version, content, document));
+    }
+
+    private JsonNode parse(String content) {
+        try {
+            return exactMapper.readTree(content);
+        } catch (JsonProcessingException e) {
+            log.debug("Form content is not JSON, storing it as a snapshot: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private String write(JsonNode document) {
+        try {
+            return exactMapper.writeValueAsString(document);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not write form document", e);
+        }
+    }
+
+    private String text(LatestVersion latest) {
+        return latest.content() != null ? latest.content() : write(latest.document());
+    }
+
+    /**
+     * Latest version of a form, held either as the stored text or as a patched JSON document
+     */
+    private record LatestVersion(int version, String content, JsonNode document) {
+    }
+}
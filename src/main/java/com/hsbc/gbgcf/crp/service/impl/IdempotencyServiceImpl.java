@@ -0,0 +1,240 @@
+package com.hsbc.gbgcf.crp.service.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.hsbc.gbgcf.crp.constants.PolicyConstants;
+import com.hsbc.gbgcf.crp.repository.IdempotencyRecordRepository;
+import com.hsbc.gbgcf.crp.service.IdempotencyService;
+import com.hsbc.gbgcf.crp.util.FormEtag;
+import com.hsbc.gbgcf.crp.util.SingleFlight;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Replays the responses of requests sent with an Idempotency-Key header. Recent responses are kept in a
+ * bounded in-process cache, and every response in the database so replays survive eviction, restarts and
+ * retries landing on another instance. Duplicates arriving on this instance while the first request is still
+ * running wait for and share its response. Across instances the key is reserved by inserting a pending row,
+ * which the primary key lets only one instance do; a duplicate finding the reservation gets 409 until the
+ * response is stored. A stored response is never overwritten.
+ */
+@Service
+@Slf4j
+public class IdempotencyServiceImpl implements IdempotencyService {
+
+    private static final int MAX_KEY_LENGTH = 128;
+
+    @Autowired
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${idempotency.replay.max-entries:10000}")
+    long maxEntries = 10000;
+
+    @Value("${idempotency.replay.ttl:PT24H}")
+    Duration ttl = Duration.ofHours(24);
+
+    @Value("${idempotency.pending-timeout:PT5M}")
+    Duration pendingTimeout = Duration.ofMinutes(5);
+
+    Clock clock = Clock.systemUTC();
+
+    private final SingleFlight<String, StoredResponse> inFlight = new SingleFlight<>();
+
+    private Cache<String, StoredResponse> recentResponses;
+
+    @PostConstruct
+    void init() {
+        recentResponses = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    @Override
+    public ResponseEntity<String> execute(String operation, String idempotencyKey, String request, Supplier<ResponseEntity<String>> call) {
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            return ResponseEntity.badRequest().body(PolicyConstants.INVALID_IDEMPOTENCY_KEY);
+        }
+        String key = operation + ":" + idempotencyKey;
+        String requestHash = FormEtag.of(request);
+        StoredResponse stored = recentResponses.getIfPresent(key);
+        if (stored != null) {
+            return replay(operation, "memory", stored, requestHash);
+        }
+        Optional<StoredResponse> persisted = findPersisted(key);
+        if (persisted.isPresent()) {
+            if (!persisted.get().isPending()) {
+                recentResponses.put(key, persisted.get());
+            }
+            return replay(operation, "database", persisted.get(), requestHash);
+        }
+        AtomicReference<ResponseEntity<String>> executed = new AtomicReference<>();
+        StoredResponse response = inFlight.execute(key, () -> {
+            StoredResponse completed = recentResponses.getIfPresent(key);
+            if (completed != null) {
+                return completed;
+            }
+            Optional<StoredResponse> reserved = reserve(key, requestHash);
+            if (reserved.isPresent()) {
+                return reserved.get();
+            }
+            ResponseEntity<String> result;
+            try {
+                result = call.get();
+            } catch (RuntimeException | Error e) {
+                release(key);
+                throw e;
+            }
+            executed.set(result);
+            return store(key, requestHash, result);
+        });
+        if (executed.get() != null) {
+            return executed.get();
+        }
+        return replay(operation, "in-flight", response, requestHash);
+    }
+
+    /**
+     * Deletes the stored responses older than the replay TTL
+     */
+    @Override
+    @Scheduled(initialDelayString = "${idempotency.purge-interval:PT10M}", fixedDelayString = "${idempotency.purge-interval:PT10M}")
+    @Transactional
+    public void purgeExpired() {
+        int purged = idempotencyRecordRepository.deleteCreatedBefore(LocalDateTime.now(clock).minus(ttl));
+        if (purged > 0) {
+            log.info("Purged {} expired idempotency keys", purged);
+        }
+    }
+
+    /**
+     * Looks up the response stored for the key, or its reservation by a request still running. Expired responses
+     * and abandoned reservations are ignored.
+     */
+    private Optional<StoredResponse> findPersisted(String key) {
+        try {
+            LocalDateTime now = LocalDateTime.now(clock);
+            LocalDateTime oldest = now.minus(ttl);
+            LocalDateTime oldestPending = now.minus(pendingTimeout);
+            return idempotencyRecordRepository.findById(key)
+                    .filter(idempotencyRecord -> idempotencyRecord.getCreatedDate().isAfter(oldest))
+                    .filter(idempotencyRecord -> idempotencyRecord.getStatusCode() != null || idempotencyRecord.getCreatedDate().isAfter(oldestPending))
+                    .map(idempotencyRecord -> new StoredResponse(idempotencyRecord.getRequestHash(),
+                            idempotencyRecord.getStatusCode(), idempotencyRecord.getResponseBody()));
+        } catch (DataAccessException e) {
+            log.warn("Could not look up idempotency key {}, running the request: {}", key, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Reserves the key for this request. Returns empty once reserved, or else what another request stored under
+     * the key: its response, or its reservation while it is still running. An expired response or an abandoned
+     * reservation is deleted and the key reserved again. If the database cannot be reached the request runs
+     * unreserved, guarded by this instance alone.
+     */
+    private Optional<StoredResponse> reserve(String key, String requestHash) {
+        try {
+            for (int attempt = 0; attempt < 2; attempt++) {
+                try {
+                    idempotencyRecordRepository.insertPending(key, requestHash, LocalDateTime.now(clock));
+                    return Optional.empty();
+                } catch (DataIntegrityViolationException e) {
+                    Optional<StoredResponse> existing = findPersisted(key);
+                    if (existing.isPresent()) {
+                        return existing;
+                    }
+                    LocalDateTime now = LocalDateTime.now(clock);
+                    idempotencyRecordRepository.deleteStale(key, now.minus(ttl), now.minus(pendingTimeout));
+                }
+            }
+            return Optional.of(StoredResponse.pending(requestHash));
+        } catch (DataAccessException e) {
+            log.warn("Could not reserve idempotency key {}, running the request: {}", key, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Frees the key for a retry after the request failed
+     */
+    private void release(String key) {
+        try {
+            idempotencyRecordRepository.deletePending(key);
+        } catch (DataAccessException e) {
+            log.warn("Could not release idempotency key {}, it stays reserved for {}: {}", key, pendingTimeout, e.getMessage());
+        }
+    }
+
+    /**
+     * Keeps the response for replay unless it is a server error, which the client is expected to retry and
+     * which frees the key. A failure to persist it only costs the replay on other instances, so it does not fail
+     * the request.
+     */
+    private StoredResponse store(String key, String requestHash, ResponseEntity<String> result) {
+        StoredResponse response = new StoredResponse(requestHash, result.getStatusCode().value(), result.getBody());
+        if (result.getStatusCode().is5xxServerError()) {
+            release(key);
+            return response;
+        }
+        recentResponses.put(key, response);
+        try {
+            if (idempotencyRecordRepository.complete(key, response.statusCode(), response.body()) == 0) {
+                log.warn("Idempotency key {} was no longer reserved, its response is only kept in process", key);
+            }
+        } catch (DataAccessException e) {
+            log.warn("Could not persist idempotency key {}: {}", key, e.getMessage());
+        }
+        return response;
+    }
+
+    private ResponseEntity<String> replay(String operation, String source, StoredResponse stored, String requestHash) {
+        if (!stored.requestHash().equals(requestHash)) {
+            log.warn("Idempotency key reused for a different {} request", operation);
+            return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY).body(PolicyConstants.IDEMPOTENCY_KEY_REUSED);
+        }
+        if (stored.isPending()) {
+            log.info("The {} request with this idempotency key is still running on another instance", operation);
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(PolicyConstants.IDEMPOTENCY_KEY_IN_PROGRESS);
+        }
+        log.info("Replaying the stored {} response from {}", operation, source);
+        meterRegistry.counter("idempotency.replays", "operation", operation, "source", source).increment();
+        return ResponseEntity.status(stored.statusCode())
+                .header(PolicyConstants.IDEMPOTENT_REPLAYED_HEADER, "true")
+                .body(stored.body());
+    }
+
+    /**
+     * A stored response, or with no status code the reservation of a request still running
+     */
+    private record StoredResponse(String requestHash, Integer statusCode, String body) {
+
+        static StoredResponse pending(String requestHash) {
+            return new StoredResponse(requestHash, null, null);
+        }
+
+        boolean isPending() {
+            return statusCode == null;
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.hsbc.gbgcf.crp.service.impl;
+
+import com.hsbc.gbgcf.crp.entity.LegalEntity;
+import com.hsbc.gbgcf.crp.entity.Policy;
+import com.hsbc.gbgcf.crp.entity.PolicyTracking;
+import com.hsbc.gbgcf.crp.enums.CustomerType;
+import com.hsbc.gbgcf.crp.repository.FormContentStreamRepository;
+import com.hsbc.gbgcf.crp.repository.FormContentStreamRepository.OutputStreamOpener;
+import com.hsbc.gbgcf.crp.repository.LegalEntitiesRepository;
+import com.hsbc.gbgcf.crp.repository.StoredFormContent;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Questionnaire journey of a legal entity, identified by its entity ID
+ */
+@Component
+public class LegalEntityJourney extends AbstractCustomerJourney<LegalEntity> {
+
+    @Autowired
+    private LegalEntitiesRepository legalEntitiesRepository;
+
+    @Autowired
+    private FormContentStreamRepository formContentStreamRepository;
+
+    @Override
+    public CustomerType getCustomerType() {
+        return CustomerType.LEGAL_ENTITY;
+    }
+
+    @Override
+    protected PolicyTracking findOpenTracking(String customerIdentificationId) {
+        return policyTrackingRepository.findByLegalEntityIdAndMultipleStatuses(customerIdentificationId, OPEN_STATUSES);
+    }
+
+    @Override
+    protected Optional<LegalEntity> findCustomer(String customerIdentificationId) {
+        return legalEntitiesRepository.findByEntityId(customerIdentificationId);
+    }
+
+    @Override
+    protected List<PolicyTracking> findOpenTrackings(Collection<String> customerIdentificationIds) {
+        return policyTrackingRepository.findByLegalEntityIdsAndMultipleStatuses(customerIdentificationIds, OPEN_STATUSES);
+    }
+
+    @Override
+    protected List<LegalEntity> findCustomers(Collection<String> customerIdentificationIds) {
+        return legalEntitiesRepository.findAllByEntityIdIn(customerIdentificationIds);
+    }
+
+    @Override
+    protected String trackedCustomerId(PolicyTracking policyTracking) {
+        return policyTracking.getLegalEntity().getEntityId();
+    }
+
+    @Override
+    protected String customerId(LegalEntity customer) {
+        return customer.getEntityId();
+    }
+
+    @Override
+    protected void setCustomer(PolicyTracking policyTracking, LegalEntity customer) {
+        policyTracking.setLegalEntity(customer);
+    }
+
+    @Override
+    protected Policy findPolicy(LegalEntity customer, String policyCode) {
+        return customer.getPolicyByCode(policyCode);
+    }
+
+    @Override
+    public PolicyTracking findActiveTracking(String customerIdentificationId) {
+        return policyTrackingRepository.findByLegalEntityIdAndStatuses(customerIdentificationId, ACTIVE_STATUSES);
+    }
+
+    @Override
+    public List<PolicyTracking> findSubmittedTrackingsLatest(String customerIdentificationId) {
+        return policyTrackingRepository.findByLegalEntityIdAndStatusesLatest(customerIdentificationId, SUBMITTED_STATUSES);
+    }
+
+    @Override
+    public List<StoredFormContent> findLatestFormContent(String customerIdentificationId, String journeyType, Pageable pageable) {
+        return policyTrackingRepository.findLatestFormDataContentByLE(customerIdentificationId, journeyType, pageable);
+    }
+
+    @Override
+    public List<String> findLatestFormEtag(String customerIdentificationId, String journeyType, Pageable pageable) {
+        return policyTrackingRepository.findLatestFormEtagByLE(customerIdentificationId, journeyType, pageable);
+    }
+
+    @Override
+    public boolean streamLatestForm(String customerIdentificationId, String journeyType, OutputStreamOpener output) throws IOException {
+        return formContentStreamRepository.streamLatestFormByLE(customerIdentificationId, journeyType, output);
+    }
+}
@@ -0,0 +1,101 @@
+package com.hsbc.gbgcf.crp.service.impl;
+
+import com.hsbc.gbgcf.crp.entity.Client;
+import com.hsbc.gbgcf.crp.entity.Policy;
+import com.hsbc.gbgcf.crp.entity.PolicyTracking;
+import com.hsbc.gbgcf.crp.enums.CustomerType;
+import com.hsbc.gbgcf.crp.repository.ClientRepository;
+import com.hsbc.gbgcf.crp.repository.FormContentStreamRepository;
+import com.hsbc.gbgcf.crp.repository.FormContentStreamRepository.OutputStreamOpener;
+import com.hsbc.gbgcf.crp.repository.StoredFormContent;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Questionnaire journey of a master group (client), identified by its master group ID
+ */
+@Component
+public class MasterGroupJourney extends AbstractCustomerJourney<Client> {
+
+    @Autowired
+    private ClientRepository clientRepository;
+
+    @Autowired
+    private FormContentStreamRepository formContentStreamRepository;
+
+    @Override
+    public CustomerType getCustomerType() {
+        return CustomerType.MASTER_GROUP;
+    }
+
+    @Override
+    protected PolicyTracking findOpenTracking(String customerIdentificationId) {
+        return policyTrackingRepository.findByClientIdAndMultipleStatuses(customerIdentificationId, OPEN_STATUSES);
+    }
+
+    @Override
+    protected Optional<Client> findCustomer(String customerIdentificationId) {
+        return clientRepository.findByMasterGroupId(customerIdentificationId);
+    }
+
+    @Override
+    protected List<PolicyTracking> findOpenTrackings(Collection<String> customerIdentificationIds) {
+        return policyTrackingRepository.findByClientIdsAndMultipleStatuses(customerIdentificationIds, OPEN_STATUSES);
+    }
+
+    @Override
+    protected List<Client> findCustomers(Collection<String> customerIdentificationIds) {
+        return clientRepository.findAllByMasterGroupIdIn(customerIdentificationIds);
+    }
+
+    @Override
+    protected String trackedCustomerId(PolicyTracking policyTracking) {
+        return policyTracking.getClient().getMasterGroupId();
+    }
+
+    @Override
+    protected String customerId(Client customer) {
+        return customer.getMasterGroupId();
+    }
+
+    @Override
+    protected void setCustomer(PolicyTracking policyTracking, Client customer) {
+        policyTracking.setClient(customer);
+    }
+
+    @Override
+    protected Policy findPolicy(Client customer, String policyCode) {
+        return customer.getPolicyByCode(policyCode);
+    }
+
+    @Override
+    public PolicyTracking findActiveTracking(String customerIdentificationId) {
+        return policyTrackingRepository.findByClientIdAndStatuses(customerIdentificationId, ACTIVE_STATUSES);
+    }
+
+    @Override
+    public List<PolicyTracking> findSubmittedTrackingsLatest(String customerIdentificationId) {
+        return policyTrackingRepository.findByClientIdAndStatusesLatest(customerIdentificationId, SUBMITTED_STATUSES);
+    }
+
+    @Override
+    public List<StoredFormContent> findLatestFormContent(String customerIdentificationId, String journeyType, Pageable pageable) {
+        return policyTrackingRepository.findLatestFormDataContentByMg(customerIdentificationId, journeyType, pageable);
+    }
+
+    @Override
+    public List<String> findLatestFormEtag(String customerIdentificationId, String journeyType, Pageable pageable) {
+        return policyTrackingRepository.findLatestFormEtagByMg(customerIdentificationId, journeyType, pageable);
+    }
+
+    @Override
+    public boolean streamLatestForm(String customerIdentificationId, String journeyType, OutputStreamOpener output) throws IOException {
+        return formContentStreamRepository.streamLatestFormByMg(customerIdentificationId, journeyType, output);
+    }
+}
@@ -0,0 +1,75 @@
+package com.hsbc.gbgcf.crp.service.impl;
+
+import com.hsbc.gbgcf.crp.entity.PolicyTracking;
+import com.hsbc.gbgcf.crp.enums.CustomerType;
+import com.hsbc.gbgcf.crp.repository.FormContentStreamRepository.OutputStreamOpener;
+import com.hsbc.gbgcf.crp.repository.StoredFormContent;
+import com.hsbc.gbgcf.crp.service.CustomerJourney;
+import org.springframework.data.domain.Pageable;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Journey whose type names neither a legal entity nor a master group. Nothing is looked up, and the
+ * tracking rows are fresh ones that are not tied to a customer.
+ */
+final class NoCustomerJourney implements CustomerJourney {
+
+    static final NoCustomerJourney INSTANCE = new NoCustomerJourney();
+
+    private NoCustomerJourney() {
+    }
+
+    @Override
+    public CustomerType getCustomerType() {
+        return CustomerType.NONE;
+    }
+
+    @Override
+    public PolicyTracking trackOpenPolicy(String customerIdentificationId) {
+        return new PolicyTracking();
+    }
+
+    @Override
+    public CompletableFuture<Supplier<PolicyTracking>> lookupOpenPolicyAsync(String customerIdentificationId, Executor executor) {
+        return CompletableFuture.completedFuture(PolicyTracking::new);
+    }
+
+    @Override
+    public Function<String, PolicyTracking> prefetchOpenPolicies(Collection<String> customerIdentificationIds) {
+        Map<String, PolicyTracking> trackings = new ConcurrentHashMap<>();
+        return customerIdentificationId -> trackings.computeIfAbsent(customerIdentificationId, this::trackOpenPolicy);
+    }
+
+    @Override
+    public PolicyTracking findActiveTracking(String customerIdentificationId) {
+        return new PolicyTracking();
+    }
+
+    @Override
+    public List<PolicyTracking> findSubmittedTrackingsLatest(String customerIdentificationId) {
+        return List.of(new PolicyTracking());
+    }
+
+    @Override
+    public List<StoredFormContent> findLatestFormContent(String customerIdentificationId, String journeyType, Pageable pageable) {
+        return List.of();
+    }
+
+    @Override
+    public List<String> findLatestFormEtag(String customerIdentificationId, String journeyType, Pageable pageable) {
+        return List.of();
+    }
+
+    @Override
+    public boolean streamLatestForm(String customerIdentificationId, String journeyType, OutputStreamOpener output) {
+        return false;
+    }
+}
@@ -0,0 +1,104 @@
+package com.hsbc.gbgcf.crp.service.impl;
+
+import com.hsbc.gbgcf.crp.entity.PolicyTracking;
+import com.hsbc.gbgcf.crp.entity.SubmitOutbox;
+import com.hsbc.gbgcf.crp.repository.PolicyTrackingRepository;
+import com.hsbc.gbgcf.crp.service.FormVersionService;
+import com.hsbc.gbgcf.crp.service.PolicyTrackingService;
+import com.hsbc.gbgcf.crp.service.SubmitOutboxService;
+import com.hsbc.gbgcf.crp.util.FormEtag;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.function.Supplier;
+
+/**
+ * Persists the tracking writes of the questionnaire flows. The flows call ODS first and only then hand the
+ * outcome to this service, so no transaction is held open across the remote call.
+ */
+@Service
+@Slf4j
+public class PolicyTrackingServiceImpl implements PolicyTrackingService {
+
+    private static final int MAX_VERSION_CONFLICTS = 3;
+
+    @Autowired
+    private PolicyTrackingRepository policyTrackingRepository;
+
+    @Autowired
+    private FormVersionService formVersionService;
+
+    @Autowired
+    private SubmitOutboxService submitOutboxService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${multiple.retake.enable}")
+    Boolean multipleRetakeEnabled;
+
+    @Value("${form.versioning.enable:false}")
+    boolean formVersioningEnabled;
+
+    @Override
+    public String saveWithForm(PolicyTracking policyTracking, String customerIdentificationId, String journeyType, String form) {
+        return inTransaction(policyTracking, () -> writeWithForm(policyTracking, customerIdentificationId, journeyType, form));
+    }
+
+    @Override
+    public void recordDelivery(SubmitOutbox submission, String form) {
+        inTransaction(null, () -> {
+            policyTrackingRepository.findById(submission.getPolicyTrackingId()).ifPresent(policyTracking -> {
+                if (multipleRetakeEnabled)
+                    policyTracking.setRetake("enable");
+                writeWithForm(policyTracking, submission.getCustomerId(), submission.getJourneyType(), form);
+            });
+            submitOutboxService.markDelivered(submission);
+            return null;
+        });
+    }
+
+    private String writeWithForm(PolicyTracking policyTracking, String customerIdentificationId, String journeyType, String form) {
+        if (formVersioningEnabled) {
+            String stored = formVersionService.normalize(form);
+            policyTracking.setFormEtag(FormEtag.of(stored));
+            policyTrackingRepository.save(policyTracking);
+            // Concurrent saves of the same form would otherwise read the same latest version and both try to
+            // store the next one, failing the unique version constraint
+            policyTrackingRepository.lockById(policyTracking.getId());
+            formVersionService.append(customerIdentificationId, journeyType, policyTracking.getId(), stored);
+            return stored;
+        }
+        policyTracking.setFormDataContent(form);
+        policyTrackingRepository.save(policyTracking);
+        return form;
+    }
+
+    /**
+     * Runs the write in one transaction, and runs it again when its form version lost a race. The lock only
+     * covers the tracking row, so two tracking rows of one customer and journey can still number a version the
+     * same; the unique version constraint turns the second away and the retry numbers it after the first.
+     */
+    private <T> T inTransaction(PolicyTracking policyTracking, Supplier<T> write) {
+        Long id = policyTracking != null ? policyTracking.getId() : null;
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return new TransactionTemplate(transactionManager).execute(status -> write.get());
+            } catch (DataIntegrityViolationException e) {
+                if (!formVersioningEnabled || attempt >= MAX_VERSION_CONFLICTS) {
+                    throw e;
+                }
+                log.warn("Form version conflict on attempt {}, saving again: {}", attempt, e.getMessage());
+                if (policyTracking != null) {
+                    // A row inserted by the rolled back attempt must be inserted again, not merged
+                    policyTracking.setId(id);
+                }
+            }
+        }
+    }
+}
@@ -2,84 +2,380 @@ package com.hsbc.gbgcf.crp.service.impl;
 
 import com.hsbc.gbgcf.crp.client.ODSClient;
 import com.hsbc.gbgcf.crp.constants.PolicyConstants;
-import com.hsbc.gbgcf.crp.entity.Client;
-import com.hsbc.gbgcf.crp.entity.LegalEntity;
+import com.hsbc.gbgcf.crp.dto.FormDataRequest;
+import com.hsbc.gbgcf.crp.dto.FormDataResult;
+import com.hsbc.gbgcf.crp.dto.SubmissionStatus;
 import com.hsbc.gbgcf.crp.entity.PolicyTracking;
+import com.hsbc.gbgcf.crp.entity.SubmitOutbox;
+import com.hsbc.gbgcf.crp.enums.CustomerType;
 import com.hsbc.gbgcf.crp.enums.Status;
-import com.hsbc.gbgcf.crp.repository.ClientRepository;
-import com.hsbc.gbgcf.crp.repository.LegalEntitiesRepository;
+import com.hsbc.gbgcf.crp.repository.FormContentStreamRepository.OutputStreamOpener;
 import com.hsbc.gbgcf.crp.repository.PolicyTrackingRepository;
+import com.hsbc.gbgcf.crp.repository.StoredFormContent;
+import com.hsbc.gbgcf.crp.service.CustomerJourney;
+import com.hsbc.gbgcf.crp.service.FormVersionService;
+import com.hsbc.gbgcf.crp.service.PolicyTrackingService;
 import com.hsbc.gbgcf.crp.service.QuestionnaireService;
+import com.hsbc.gbgcf.crp.service.SubmitOutboxService;
+import com.hsbc.gbgcf.crp.util.CoalescingWindow;
+import com.hsbc.gbgcf.crp.util.JourneyTags;
+import com.hsbc.gbgcf.crp.util.JourneyType;
+import com.hsbc.gbgcf.crp.util.SingleFlight;
+import feign.FeignException;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.ArrayList;
-import java.util.Arrays;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 @Service
 @Slf4j
 public class QuestionnaireServiceImpl implements QuestionnaireService {
+    private static final Pageable LATEST_ONLY = PageRequest.of(0, 1);
+
     @Autowired
     private PolicyTrackingRepository policyTrackingRepository;
 
     @Autowired
-    private LegalEntitiesRepository legalEntitiesRepository;
+    private LegalEntityJourney legalEntityJourney;
 
     @Autowired
-    private ClientRepository clientRepository;
+    private MasterGroupJourney masterGroupJourney;
 
     @Autowired
     private ODSClient odsClient;
 
+    @Autowired
+    @Qualifier("questionnaireExecutor")
+    private Executor questionnaireExecutor;
+
     @Value("${multiple.retake.enable}")
     Boolean multipleRetakeEnabled;
 
+    @Value("${questionnaire.concurrent.enable:false}")
+    boolean concurrentEnabled;
+
+    @Autowired
+    private FormVersionService formVersionService;
+
+    @Autowired
+    private PolicyTrackingService policyTrackingService;
+
+    @Value("${form.versioning.enable:false}")
+    boolean formVersioningEnabled;
+
+    @Value("${questionnaire.coalescing.enable:false}")
+    boolean coalescingEnabled;
+
+    @Value("${questionnaire.bulk.parallelism:8}")
+    int bulkParallelism = 8;
+
+    @Autowired
+    private SubmitOutboxService submitOutboxService;
+
+    @Autowired
+    @Qualifier("submitDispatchExecutor")
+    private Executor submitDispatchExecutor;
+
+    @Value("${questionnaire.submit.async.enable:false}")
+    boolean asyncSubmitEnabled;
+
+    @Value("${questionnaire.submit.outbox.concurrency:4}")
+    int submitDispatchConcurrency = 4;
+
+    private final AtomicInteger dispatchingSubmits = new AtomicInteger();
+
+    @Autowired
+    @Qualifier("autosaveFlushExecutor")
+    private Executor autosaveFlushExecutor;
+
+    @Value("${questionnaire.autosave.coalescing.enable:false}")
+    boolean autosaveCoalescingEnabled;
+
+    @Value("${questionnaire.autosave.window:PT2S}")
+    Duration autosaveWindow = Duration.ofSeconds(2);
+
+    /**
+     * Autosaves of the same journey and customer within the window, only the latest of which is sent to ODS
+     */
+    private CoalescingWindow<SaveKey, String, ResponseEntity<String>> autosaves;
+
+    /**
+     * Concurrent getODSdata calls for the same journey and customer share one lookup, ODS call and save
+     */
+    private final SingleFlight<String, ResponseEntity<String>> formReadyRequests = new SingleFlight<>();
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @PostConstruct
+    void init() {
+        autosaves = new CoalescingWindow<>(autosaveWindow, autosaveFlushExecutor, this::flushAutosave);
+    }
+
+    /**
+     * Sends the autosaves still waiting in their window before the flush executor shuts down, so stopping an
+     * instance does not drop the latest save of its customers.
+     */
+    @PreDestroy
+    void drainAutosaves() {
+        if (autosaves != null && autosaves.pendingCount() > 0) {
+            log.info("Flushing {} pending autosaves before shutdown", autosaves.pendingCount());
+            autosaves.flushAll();
+        }
+    }
+
+    /**
+     * Sends a coalesced autosave. Its callers were acknowledged long before, so a failed save is logged and
+     * counted here rather than reported to them.
+     */
+    private ResponseEntity<String> flushAutosave(SaveKey key, String formData) {
+        ResponseEntity<String> response = saveNow(key.journeyType(), key.customerIdentifier(), formData);
+        if (!response.getStatusCode().is2xxSuccessful()) {
+            log.error("Coalesced save for {} {} failed with status {}", key.journeyType(), key.customerIdentifier(), response.getStatusCode());
+            meterRegistry.counter("questionnaire.autosave.failures", JourneyTags.TAG, JourneyTags.of(key.journeyType())).increment();
+        }
+        return response;
+    }
+
     @Override
     public ResponseEntity<String> getODSdata(String journeyType, String customerIdentificationId) {
-        PolicyTracking policyTracking = new PolicyTracking();
-        List<String> journeyTypeParts = Arrays.asList(journeyType.split("-"));
-        if (journeyTypeParts.contains("LE")) {
-            policyTracking = policyTrackingRepository.findByLegalEntityIdAndMultipleStatuses(customerIdentificationId, Status.CASE_INITIATED, Status.PULL_FORM, Status.IN_PROGRESS);
-            Optional<LegalEntity> legalEntity = legalEntitiesRepository.findByEntityId(customerIdentificationId);
-            if (policyTracking == null) {
-                policyTracking = new PolicyTracking();
-                policyTracking.setStatus(Status.CASE_INITIATED);
-                policyTracking.setLegalEntity(legalEntity.get());
-                policyTracking.setPolicy(legalEntity.get().getPolicies().stream().filter(x -> x.getPolicyCode().equals(PolicyConstants.POLICY_CODE_TCPOP)).findAny().get());
-                policyTrackingRepository.save(policyTracking);
-            } else {
-                policyTracking.setPolicy(legalEntity.get().getPolicies().stream().filter(x -> x.getPolicyCode().equals(PolicyConstants.POLICY_CODE_TCPOP)).findAny().get());
-                policyTrackingRepository.save(policyTracking);
+        if (coalescingEnabled) {
+            return formReadyRequests.execute(journeyType + ":" + customerIdentificationId,
+                    () -> loadODSdata(journeyType, customerIdentificationId));
+        }
+        return loadODSdata(journeyType, customerIdentificationId);
+    }
+
+    private ResponseEntity<String> loadODSdata(String journeyType, String customerIdentificationId) {
+        if (concurrentEnabled) {
+            return getODSdataConcurrently(journeyType, customerIdentificationId);
+        }
+        JourneyType parsedJourneyType = JourneyType.of(journeyType);
+        PolicyTracking policyTracking = journeyOf(parsedJourneyType).trackOpenPolicy(customerIdentificationId);
+        return formReady(policyTracking, journeyType, customerIdentificationId, parsedJourneyType.isCustomerJourney());
+    }
+
+    /**
+     * Picks the lookups and tracking queries of the kind of customer the journey is for
+     */
+    private CustomerJourney journeyOf(JourneyType journeyType) {
+        return journeyOf(journeyType.getCustomerType());
+    }
+
+    private CustomerJourney journeyOf(CustomerType customerType) {
+        return switch (customerType) {
+            case LEGAL_ENTITY -> legalEntityJourney;
+            case MASTER_GROUP -> masterGroupJourney;
+            case NONE -> NoCustomerJourney.INSTANCE;
+        };
+    }
+
+    /**
+     * Requests the form from ODS and applies it to the tracking row, serving the last stored form instead
+     * while the ODS form ready circuit is open.
+     */
+    private ResponseEntity<String> formReady(PolicyTracking policyTracking, String journeyType, String customerIdentificationId, boolean customerJourney) {
+        String form;
+        try {
+            form = odsClient.executeFormReadyRequest(journeyType, customerIdentificationId);
+        } catch (CallNotPermittedException e) {
+            return lastStoredForm(journeyType, customerIdentificationId, e);
+        }
+        return applyFormReady(policyTracking, journeyType, customerIdentificationId, form, customerJourney);
+    }
+
+    @Override
+    public void getODSdataBulk(List<FormDataRequest> requests, Consumer<FormDataResult> results) {
+        log.info("Entering getODSdataBulk for {} customers", requests.size());
+        BulkLookups lookups = prefetch(requests);
+        CompletionService<List<FormDataResult>> completion = new ExecutorCompletionService<>(questionnaireExecutor);
+        Iterator<List<FormDataRequest>> pending = byCustomer(requests).iterator();
+        int running = 0;
+        while (running < bulkParallelism && pending.hasNext()) {
+            List<FormDataRequest> customerRequests = pending.next();
+            completion.submit(() -> bulkFormReady(customerRequests, lookups));
+            running++;
+        }
+        try {
+            while (running > 0) {
+                List<FormDataResult> customerResults = completion.take().get();
+                running--;
+                if (pending.hasNext()) {
+                    List<FormDataRequest> customerRequests = pending.next();
+                    completion.submit(() -> bulkFormReady(customerRequests, lookups));
+                    running++;
+                }
+                customerResults.forEach(results);
             }
-        } else if (journeyTypeParts.contains("MG")) {
-            policyTracking = policyTrackingRepository.findByClientIdAndMultipleStatuses(customerIdentificationId, Status.CASE_INITIATED, Status.PULL_FORM, Status.IN_PROGRESS);
-            Optional<Client> masterGroup = clientRepository.findByMasterGroupId(customerIdentificationId);
-            if (policyTracking == null) {
-                policyTracking = new PolicyTracking();
-                policyTracking.setStatus(Status.CASE_INITIATED);
-                policyTracking.setClient(masterGroup.get());
-                policyTracking.setPolicy(masterGroup.get().getPolicies().stream().filter(x -> x.getPolicyCode().equals(PolicyConstants.POLICY_CODE_TCPOP)).findAny().get());
-                policyTrackingRepository.save(policyTracking);
-            } else {
-                policyTracking.setPolicy(masterGroup.get().getPolicies().stream().filter(x -> x.getPolicyCode().equals(PolicyConstants.POLICY_CODE_TCPOP)).findAny().get());
-                policyTrackingRepository.save(policyTracking);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while fetching bulk form data", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Bulk form data task failed", e.getCause());
+        }
+    }
+
+    /**
+     * Groups the requests by customer, since every journey of a customer shares its open tracking row and
+     * running them in parallel would write that row twice
+     */
+    private Collection<List<FormDataRequest>> byCustomer(List<FormDataRequest> requests) {
+        Map<String, List<FormDataRequest>> customers = new LinkedHashMap<>();
+        for (FormDataRequest request : requests) {
+            CustomerType customerType = JourneyType.of(request.journeyType()).getCustomerType();
+            customers.computeIfAbsent(customerType + ":" + request.customerIdentificationId(), customer -> new ArrayList<>()).add(request);
+        }
+        return customers.values();
+    }
+
+    /**
+     * Loads the tracking rows and customers of every request with one IN query per table and customer type,
+     * instead of one lookup per customer.
+     */
+    private BulkLookups prefetch(List<FormDataRequest> requests) {
+        Map<CustomerType, Set<String>> customerIds = new EnumMap<>(CustomerType.class);
+        for (FormDataRequest request : requests) {
+            CustomerType customerType = JourneyType.of(request.journeyType()).getCustomerType();
+            customerIds.computeIfAbsent(customerType, type -> new LinkedHashSet<>()).add(request.customerIdentificationId());
+        }
+        Map<CustomerType, Function<String, PolicyTracking>> trackers = new EnumMap<>(CustomerType.class);
+        customerIds.forEach((customerType, ids) -> trackers.put(customerType, journeyOf(customerType).prefetchOpenPolicies(ids)));
+        return new BulkLookups(trackers);
+    }
+
+    /**
+     * Runs the getODSdata flow for the requests of one customer, one journey after the other. A request
+     * repeated in the batch is only run once, and its result is returned for every copy.
+     */
+    private List<FormDataResult> bulkFormReady(List<FormDataRequest> customerRequests, BulkLookups lookups) {
+        Map<String, FormDataResult> journeyResults = new HashMap<>();
+        List<FormDataResult> customerResults = new ArrayList<>(customerRequests.size());
+        for (FormDataRequest request : customerRequests) {
+            customerResults.add(journeyResults.computeIfAbsent(request.journeyType(), journeyType -> bulkFormReady(request, lookups)));
+        }
+        return customerResults;
+    }
+
+    /**
+     * Runs the getODSdata flow for one customer of a bulk request from the prefetched lookups. Failures are
+     * reported in the customer's result so one bad customer does not fail the whole batch.
+     */
+    private FormDataResult bulkFormReady(FormDataRequest request, BulkLookups lookups) {
+        String journeyType = request.journeyType();
+        String customerIdentificationId = request.customerIdentificationId();
+        try {
+            Supplier<ResponseEntity<String>> load = () -> {
+                JourneyType parsedJourneyType = JourneyType.of(journeyType);
+                PolicyTracking policyTracking = lookups.trackers().get(parsedJourneyType.getCustomerType()).apply(customerIdentificationId);
+                return formReady(policyTracking, journeyType, customerIdentificationId, parsedJourneyType.isCustomerJourney());
+            };
+            ResponseEntity<String> response = coalescingEnabled
+                    ? formReadyRequests.execute(journeyType + ":" + customerIdentificationId, load)
+                    : load.get();
+            return new FormDataResult(journeyType, customerIdentificationId, response.getStatusCode().value(), response.getBody());
+        } catch (Exception e) {
+            log.error("Exception in bulk form data for {} {}: {}", journeyType, customerIdentificationId, e.getMessage(), e);
+            return new FormDataResult(journeyType, customerIdentificationId, HttpStatus.INTERNAL_SERVER_ERROR.value(), PolicyConstants.ERROR_PROCESSING_REQUEST);
+        }
+    }
+
+    private record SaveKey(String journeyType, String customerIdentifier) {
+    }
+
+    private record BulkLookups(Map<CustomerType, Function<String, PolicyTracking>> trackers) {
+    }
+
+    /**
+     * Runs the tracking lookup, the customer lookup and the ODS form ready call in parallel on the
+     * questionnaire executor, and persists the tracking row once all of them have completed.
+     */
+    private ResponseEntity<String> getODSdataConcurrently(String journeyType, String customerIdentificationId) {
+        JourneyType parsedJourneyType = JourneyType.of(journeyType);
+        CompletableFuture<Supplier<PolicyTracking>> trackingLookup = journeyOf(parsedJourneyType)
+                .lookupOpenPolicyAsync(customerIdentificationId, questionnaireExecutor);
+        CompletableFuture<String> formLookup = CompletableFuture.supplyAsync(
+                () -> odsClient.executeFormReadyRequest(journeyType, customerIdentificationId), questionnaireExecutor);
+
+        try {
+            CompletableFuture.allOf(trackingLookup, formLookup).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof CallNotPermittedException circuitOpen) {
+                return lastStoredForm(journeyType, customerIdentificationId, circuitOpen);
             }
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
         }
 
-        String form = odsClient.executeFormReadyRequest(journeyType, customerIdentificationId);
+        PolicyTracking policyTracking = trackingLookup.join().get();
+        return applyFormReady(policyTracking, journeyType, customerIdentificationId, formLookup.join(), parsedJourneyType.isCustomerJourney());
+    }
 
+    /**
+     * Serves the last stored form while the ODS form ready circuit is open, leaving the tracking row untouched.
+     */
+    private ResponseEntity<String> lastStoredForm(String journeyType, String customerIdentificationId, CallNotPermittedException circuitOpen) {
+        log.warn("ODS form ready circuit is open, serving the last stored form for {}: {}", customerIdentificationId, circuitOpen.getMessage());
+        ResponseEntity<String> storedForm = viewForm(journeyType, customerIdentificationId);
+        if (storedForm.getStatusCode().is2xxSuccessful()) {
+            return storedForm;
+        }
+        return new ResponseEntity<>(PolicyConstants.ODS_UNAVAILABLE, HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
+    /**
+     * Applies the ODS form ready response to the tracking row and persists it with a single save,
+     * so the policy assignment and the form content are written in one transaction.
+     */
+    private ResponseEntity<String> applyFormReady(PolicyTracking policyTracking, String journeyType, String customerIdentificationId, String form, boolean customerJourney) {
         if (form != null && !form.equals(PolicyConstants.FORM_ALREADY_SUBMITTED)) {
             policyTracking.setJourneyType(journeyType);
-            policyTracking.setFormDataContent(form);
             policyTracking.setStatus(Status.PULL_FORM);
-            policyTrackingRepository.save(policyTracking);
-            return ResponseEntity.ok(form);
+            String stored = policyTrackingService.saveWithForm(policyTracking, customerIdentificationId, journeyType, form);
+            return ResponseEntity.ok(stored);
         } else {
+            if (customerJourney) {
+                policyTrackingRepository.save(policyTracking);
+            }
             return new ResponseEntity<>(PolicyConstants.FORM_ALREADY_SUBMITTED, HttpStatus.NOT_FOUND);
         }
     }
@@ -87,29 +383,40 @@ public class QuestionnaireServiceImpl implements QuestionnaireService {
     @Override
     public ResponseEntity<String> saveOdsData(String journeyType, String customerIdentifier, String formData) {
         log.info("Entering saveOdsData with journeyType: {}, customerIdentifier: {}", journeyType, customerIdentifier);
+        if (autosaveCoalescingEnabled) {
+            // Acknowledge at once rather than hold the request thread for the rest of the window
+            autosaves.submit(new SaveKey(journeyType, customerIdentifier), formData);
+            return ResponseEntity.accepted().build();
+        }
+        return saveNow(journeyType, customerIdentifier, formData);
+    }
+
+    @Override
+    public ResponseEntity<String> flushOdsData(String journeyType, String customerIdentifier) {
+        log.info("Flushing pending save for journeyType: {}, customerIdentifier: {}", journeyType, customerIdentifier);
+        return autosaves.flush(new SaveKey(journeyType, customerIdentifier))
+                .orElseGet(() -> ResponseEntity.noContent().build());
+    }
+
+    /**
+     * Sends the form to ODS and stores the form it returns on the customer's active tracking row
+     */
+    private ResponseEntity<String> saveNow(String journeyType, String customerIdentifier, String formData) {
         try {
-            PolicyTracking policyTracking = new PolicyTracking();
-            List<String> journeyTypeParts = Arrays.asList(journeyType.split("-"));
-            if (journeyTypeParts.contains("LE")) {
-                log.info("fetching data for LE");
-                policyTracking = policyTrackingRepository.findByLegalEntityIdAndStatuses(customerIdentifier, Status.PULL_FORM, Status.IN_PROGRESS);
-                if (policyTracking != null) {
-                    log.info("policy tracking is not null");
-                }
-            } else if (journeyTypeParts.contains("MG")) {
-                log.info("fetching data for MG");
-                policyTracking = policyTrackingRepository.findByClientIdAndStatuses(customerIdentifier, Status.PULL_FORM, Status.IN_PROGRESS);
-                if (policyTracking != null) {
-                    log.info("policy tracking is not null");
-                }
+            JourneyType parsedJourneyType = JourneyType.of(journeyType);
+            if (parsedJourneyType.isCustomerJourney()) {
+                log.info("fetching data for {}", parsedJourneyType.getCustomerType().getCode());
+            }
+            PolicyTracking policyTracking = journeyOf(parsedJourneyType).findActiveTracking(customerIdentifier);
+            if (parsedJourneyType.isCustomerJourney() && policyTracking != null) {
+                log.info("policy tracking is not null");
             }
             String form = odsClient.executeSaveRequest(journeyType, customerIdentifier, formData);
             if (form != null) {
                 if (policyTracking != null) {
                     log.info("form received from ODS");
-                    policyTracking.setFormDataContent(form);
                     policyTracking.setStatus(Status.IN_PROGRESS);
-                    policyTrackingRepository.save(policyTracking);
+                    policyTrackingService.saveWithForm(policyTracking, customerIdentifier, journeyType, form);
                 }
                 return ResponseEntity.ok(form);
             } else {
@@ -125,23 +432,33 @@ public class QuestionnaireServiceImpl implements QuestionnaireService {
     public ResponseEntity<String> submitOdsData(String journeyType, String customerIdentifier, String formData) {
         log.info("Entering submitOdsData with journeyType: {}, customerIdentifier: {}", journeyType, customerIdentifier);
         try {
-            PolicyTracking policyTracking = new PolicyTracking();
-            List<String> journeyTypeParts = Arrays.asList(journeyType.split("-"));
-            if (journeyTypeParts.contains("LE")) {
-                log.info(" submit for LE");
-                policyTracking = policyTrackingRepository.findByLegalEntityIdAndStatuses(customerIdentifier, Status.PULL_FORM, Status.IN_PROGRESS);
-            } else if (journeyTypeParts.contains("MG")) {
-                log.info(" submit for MG");
-                policyTracking = policyTrackingRepository.findByClientIdAndStatuses(customerIdentifier, Status.PULL_FORM, Status.IN_PROGRESS);
+            if (autosaveCoalescingEnabled) {
+                Optional<ResponseEntity<String>> saved = autosaves.flush(new SaveKey(journeyType, customerIdentifier));
+                if (saved.isPresent() && !saved.get().getStatusCode().is2xxSuccessful()) {
+                    log.warn("Not submitting for {}: its pending save failed with status {}", customerIdentifier, saved.get().getStatusCode());
+                    return saved.get();
+                }
             }
+            JourneyType parsedJourneyType = JourneyType.of(journeyType);
+            if (parsedJourneyType.isCustomerJourney()) {
+                log.info(" submit for {}", parsedJourneyType.getCustomerType().getCode());
+            }
+            PolicyTracking policyTracking = journeyOf(parsedJourneyType).findActiveTracking(customerIdentifier);
             policyTracking.setStatus(Status.SUBMITTED);
+            if (asyncSubmitEnabled) {
+                SubmitOutbox submission = submitOutboxService.enqueue(policyTracking, journeyType, customerIdentifier, formData);
+                String statusUrl = PolicyConstants.SUBMISSION_STATUS_PATH + submission.getId();
+                log.info("Submit for {} accepted as submission {}", customerIdentifier, submission.getId());
+                return ResponseEntity.accepted().location(URI.create(statusUrl)).body(statusUrl);
+            }
+            // Mark the row submitted before calling ODS: a second submit then finds no active tracking row and
+            // fails here rather than reaching ODS as well
             policyTrackingRepository.save(policyTracking);
             String form = odsClient.executeSubmitRequest(journeyType, customerIdentifier, formData);
             if (form != null && !form.equals(PolicyConstants.FAILED)) {
-                policyTracking.setFormDataContent(form);
                 if (multipleRetakeEnabled)
                     policyTracking.setRetake("enable");
-                policyTrackingRepository.save(policyTracking);
+                policyTrackingService.saveWithForm(policyTracking, customerIdentifier, journeyType, form);
                 return ResponseEntity.ok(PolicyConstants.SUCCESS);
             } else {
                 return new ResponseEntity<>(PolicyConstants.FAILED, HttpStatus.NOT_FOUND);
@@ -152,35 +469,119 @@ public class QuestionnaireServiceImpl implements QuestionnaireService {
         }
     }
 
+    @Override
+    public Optional<SubmissionStatus> findSubmission(Long submissionId) {
+        return submitOutboxService.findById(submissionId)
+                .map(submission -> new SubmissionStatus(submission.getId(), submission.getJourneyType(), submission.getCustomerId(),
+                        submission.getStatus(), submission.getAttempts(), submission.getLastError(),
+                        submission.getCreatedDate(), submission.getUpdatedDate()));
+    }
+
+    /**
+     * Hands the asynchronous submits ready for delivery to the dispatch executor, never more than
+     * questionnaire.submit.outbox.concurrency at once. A customer's next submit only becomes ready once
+     * the previous one has been answered, so submits reach ODS in order.
+     */
+    @Scheduled(initialDelayString = "${questionnaire.submit.outbox.poll-interval:PT1S}",
+            fixedDelayString = "${questionnaire.submit.outbox.poll-interval:PT1S}")
+    public void dispatchSubmissions() {
+        int free = submitDispatchConcurrency - dispatchingSubmits.get();
+        if (free <= 0) {
+            return;
+        }
+        for (SubmitOutbox submission : submitOutboxService.claimReady(free)) {
+            dispatchingSubmits.incrementAndGet();
+            try {
+                submitDispatchExecutor.execute(() -> {
+                    try {
+                        deliverSubmission(submission);
+                    } finally {
+                        dispatchingSubmits.decrementAndGet();
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                dispatchingSubmits.decrementAndGet();
+                submitOutboxService.markAttemptDeferred(submission, "Dispatch rejected: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Sends one claimed submit to ODS and applies the response to its tracking row as the synchronous submit
+     * would. Failures, timeouts and throttling (408, 429) are retried by the outbox, and submits shed by an open
+     * circuit or a full bulkhead go back to it without counting as an attempt; ODS refusals (FAILED or another
+     * client error) are final. Delivery is at least once: a dispatcher dying between the ODS call and recording
+     * the outcome leaves the submit to be sent again once its claim expires.
+     */
+    private void deliverSubmission(SubmitOutbox submission) {
+        String journeyType = submission.getJourneyType();
+        String customerIdentifier = submission.getCustomerId();
+        try {
+            String form = odsClient.executeSubmitRequest(journeyType, customerIdentifier, submission.getFormData());
+            if (form == null || form.equals(PolicyConstants.FAILED)) {
+                submitOutboxService.markRejected(submission, PolicyConstants.FAILED);
+                return;
+            }
+            policyTrackingService.recordDelivery(submission, form);
+        } catch (CallNotPermittedException | BulkheadFullException e) {
+            log.warn("Submit {} for {} was not sent, ODS calls are being shed: {}", submission.getId(), customerIdentifier, e.getMessage());
+            submitOutboxService.markAttemptDeferred(submission, e.getMessage());
+        } catch (FeignException.FeignClientException e) {
+            if (e.status() == HttpStatus.REQUEST_TIMEOUT.value() || e.status() == HttpStatus.TOO_MANY_REQUESTS.value()) {
+                log.warn("Delivery attempt {} of submit {} for {} was turned away: {}", submission.getAttempts(), submission.getId(), customerIdentifier, e.getMessage());
+                submitOutboxService.markAttemptFailed(submission, e.getMessage());
+                return;
+            }
+            log.warn("ODS refused submit {} for {}: {}", submission.getId(), customerIdentifier, e.getMessage());
+            submitOutboxService.markRejected(submission, e.getMessage());
+        } catch (Exception e) {
+            log.warn("Delivery attempt {} of submit {} for {} failed: {}", submission.getAttempts(), submission.getId(), customerIdentifier, e.getMessage());
+            submitOutboxService.markAttemptFailed(submission, e.getMessage());
+        }
+    }
+
     @Override
     public ResponseEntity<String> viewForm(String journeyType, String customerIdentificationId) {
         log.info("in view Form - assessment");
-        List<String> journeyTypeParts = Arrays.asList(journeyType.split("-"));
-        List<PolicyTracking> policyTrackings = new ArrayList<>();
-        if (journeyTypeParts.contains("LE")) {
-            policyTrackings = policyTrackingRepository.findByLEAndJourneyTypeLatest(customerIdentificationId, journeyType);
-            if (policyTrackings != null && !policyTrackings.isEmpty()) {
-                if (policyTrackings.get(0).getFormDataContent() == null) {
-                    policyTrackings = policyTrackingRepository.findByLEAndJourneyTypePrevious(customerIdentificationId, journeyType);
-                }
-                return ResponseEntity.ok(policyTrackings.get(0).getFormDataContent());
-            }
-        } else if (journeyTypeParts.contains("MG")) {
-            log.info("feting form for MG " + journeyType);
-            policyTrackings = policyTrackingRepository.findByMgAndJourneyTypeLatest(customerIdentificationId, journeyType);
-            if (policyTrackings != null && !policyTrackings.isEmpty()) {
-                log.info("policy tracking not null");
-                if (policyTrackings.get(0).getFormDataContent() == null) {
-                    log.info("latest form is null");
-                    policyTrackings = policyTrackingRepository.findByMgAndJourneyTypePrevious(customerIdentificationId, journeyType);
-                }
-                log.info("policy tracking is" + policyTrackings.get(0));
-                return ResponseEntity.ok(policyTrackings.get(0).getFormDataContent());
+        if (formVersioningEnabled) {
+            Optional<String> latestVersion = formVersionService.findLatest(customerIdentificationId, journeyType);
+            if (latestVersion.isPresent()) {
+                return ResponseEntity.ok(latestVersion.get());
             }
         }
+        List<StoredFormContent> formDataContents = journeyOf(JourneyType.of(journeyType))
+                .findLatestFormContent(customerIdentificationId, journeyType, LATEST_ONLY);
+        if (formDataContents != null && !formDataContents.isEmpty()) {
+            return ResponseEntity.ok(formDataContents.get(0).content());
+        }
         return new ResponseEntity<>(PolicyConstants.FORM_NOT_AVAILABLE, HttpStatus.NOT_FOUND);
     }
 
+    @Override
+    public Optional<String> findFormEtag(String journeyType, String customerIdentificationId) {
+        List<String> etags = journeyOf(JourneyType.of(journeyType))
+                .findLatestFormEtag(customerIdentificationId, journeyType, LATEST_ONLY);
+        if (etags == null || etags.isEmpty()) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(etags.get(0));
+    }
+
+    @Override
+    public boolean streamViewForm(String journeyType, String customerIdentificationId, OutputStreamOpener output) throws IOException {
+        log.info("in view Form - streaming assessment");
+        if (formVersioningEnabled) {
+            Optional<String> latestVersion = formVersionService.findLatest(customerIdentificationId, journeyType);
+            if (latestVersion.isPresent()) {
+                OutputStream out = output.open();
+                out.write(latestVersion.get().getBytes(StandardCharsets.UTF_8));
+                out.flush();
+                return true;
+            }
+        }
+        return journeyOf(JourneyType.of(journeyType)).streamLatestForm(customerIdentificationId, journeyType, output);
+    }
+
     @Override
     public ResponseEntity<String> getInitialForm(String journeyType, String customerIdentificationId) {
         log.info("Entering getInitialForm with journeyType: {}, customerIdentificationId: {}", journeyType, customerIdentificationId);
@@ -200,16 +601,12 @@ public class QuestionnaireServiceImpl implements QuestionnaireService {
     public ResponseEntity<String> retakeQuestionnaire(String journeyType, String customerIdentificationId) {
         log.info("Entering retakeQuestionnaire with journeyType: {}, customerIdentifier: {}", journeyType, customerIdentificationId);
         try {
-            PolicyTracking policyTracking = new PolicyTracking();
             PolicyTracking policyTrackingNew = new PolicyTracking();
-            List<String> journeyTypeParts = Arrays.asList(journeyType.split("-"));
-            if (journeyTypeParts.contains("LE")) {
-                log.info(" retake for LE");
-                policyTracking = policyTrackingRepository.findByLegalEntityIdAndStatusesLatest(customerIdentificationId, Status.SUBMITTED, Status.DECISION_RECEIVED).get(0);
-            } else if (journeyTypeParts.contains("MG")) {
-                log.info(" retake for MG");
-                policyTracking = policyTrackingRepository.findByClientIdAndStatusesLatest(customerIdentificationId, Status.SUBMITTED, Status.DECISION_RECEIVED).get(0);
+            JourneyType parsedJourneyType = JourneyType.of(journeyType);
+            if (parsedJourneyType.isCustomerJourney()) {
+                log.info(" retake for {}", parsedJourneyType.getCustomerType().getCode());
             }
+            PolicyTracking policyTracking = journeyOf(parsedJourneyType).findSubmittedTrackingsLatest(customerIdentificationId).get(0);
             policyTrackingNew.setJourneyType(journeyType);
             policyTrackingNew.setClient(policyTracking.getClient());
             policyTrackingNew.setLegalEntity(policyTracking.getLegalEntity());
@@ -0,0 +1,65 @@
+package com.hsbc.gbgcf.crp.service.impl;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.hsbc.gbgcf.crp.constants.PolicyConstants;
+import com.hsbc.gbgcf.crp.service.ReferenceDataCacheService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Service
+@Slf4j
+public class ReferenceDataCacheServiceImpl implements ReferenceDataCacheService {
+
+    private static final List<String> CACHE_NAMES = List.of(PolicyConstants.CACHE_LEGAL_ENTITIES, PolicyConstants.CACHE_CLIENTS);
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Override
+    public void evictLegalEntity(String entityId) {
+        log.info("Evicting cached legal entity {}", entityId);
+        Cache cache = cacheManager.getCache(PolicyConstants.CACHE_LEGAL_ENTITIES);
+        if (cache != null) {
+            cache.evict(entityId);
+        }
+    }
+
+    @Override
+    public void evictClient(String masterGroupId) {
+        log.info("Evicting cached client {}", masterGroupId);
+        Cache cache = cacheManager.getCache(PolicyConstants.CACHE_CLIENTS);
+        if (cache != null) {
+            cache.evict(masterGroupId);
+        }
+    }
+
+    @Override
+    public void evictAll() {
+        log.info("Evicting all reference data caches");
+        for (String cacheName : CACHE_NAMES) {
+            Cache cache = cacheManager.getCache(cacheName);
+            if (cache != null) {
+                cache.clear();
+            }
+        }
+    }
+
+    @Override
+    public Map<String, CacheStats> getStatistics() {
+        Map<String, CacheStats> statistics = new LinkedHashMap<>();
+        for (String cacheName : CACHE_NAMES) {
+            if (cacheManager.getCache(cacheName) instanceof CaffeineCache caffeineCache) {
+                statistics.put(cacheName, caffeineCache.getNativeCache().stats());
+            }
+        }
+        return statistics;
+    }
+}
@@ -0,0 +1,145 @@
+package com.hsbc.gbgcf.crp.service.impl;
+
+import com.hsbc.gbgcf.crp.entity.PolicyTracking;
+import com.hsbc.gbgcf.crp.entity.SubmitOutbox;
+import com.hsbc.gbgcf.crp.enums.OutboxStatus;
+import com.hsbc.gbgcf.crp.repository.PolicyTrackingRepository;
+import com.hsbc.gbgcf.crp.repository.SubmitOutboxRepository;
+import com.hsbc.gbgcf.crp.service.SubmitOutboxService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+@Service
+@Slf4j
+public class SubmitOutboxServiceImpl implements SubmitOutboxService {
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    @Autowired
+    private SubmitOutboxRepository submitOutboxRepository;
+
+    @Autowired
+    private PolicyTrackingRepository policyTrackingRepository;
+
+    @Value("${questionnaire.submit.outbox.retry-horizon:PT24H}")
+    Duration retryHorizon = Duration.ofHours(24);
+
+    @Value("${questionnaire.submit.outbox.initial-backoff:PT2S}")
+    Duration initialBackoff = Duration.ofSeconds(2);
+
+    @Value("${questionnaire.submit.outbox.max-backoff:PT5M}")
+    Duration maxBackoff = Duration.ofMinutes(5);
+
+    @Value("${questionnaire.submit.outbox.lease:PT5M}")
+    Duration lease = Duration.ofMinutes(5);
+
+    Clock clock = Clock.systemUTC();
+
+    @Override
+    @Transactional
+    public SubmitOutbox enqueue(PolicyTracking policyTracking, String journeyType, String customerIdentificationId, String formData) {
+        PolicyTracking saved = policyTrackingRepository.save(policyTracking);
+        LocalDateTime now = LocalDateTime.now(clock);
+        SubmitOutbox submission = new SubmitOutbox();
+        submission.setPolicyTrackingId(saved.getId());
+        submission.setCustomerId(customerIdentificationId);
+        submission.setJourneyType(journeyType);
+        submission.setFormData(formData);
+        submission.setStatus(OutboxStatus.PENDING);
+        submission.setNextAttemptAt(now);
+        submission.setCreatedDate(now);
+        submission.setUpdatedDate(now);
+        return submitOutboxRepository.save(submission);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<SubmitOutbox> findById(Long submissionId) {
+        return submitOutboxRepository.findById(submissionId);
+    }
+
+    /**
+     * Claims the ready submits one by one; a submit another instance claimed first is skipped. In flight
+     * submits whose claim is older than the lease are taken over, as their dispatcher is assumed dead.
+     */
+    @Override
+    @Transactional
+    public List<SubmitOutbox> claimReady(int limit) {
+        LocalDateTime now = LocalDateTime.now(clock);
+        List<SubmitOutbox> claimed = new ArrayList<>();
+        for (SubmitOutbox submission : submitOutboxRepository.findReady(now, now.minus(lease),
+                OutboxStatus.PENDING, OutboxStatus.IN_FLIGHT, PageRequest.of(0, limit))) {
+            if (submitOutboxRepository.claim(submission.getId(), submission.getVersion(), OutboxStatus.IN_FLIGHT, now) == 1) {
+                // The claim detached the submit, so these only mirror the update for the dispatcher
+                submission.setStatus(OutboxStatus.IN_FLIGHT);
+                submission.setClaimedAt(now);
+                submission.setAttempts(submission.getAttempts() + 1);
+                submission.setVersion(submission.getVersion() + 1);
+                submission.setUpdatedDate(now);
+                claimed.add(submission);
+            }
+        }
+        return claimed;
+    }
+
+    @Override
+    @Transactional
+    public void markDelivered(SubmitOutbox submission) {
+        complete(submission, OutboxStatus.DELIVERED, submission.getNextAttemptAt(), null);
+    }
+
+    @Override
+    @Transactional
+    public void markRejected(SubmitOutbox submission, String reason) {
+        complete(submission, OutboxStatus.REJECTED, submission.getNextAttemptAt(), reason);
+    }
+
+    @Override
+    @Transactional
+    public void markAttemptFailed(SubmitOutbox submission, String error) {
+        LocalDateTime now = LocalDateTime.now(clock);
+        if (!now.isBefore(submission.getCreatedDate().plus(retryHorizon))) {
+            log.error("Submit {} for {} failed after {} attempts: {}", submission.getId(), submission.getCustomerId(), submission.getAttempts(), error);
+            complete(submission, OutboxStatus.FAILED, submission.getNextAttemptAt(), error);
+            return;
+        }
+        Duration backoff = initialBackoff.multipliedBy(1L << Math.min(submission.getAttempts() - 1, 20));
+        if (backoff.compareTo(maxBackoff) > 0) {
+            backoff = maxBackoff;
+        }
+        complete(submission, OutboxStatus.PENDING, now.plus(backoff), error);
+    }
+
+    @Override
+    @Transactional
+    public void markAttemptDeferred(SubmitOutbox submission, String reason) {
+        LocalDateTime now = LocalDateTime.now(clock);
+        int updated = submitOutboxRepository.release(submission.getId(), submission.getVersion(), OutboxStatus.PENDING,
+                now.plus(initialBackoff), truncate(reason), now);
+        if (updated == 0) {
+            log.warn("Submit {} was taken over by another dispatcher, dropping its deferral", submission.getId());
+        }
+    }
+
+    private void complete(SubmitOutbox submission, OutboxStatus status, LocalDateTime nextAttemptAt, String error) {
+        int updated = submitOutboxRepository.complete(submission.getId(), submission.getVersion(), status, nextAttemptAt, truncate(error), LocalDateTime.now(clock));
+        if (updated == 0) {
+            log.warn("Submit {} was taken over by another dispatcher, dropping its {} outcome", submission.getId(), status);
+        }
+    }
+
+    private static String truncate(String error) {
+        return error != null && error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error;
+    }
+}
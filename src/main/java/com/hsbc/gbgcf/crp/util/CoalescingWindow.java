@@ -0,0 +1,209 @@
+package com.hsbc.gbgcf.crp.util;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiFunction;
+
+/**
+ * Merges the values submitted for the same key within a time window into a single flush of the latest one.
+ * The first value for a key opens the window and later values replace it until the window closes; every
+ * submitter then receives the result of the flush that sent the latest value. Flushes of a key never overlap:
+ * values arriving while one runs open the next window once it has completed. flush(key) sends the pending
+ * value right away instead of waiting for the window to close, and flushAll() does so for every key.
+ *
+ * @param <K> the key type
+ * @param <V> the value type
+ * @param <R> the flush result type
+ */
+public final class CoalescingWindow<K, V, R> {
+
+    private final ConcurrentMap<K, Slot<V, R>> slots = new ConcurrentHashMap<>();
+    private final Duration window;
+    private final Executor executor;
+    private final BiFunction<K, V, R> flusher;
+
+    /**
+     * @param window how long a key collects values before the latest one is flushed
+     * @param executor runs the flushes when their window closes
+     * @param flusher sends a key's latest value
+     */
+    public CoalescingWindow(Duration window, Executor executor, BiFunction<K, V, R> flusher) {
+        this.window = window;
+        this.executor = executor;
+        this.flusher = flusher;
+    }
+
+    /**
+     * Queues the value for the key, replacing the value pending for it if any.
+     *
+     * @param key the key
+     * @param value the value, superseding the pending one
+     * @return a future completed with the result of the flush that sends this value or a later one
+     */
+    public CompletableFuture<R> submit(K key, V value) {
+        AtomicReference<CompletableFuture<R>> result = new AtomicReference<>();
+        AtomicBoolean opened = new AtomicBoolean();
+        slots.compute(key, (k, slot) -> {
+            Slot<V, R> current = slot != null ? slot : new Slot<>();
+            current.value = value;
+            if (current.pending == null) {
+                current.pending = new CompletableFuture<>();
+                opened.set(current.flushing == null);
+            }
+            result.set(current.pending);
+            return current;
+        });
+        if (opened.get()) {
+            schedule(key);
+        }
+        return result.get();
+    }
+
+    /**
+     * Flushes the value pending for the key on the calling thread, waiting for flushes already in progress,
+     * until nothing is left for the key.
+     *
+     * @param key the key
+     * @return the result of the last flush, or empty if nothing was pending or in progress
+     */
+    public Optional<R> flush(K key) {
+        Optional<R> result = Optional.empty();
+        while (true) {
+            AtomicReference<CompletableFuture<R>> inProgress = new AtomicReference<>();
+            Batch<V, R> batch = take(key, inProgress);
+            if (batch != null) {
+                result = Optional.ofNullable(send(key, batch));
+            } else if (inProgress.get() != null) {
+                result = Optional.ofNullable(await(inProgress.get()));
+            } else {
+                return result;
+            }
+        }
+    }
+
+    /**
+     * Flushes every key with a value pending or a flush in progress on the calling thread, as flush(key) does,
+     * e.g. to drain the window before shutting down. A failed flush does not stop the remaining ones.
+     *
+     * @return the number of keys flushed
+     */
+    public int flushAll() {
+        int flushed = 0;
+        for (K key : List.copyOf(slots.keySet())) {
+            try {
+                flush(key);
+            } catch (RuntimeException e) {
+                // already passed on to the submitters through their future
+            }
+            flushed++;
+        }
+        return flushed;
+    }
+
+    /**
+     * @return the number of keys with a value pending or a flush in progress
+     */
+    public int pendingCount() {
+        return slots.size();
+    }
+
+    private void schedule(K key) {
+        CompletableFuture.delayedExecutor(window.toMillis(), TimeUnit.MILLISECONDS, executor).execute(() -> {
+            Batch<V, R> batch = take(key, null);
+            if (batch != null) {
+                try {
+                    send(key, batch);
+                } catch (RuntimeException e) {
+                    // already passed on to the submitters through their future
+                }
+            }
+        });
+    }
+
+    /**
+     * Takes the pending value of the key for sending. Returns null if there is none, or if a flush of the key is
+     * in progress, which is then handed to inProgress.
+     */
+    private Batch<V, R> take(K key, AtomicReference<CompletableFuture<R>> inProgress) {
+        AtomicReference<Batch<V, R>> taken = new AtomicReference<>();
+        slots.computeIfPresent(key, (k, slot) -> {
+            if (slot.flushing != null) {
+                if (inProgress != null) {
+                    inProgress.set(slot.flushing);
+                }
+                return slot;
+            }
+            if (slot.pending == null) {
+                return null;
+            }
+            taken.set(new Batch<>(slot.value, slot.pending));
+            slot.flushing = slot.pending;
+            slot.value = null;
+            slot.pending = null;
+            return slot;
+        });
+        return taken.get();
+    }
+
+    /**
+     * Sends the batch and releases the key before completing the submitters, so anyone woken by the result
+     * already sees the next window.
+     */
+    private R send(K key, Batch<V, R> batch) {
+        R result;
+        try {
+            result = flusher.apply(key, batch.value());
+        } catch (RuntimeException | Error e) {
+            release(key);
+            batch.result().completeExceptionally(e);
+            throw e;
+        }
+        release(key);
+        batch.result().complete(result);
+        return result;
+    }
+
+    private void release(K key) {
+        AtomicBoolean reopened = new AtomicBoolean();
+        slots.computeIfPresent(key, (k, slot) -> {
+            slot.flushing = null;
+            if (slot.pending == null) {
+                return null;
+            }
+            reopened.set(true);
+            return slot;
+        });
+        if (reopened.get()) {
+            schedule(key);
+        }
+    }
+
+    private R await(CompletableFuture<R> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private static final class Slot<V, R> {
+        private V value;
+        private CompletableFuture<R> pending;
+        private CompletableFuture<R> flushing;
+    }
+
+    private record Batch<V, R>(V value, CompletableFuture<R> result) {
+    }
+}
@@ -0,0 +1,34 @@
+package com.hsbc.gbgcf.crp.util;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * Computes the strong entity tag stored with each form version.
+ * The tag is the SHA-256 hex digest of the form content, so equal content always yields the same tag.
+ */
+public final class FormEtag {
+
+    private FormEtag() {
+    }
+
+    /**
+     * Computes the entity tag of the given form content.
+     *
+     * @param content the form content
+     * @return the unquoted entity tag, or null if there is no content
+     */
+    public static String of(String content) {
+        if (content == null) {
+            return null;
+        }
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(content.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
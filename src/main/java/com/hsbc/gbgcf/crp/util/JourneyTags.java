@@ -0,0 +1,70 @@
+package com.hsbc.gbgcf.crp.util;
+
+import com.hsbc.gbgcf.crp.enums.CustomerType;
+
+/**
+ * Derives the journey metric tag (LE, MG or none) from a journey type, and carries the tag of the request
+ * being handled on the current thread so metrics recorded deeper down, such as repository timings, can
+ * be tagged with it.
+ */
+public final class JourneyTags {
+
+    public static final String TAG = "journey";
+    public static final String LEGAL_ENTITY = CustomerType.LEGAL_ENTITY.getCode();
+    public static final String MASTER_GROUP = CustomerType.MASTER_GROUP.getCode();
+    public static final String NONE = CustomerType.NONE.getCode();
+
+    private static final ThreadLocal<String> CURRENT = new ThreadLocal<>();
+
+    private JourneyTags() {
+    }
+
+    /**
+     * Computes the journey tag of the given journey type.
+     *
+     * @param journeyType the journey type, e.g. PAW-TCPOP-LE
+     * @return LE, MG, or none if the journey type is missing or names neither
+     */
+    public static String of(String journeyType) {
+        return journeyType == null ? NONE : JourneyType.of(journeyType).getCustomerType().getCode();
+    }
+
+    /**
+     * @return the journey tag of the request handled on this thread, or none
+     */
+    public static String current() {
+        String journey = CURRENT.get();
+        return journey != null ? journey : NONE;
+    }
+
+    public static void set(String journey) {
+        CURRENT.set(journey);
+    }
+
+    public static void clear() {
+        CURRENT.remove();
+    }
+
+    /**
+     * Wraps a task so it runs with the journey tag of the thread submitting it. Usable as a TaskDecorator.
+     *
+     * @param task the task
+     * @return the task carrying the current journey tag
+     */
+    public static Runnable propagate(Runnable task) {
+        String journey = CURRENT.get();
+        return () -> {
+            String previous = CURRENT.get();
+            CURRENT.set(journey);
+            try {
+                task.run();
+            } finally {
+                if (previous != null) {
+                    CURRENT.set(previous);
+                } else {
+                    CURRENT.remove();
+                }
+            }
+        };
+    }
+}
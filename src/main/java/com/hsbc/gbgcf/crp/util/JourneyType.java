@@ -0,0 +1,98 @@
+package com.hsbc.gbgcf.crp.util;
+
+import com.hsbc.gbgcf.crp.enums.CustomerType;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * A journey type, e.g. PAW-TCPOP-LE, parsed once into the kind of customer it is for.
+ * Parsed journey types are kept in a table keyed by the raw string, so the lookup on the request path
+ * neither splits the string nor allocates. The table is bounded since the raw string comes from the request.
+ */
+public final class JourneyType {
+
+    private static final int MAX_CACHED = 256;
+    private static final ConcurrentMap<String, JourneyType> PARSED = new ConcurrentHashMap<>();
+
+    private final String value;
+    private final CustomerType customerType;
+
+    private JourneyType(String value, CustomerType customerType) {
+        this.value = value;
+        this.customerType = customerType;
+    }
+
+    /**
+     * Looks up the parsed journey type, parsing it on first use.
+     *
+     * @param value the journey type
+     * @return the parsed journey type
+     */
+    public static JourneyType of(String value) {
+        JourneyType journeyType = PARSED.get(value);
+        if (journeyType == null) {
+            journeyType = new JourneyType(value, parseCustomerType(value));
+            if (PARSED.size() < MAX_CACHED) {
+                PARSED.putIfAbsent(value, journeyType);
+            }
+        }
+        return journeyType;
+    }
+
+    /**
+     * A journey is for a legal entity if one of its dash-separated parts is LE, otherwise for a master group
+     * if one is MG.
+     */
+    private static CustomerType parseCustomerType(String value) {
+        boolean masterGroup = false;
+        int start = 0;
+        while (start <= value.length()) {
+            int end = value.indexOf('-', start);
+            if (end < 0) {
+                end = value.length();
+            }
+            if (isPart(value, start, end, CustomerType.LEGAL_ENTITY)) {
+                return CustomerType.LEGAL_ENTITY;
+            }
+            masterGroup |= isPart(value, start, end, CustomerType.MASTER_GROUP);
+            start = end + 1;
+        }
+        return masterGroup ? CustomerType.MASTER_GROUP : CustomerType.NONE;
+    }
+
+    private static boolean isPart(String value, int start, int end, CustomerType customerType) {
+        String code = customerType.getCode();
+        return end - start == code.length() && value.startsWith(code, start);
+    }
+
+    public String getValue() {
+        return value;
+    }
+
+    public CustomerType getCustomerType() {
+        return customerType;
+    }
+
+    /**
+     * @return true if the journey is for a legal entity or a master group
+     */
+    public boolean isCustomerJourney() {
+        return customerType != CustomerType.NONE;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return this == other || other instanceof JourneyType journeyType && value.equals(journeyType.value);
+    }
+
+    @Override
+    public int hashCode() {
+        return value.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return value;
+    }
+}
@@ -0,0 +1,190 @@
+package com.hsbc.gbgcf.crp.util;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Computes and applies JSON Patch (RFC 6902) documents restricted to the add, remove and replace operations.
+ * Objects are compared member by member, arrays of equal length element by element; an array whose length
+ * changed is replaced as a whole. Documents only count as equal when they are written out the same way, so
+ * decimals with a different scale and objects whose members were reordered are patched too.
+ */
+public final class JsonDiff {
+
+    private static final JsonNodeFactory NODES = JsonNodeFactory.instance;
+
+    private JsonDiff() {
+        // Utility class should not be instantiated
+    }
+
+    /**
+     * Computes the patch that turns the source document into the target document
+     *
+     * @param source the previous document
+     * @param target the new document
+     * @return the patch operations, empty when both documents are equal
+     */
+    public static ArrayNode diff(JsonNode source, JsonNode target) {
+        ArrayNode patch = NODES.arrayNode();
+        diff("", source, target, patch);
+        return patch;
+    }
+
+    private static void diff(String path, JsonNode source, JsonNode target, ArrayNode patch) {
+        if (identical(source, target)) {
+            return;
+        }
+        if (source.isObject() && target.isObject() && keepsMemberOrder(source, target)) {
+            Iterator<String> sourceNames = source.fieldNames();
+            while (sourceNames.hasNext()) {
+                String name = sourceNames.next();
+                if (!target.has(name)) {
+                    patch.add(operation("remove", path + "/" + escape(name), null));
+                }
+            }
+            Iterator<Map.Entry<String, JsonNode>> targetFields = target.fields();
+            while (targetFields.hasNext()) {
+                Map.Entry<String, JsonNode> field = targetFields.next();
+                String childPath = path + "/" + escape(field.getKey());
+                JsonNode sourceValue = source.get(field.getKey());
+                if (sourceValue == null) {
+                    patch.add(operation("add", childPath, field.getValue()));
+                } else {
+                    diff(childPath, sourceValue, field.getValue(), patch);
+                }
+            }
+        } else if (source.isArray() && target.isArray() && source.size() == target.size()) {
+            for (int i = 0; i < source.size(); i++) {
+                diff(path + "/" + i, source.get(i), target.get(i), patch);
+            }
+        } else {
+            patch.add(operation("replace", path, target));
+        }
+    }
+
+    /**
+     * Stricter than {@link JsonNode#equals(Object)}, which ignores the scale of decimals and the order of members
+     */
+    private static boolean identical(JsonNode source, JsonNode target) {
+        if (source.isObject() && target.isObject()) {
+            if (source.size() != target.size()) {
+                return false;
+            }
+            Iterator<Map.Entry<String, JsonNode>> sourceFields = source.fields();
+            Iterator<Map.Entry<String, JsonNode>> targetFields = target.fields();
+            while (sourceFields.hasNext()) {
+                Map.Entry<String, JsonNode> sourceField = sourceFields.next();
+                Map.Entry<String, JsonNode> targetField = targetFields.next();
+                if (!sourceField.getKey().equals(targetField.getKey()) || !identical(sourceField.getValue(), targetField.getValue())) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        if (source.isArray() && target.isArray()) {
+            if (source.size() != target.size()) {
+                return false;
+            }
+            for (int i = 0; i < source.size(); i++) {
+                if (!identical(source.get(i), target.get(i))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        if (source.isBigDecimal() && target.isBigDecimal()) {
+            return source.decimalValue().equals(target.decimalValue());
+        }
+        return source.equals(target);
+    }
+
+    /**
+     * Whether patching the members of the source in place, with new members added at the end, gives the
+     * members of the target in their order
+     */
+    private static boolean keepsMemberOrder(JsonNode source, JsonNode target) {
+        List<String> patched = new ArrayList<>();
+        source.fieldNames().forEachRemaining(name -> {
+            if (target.has(name)) {
+                patched.add(name);
+            }
+        });
+        target.fieldNames().forEachRemaining(name -> {
+            if (!source.has(name)) {
+                patched.add(name);
+            }
+        });
+        List<String> expected = new ArrayList<>();
+        target.fieldNames().forEachRemaining(expected::add);
+        return patched.equals(expected);
+    }
+
+    /**
+     * Applies a patch produced by {@link #diff(JsonNode, JsonNode)}
+     *
+     * @param document the document to patch, left unchanged
+     * @param patch the patch operations
+     * @return the patched document
+     */
+    public static JsonNode apply(JsonNode document, JsonNode patch) {
+        JsonNode result = document.deepCopy();
+        for (JsonNode operation : patch) {
+            String op = operation.get("op").asText();
+            List<String> tokens = parse(operation.get("path").asText());
+            JsonNode value = operation.get("value");
+            if (tokens.isEmpty()) {
+                result = value.deepCopy();
+                continue;
+            }
+            JsonNode parent = result;
+            for (int i = 0; i < tokens.size() - 1; i++) {
+                parent = parent.isArray() ? parent.get(Integer.parseInt(tokens.get(i))) : parent.get(tokens.get(i));
+            }
+            String last = tokens.get(tokens.size() - 1);
+            if (parent instanceof ObjectNode object) {
+                if ("remove".equals(op)) {
+                    object.remove(last);
+                } else {
+                    object.set(last, value.deepCopy());
+                }
+            } else if (parent instanceof ArrayNode array) {
+                array.set(Integer.parseInt(last), value.deepCopy());
+            } else {
+                throw new IllegalArgumentException("Patch path " + operation.get("path").asText() + " does not resolve to a container");
+            }
+        }
+        return result;
+    }
+
+    private static ObjectNode operation(String op, String path, JsonNode value) {
+        ObjectNode operation = NODES.objectNode();
+        operation.put("op", op);
+        operation.put("path", path);
+        if (value != null) {
+            operation.set("value", value);
+        }
+        return operation;
+    }
+
+    private static String escape(String name) {
+        return name.replace("~", "~0").replace("/", "~1");
+    }
+
+    private static List<String> parse(String path) {
+        List<String> tokens = new ArrayList<>();
+        if (path.isEmpty()) {
+            return tokens;
+        }
+        for (String token : path.substring(1).split("/", -1)) {
+            tokens.add(token.replace("~1", "/").replace("~0", "~"));
+        }
+        return tokens;
+    }
+}
@@ -0,0 +1,72 @@
+package com.hsbc.gbgcf.crp.util;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/**
+ * Collapses concurrent loads of the same key into a single call.
+ * The first caller for a key runs the loader on its own thread; callers arriving while it is in flight
+ * wait for and share its result or failure. Once the load completes the next caller starts a fresh one,
+ * so nothing is cached here.
+ *
+ * @param <K> the key type
+ * @param <V> the value type
+ */
+public final class SingleFlight<K, V> {
+
+    private final ConcurrentMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * Loads the value for the key, joining a load already in flight for it.
+     *
+     * @param key the key identifying the load
+     * @param loader loads the value when no load is in flight
+     * @return the loaded value
+     */
+    public V execute(K key, Supplier<V> loader) {
+        try {
+            return submit(key, loader).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Returns the load in flight for the key, or runs the loader on the calling thread if there is none.
+     *
+     * @param key the key identifying the load
+     * @param loader loads the value when no load is in flight
+     * @return a future completed with the loaded value or failure
+     */
+    public CompletableFuture<V> submit(K key, Supplier<V> loader) {
+        CompletableFuture<V> load = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, load);
+        if (existing != null) {
+            return existing;
+        }
+        try {
+            load.complete(loader.get());
+        } catch (Throwable t) {
+            load.completeExceptionally(t);
+        } finally {
+            inFlight.remove(key, load);
+        }
+        return load;
+    }
+
+    /**
+     * @return the number of keys with a load currently in flight
+     */
+    public int inFlightCount() {
+        return inFlight.size();
+    }
+}
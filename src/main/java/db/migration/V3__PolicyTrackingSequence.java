@@ -0,0 +1,30 @@
+package db.migration;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+/**
+ * Creates the sequence used for policy_tracking ids so Hibernate can batch inserts.
+ * IDENTITY ids force one insert statement per row. The sequence starts after the highest
+ * existing id, which a plain SQL migration cannot express portably.
+ */
+public class V3__PolicyTrackingSequence extends BaseJavaMigration {
+
+    static final int ALLOCATION_SIZE = 50;
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        long startWith;
+        try (Statement statement = context.getConnection().createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT COALESCE(MAX(id), 0) + 1 FROM policy_tracking")) {
+            resultSet.next();
+            startWith = resultSet.getLong(1);
+        }
+        try (Statement statement = context.getConnection().createStatement()) {
+            statement.execute("CREATE SEQUENCE policy_tracking_seq START WITH " + startWith + " INCREMENT BY " + ALLOCATION_SIZE);
+        }
+    }
+}
@@ -0,0 +1,6 @@
+-- Completion markers of background data migrations, so an instance started after one has finished does not scan
+-- for work again. FormDataCompressionBackfill records 'form_data_compression' here once no legacy row is left.
+CREATE TABLE background_migrations (
+    name           VARCHAR(100) NOT NULL PRIMARY KEY,
+    completed_date TIMESTAMP(6) NOT NULL
+);
@@ -0,0 +1,52 @@
+-- Baseline schema matching the JPA entities as previously generated by ddl-auto=update.
+-- Existing databases are baselined at this version (spring.flyway.baseline-on-migrate).
+
+CREATE TABLE policies (
+    id          BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    policy_code VARCHAR(255),
+    policy_name VARCHAR(255),
+    description VARCHAR(255)
+);
+
+CREATE TABLE legal_entities (
+    id          BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    entity_id   VARCHAR(255),
+    entity_name VARCHAR(255),
+    CONSTRAINT uk_legal_entities_entity_id UNIQUE (entity_id)
+);
+
+CREATE TABLE clients (
+    id              BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    master_group_id VARCHAR(255),
+    client_name     VARCHAR(255),
+    CONSTRAINT uk_clients_master_group_id UNIQUE (master_group_id)
+);
+
+CREATE TABLE legal_entity_policies (
+    legal_entity_id BIGINT NOT NULL,
+    policy_id       BIGINT NOT NULL,
+    CONSTRAINT fk_lep_legal_entity FOREIGN KEY (legal_entity_id) REFERENCES legal_entities (id),
+    CONSTRAINT fk_lep_policy FOREIGN KEY (policy_id) REFERENCES policies (id)
+);
+
+CREATE TABLE client_policies (
+    client_id BIGINT NOT NULL,
+    policy_id BIGINT NOT NULL,
+    CONSTRAINT fk_cp_client FOREIGN KEY (client_id) REFERENCES clients (id),
+    CONSTRAINT fk_cp_policy FOREIGN KEY (policy_id) REFERENCES policies (id)
+);
+
+CREATE TABLE policy_tracking (
+    id                BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    legal_entity_id   BIGINT,
+    client_id         BIGINT,
+    policy_id         BIGINT,
+    status            VARCHAR(255),
+    journey_type      VARCHAR(255),
+    form_data_content TEXT,
+    retake            VARCHAR(255),
+    created_date      TIMESTAMP(6),
+    CONSTRAINT fk_pt_legal_entity FOREIGN KEY (legal_entity_id) REFERENCES legal_entities (id),
+    CONSTRAINT fk_pt_client FOREIGN KEY (client_id) REFERENCES clients (id),
+    CONSTRAINT fk_pt_policy FOREIGN KEY (policy_id) REFERENCES policies (id)
+);
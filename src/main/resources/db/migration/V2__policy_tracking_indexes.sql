@@ -0,0 +1,12 @@
+-- Composite indexes for the PolicyTrackingRepository access patterns.
+-- Status lookups: findBy{LegalEntityId,ClientId}And{Multiple}Statuses and the *StatusesLatest variants.
+CREATE INDEX idx_pt_legal_entity_status ON policy_tracking (legal_entity_id, status, created_date DESC);
+CREATE INDEX idx_pt_client_status ON policy_tracking (client_id, status, created_date DESC);
+
+-- Journey type history lookups: findBy{LE,Mg}AndJourneyType* and findLatestFormDataContentBy{LE,Mg}.
+CREATE INDEX idx_pt_legal_entity_journey ON policy_tracking (legal_entity_id, journey_type, created_date DESC);
+CREATE INDEX idx_pt_client_journey ON policy_tracking (client_id, journey_type, created_date DESC);
+
+-- Join tables are read from the owning side when loading an entity's policies.
+CREATE INDEX idx_lep_legal_entity ON legal_entity_policies (legal_entity_id);
+CREATE INDEX idx_cp_client ON client_policies (client_id);
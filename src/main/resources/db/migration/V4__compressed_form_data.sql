@@ -0,0 +1,3 @@
+-- Compressed form content (see FormDataCompressionConverter). Existing form_data_content rows are
+-- moved into form_data by FormDataCompressionBackfill in the background and then cleared.
+ALTER TABLE policy_tracking ADD form_data BLOB;
@@ -0,0 +1,15 @@
+-- Versioned form store: a full snapshot every N versions and JSON patches in between (see FormVersionService).
+CREATE TABLE form_versions (
+    id                 BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    customer_id        VARCHAR(255) NOT NULL,
+    journey_type       VARCHAR(255) NOT NULL,
+    version            INTEGER NOT NULL,
+    policy_tracking_id BIGINT,
+    snapshot           BOOLEAN NOT NULL,
+    content            BLOB NOT NULL,
+    created_date       TIMESTAMP(6),
+    CONSTRAINT uk_form_versions_version UNIQUE (customer_id, journey_type, version),
+    CONSTRAINT fk_fv_policy_tracking FOREIGN KEY (policy_tracking_id) REFERENCES policy_tracking (id)
+);
+
+CREATE INDEX idx_fv_snapshot ON form_versions (customer_id, journey_type, snapshot, version DESC);
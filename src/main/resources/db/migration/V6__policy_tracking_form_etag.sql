@@ -0,0 +1,4 @@
+-- Entity tag of the stored form content (see FormEtag), written with the content so conditional
+-- GETs can be answered without reading or hashing the form. Existing rows get their tag from
+-- FormDataCompressionBackfill or on their next save; until then they are always sent in full.
+ALTER TABLE policy_tracking ADD form_etag VARCHAR(64);
@@ -0,0 +1,11 @@
+-- Responses of saveODSData / submitODSData calls sent with an Idempotency-Key header, replayed to retries
+-- carrying the same key (see IdempotencyService). Rows older than idempotency.replay.ttl are purged.
+CREATE TABLE idempotency_keys (
+    idempotency_key VARCHAR(255) NOT NULL PRIMARY KEY,
+    request_hash    VARCHAR(64) NOT NULL,
+    status_code     INTEGER NOT NULL,
+    response_body   BLOB,
+    created_date    TIMESTAMP(6) NOT NULL
+);
+
+CREATE INDEX idx_idempotency_keys_created ON idempotency_keys (created_date);
@@ -0,0 +1,21 @@
+-- Transactional outbox of asynchronous submits: written with the SUBMITTED tracking row, drained to ODS by the
+-- submit dispatcher in id order per customer and journey type. version guards claims across instances.
+CREATE TABLE submit_outbox (
+    id                 BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    policy_tracking_id BIGINT NOT NULL,
+    customer_id        VARCHAR(255) NOT NULL,
+    journey_type       VARCHAR(255) NOT NULL,
+    form_data          BLOB NOT NULL,
+    status             VARCHAR(20) NOT NULL,
+    attempts           INTEGER NOT NULL,
+    next_attempt_at    TIMESTAMP(6) NOT NULL,
+    claimed_at         TIMESTAMP(6),
+    last_error         VARCHAR(1000),
+    version            BIGINT NOT NULL,
+    created_date       TIMESTAMP(6),
+    updated_date       TIMESTAMP(6),
+    CONSTRAINT fk_so_policy_tracking FOREIGN KEY (policy_tracking_id) REFERENCES policy_tracking (id)
+);
+
+CREATE INDEX idx_so_status_next_attempt ON submit_outbox (status, next_attempt_at);
+CREATE INDEX idx_so_customer_status ON submit_outbox (customer_id, journey_type, status, id);
@@ -0,0 +1,4 @@
+-- An idempotency key is reserved with a pending row (no status_code yet) before its request runs, so a duplicate
+-- reaching another instance finds the reservation instead of running the request again. The row is completed
+-- with the response once the request has run.
+ALTER TABLE idempotency_keys ALTER COLUMN status_code SET NULL;
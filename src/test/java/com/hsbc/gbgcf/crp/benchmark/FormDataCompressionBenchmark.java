@@ -0,0 +1,63 @@
+package com.hsbc.gbgcf.crp.benchmark;
+
+import com.hsbc.gbgcf.crp.converter.FormDataCodec;
+import com.hsbc.gbgcf.crp.converter.FormDataCompressionConverter;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Compares stored size and encode/decode throughput of the form data codecs on realistic questionnaire payloads.
+ *
+ * Run with: mvn test -Pbenchmark -Dtest=FormDataCompressionBenchmark
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class FormDataCompressionBenchmark {
+
+    private static final int[][] SHAPES = {{5, 10}, {20, 25}, {60, 40}};
+    private static final int WARMUP_ROUNDS = 200;
+    private static final int MEASURED_ROUNDS = 1_000;
+
+    @DisplayName("Form data codec size and throughput")
+    @Test
+    void compareCodecs() {
+        System.out.printf("%-14s %10s %10s %8s %14s %14s%n", "codec", "raw bytes", "stored", "ratio", "encode MB/s", "decode MB/s");
+        for (int[] shape : SHAPES) {
+            String form = FormPayloads.form(shape[0], shape[1], 42);
+            int rawBytes = form.getBytes(StandardCharsets.UTF_8).length;
+            for (FormDataCodec codec : FormDataCodec.values()) {
+                FormDataCompressionConverter converter = new FormDataCompressionConverter(codec);
+                byte[] stored = converter.convertToDatabaseColumn(form);
+
+                long sink = 0;
+                for (int i = 0; i < WARMUP_ROUNDS; i++) {
+                    sink += converter.convertToDatabaseColumn(form).length;
+                    sink += converter.convertToEntityAttribute(stored).length();
+                }
+
+                long encodeStart = System.nanoTime();
+                for (int i = 0; i < MEASURED_ROUNDS; i++) {
+                    sink += converter.convertToDatabaseColumn(form).length;
+                }
+                long encodeNanos = System.nanoTime() - encodeStart;
+
+                long decodeStart = System.nanoTime();
+                for (int i = 0; i < MEASURED_ROUNDS; i++) {
+                    sink += converter.convertToEntityAttribute(stored).length();
+                }
+                long decodeNanos = System.nanoTime() - decodeStart;
+
+                System.out.printf("%-14s %10d %10d %7.1fx %14.1f %14.1f%s%n", codec, rawBytes, stored.length,
+                        (double) rawBytes / stored.length,
+                        megabytesPerSecond(rawBytes, encodeNanos), megabytesPerSecond(rawBytes, decodeNanos),
+                        sink == 42 ? " " : "");
+            }
+        }
+    }
+
+    private static double megabytesPerSecond(int rawBytes, long nanos) {
+        return (double) rawBytes * MEASURED_ROUNDS / (1024 * 1024) / (nanos / 1_000_000_000.0);
+    }
+}
@@ -0,0 +1,53 @@
+package com.hsbc.gbgcf.crp.benchmark;
+
+import java.util.Random;
+
+/**
+ * Generates questionnaire JSON shaped like the ODS form payloads: sections of questions with
+ * repeated keys, option lists and free-text answers.
+ */
+public final class FormPayloads {
+
+    private static final String[] ANSWERS = {"Yes", "No", "Not applicable", "Partially", "Under review"};
+
+    private FormPayloads() {
+    }
+
+    /**
+     * Builds a form payload
+     *
+     * @param sections the number of sections
+     * @param questionsPerSection the number of questions in each section
+     * @param seed the random seed, so the same arguments give the same payload
+     * @return the form JSON
+     */
+    public static String form(int sections, int questionsPerSection, long seed) {
+        Random random = new Random(seed);
+        StringBuilder json = new StringBuilder(sections * questionsPerSection * 300);
+        json.append("{\"formId\":\"TCPOP-").append(seed).append("\",\"version\":3,\"sections\":[");
+        for (int s = 0; s < sections; s++) {
+            if (s > 0) {
+                json.append(',');
+            }
+            json.append("{\"sectionId\":\"S").append(s).append("\",\"title\":\"Section ").append(s)
+                    .append("\",\"questions\":[");
+            for (int q = 0; q < questionsPerSection; q++) {
+                if (q > 0) {
+                    json.append(',');
+                }
+                json.append("{\"questionId\":\"S").append(s).append("Q").append(q)
+                        .append("\",\"type\":\"SINGLE_SELECT\",\"mandatory\":").append(q % 3 == 0)
+                        .append(",\"options\":[\"Yes\",\"No\",\"Not applicable\",\"Partially\",\"Under review\"]")
+                        .append(",\"answer\":\"").append(ANSWERS[random.nextInt(ANSWERS.length)])
+                        .append("\",\"comment\":\"");
+                int words = random.nextInt(12);
+                for (int w = 0; w < words; w++) {
+                    json.append("w").append(Integer.toString(random.nextInt(5000), 36)).append(' ');
+                }
+                json.append("\",\"lastUpdatedBy\":\"user").append(random.nextInt(20)).append("\"}");
+            }
+            json.append("]}");
+        }
+        return json.append("]}").toString();
+    }
+}
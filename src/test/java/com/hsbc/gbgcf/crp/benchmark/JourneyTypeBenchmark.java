@@ -0,0 +1,84 @@
+package com.hsbc.gbgcf.crp.benchmark;
+
+import com.hsbc.gbgcf.crp.enums.CustomerType;
+import com.hsbc.gbgcf.crp.util.JourneyType;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmark of resolving the kind of customer of a journey type, as done on every questionnaire request:
+ * the former split of the raw string into a list of parts against the interned JourneyType lookup. The gc
+ * profiler's gc.alloc.rate.norm shows the bytes allocated per resolution.
+ *
+ * The journey type is copied into a new string per trial, so the interned lookup hashes a request-like
+ * string rather than a literal.
+ *
+ * Run with: mvn test -Pbenchmark -Dtest=JourneyTypeBenchmark
+ * Results are also written to target/jmh-journey-type.json for comparison between runs.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JourneyTypeBenchmark {
+
+    @Param({"PAW-TCPOP-LE", "PAW-ENERGY-MG", "PAW-TCPOP"})
+    public String journeyType;
+
+    private String requestJourneyType;
+
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    @DisplayName("Journey type resolution under JMH")
+    @Test
+    void runBenchmarks() throws Exception {
+        new Runner(new OptionsBuilder()
+                .include(JourneyTypeBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .resultFormat(ResultFormatType.JSON)
+                .result("target/jmh-journey-type.json")
+                .build()).run();
+    }
+
+    @Setup
+    public void copyJourneyType() {
+        requestJourneyType = new String(journeyType);
+    }
+
+    @Benchmark
+    public CustomerType splitJourneyType() {
+        List<String> journeyTypeParts = Arrays.asList(requestJourneyType.split("-"));
+        if (journeyTypeParts.contains("LE")) {
+            return CustomerType.LEGAL_ENTITY;
+        } else if (journeyTypeParts.contains("MG")) {
+            return CustomerType.MASTER_GROUP;
+        }
+        return CustomerType.NONE;
+    }
+
+    @Benchmark
+    public CustomerType internedJourneyType() {
+        return JourneyType.of(requestJourneyType).getCustomerType();
+    }
+}
@@ -0,0 +1,68 @@
+package com.hsbc.gbgcf.crp.benchmark;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Response time model of a stubbed downstream endpoint
+ */
+@FunctionalInterface
+public interface LatencyDistribution {
+
+    /**
+     * Draws the time the next response takes
+     *
+     * @return the latency in milliseconds
+     */
+    long nextMillis();
+
+    static LatencyDistribution fixed(long millis) {
+        return () -> millis;
+    }
+
+    static LatencyDistribution uniform(long minMillis, long maxMillis) {
+        return () -> minMillis < maxMillis ? ThreadLocalRandom.current().nextLong(minMillis, maxMillis + 1) : minMillis;
+    }
+
+    /**
+     * Long-tailed latency, as usually observed on real services, fitted to a median and a 99th percentile
+     *
+     * @param medianMillis the median latency
+     * @param p99Millis the 99th percentile latency
+     * @return the distribution
+     */
+    static LatencyDistribution logNormal(long medianMillis, long p99Millis) {
+        double sigma = Math.log((double) Math.max(p99Millis, medianMillis) / medianMillis) / 2.3263;
+        return () -> Math.round(medianMillis * Math.exp(sigma * ThreadLocalRandom.current().nextGaussian()));
+    }
+
+    /**
+     * Parses a distribution from fixed:MILLIS, uniform:MIN:MAX or lognormal:MEDIAN:P99
+     *
+     * @param spec the distribution
+     * @return the distribution
+     * @throws IllegalArgumentException if the spec is not one of the supported forms
+     */
+    static LatencyDistribution parse(String spec) {
+        String[] parts = spec.trim().split(":");
+        switch (parts[0].toLowerCase()) {
+            case "fixed":
+                if (parts.length == 2) {
+                    return fixed(Long.parseLong(parts[1]));
+                }
+                break;
+            case "uniform":
+                if (parts.length == 3) {
+                    return uniform(Long.parseLong(parts[1]), Long.parseLong(parts[2]));
+                }
+                break;
+            case "lognormal":
+                if (parts.length == 3) {
+                    return logNormal(Long.parseLong(parts[1]), Long.parseLong(parts[2]));
+                }
+                break;
+            default:
+                break;
+        }
+        throw new IllegalArgumentException("Unsupported latency distribution: " + spec);
+    }
+}
@@ -0,0 +1,105 @@
+package com.hsbc.gbgcf.crp.benchmark;
+
+import com.hsbc.gbgcf.crp.client.ODSClient;
+import feign.Client;
+import feign.Feign;
+import feign.hc5.ApacheHttp5Client;
+import feign.http2client.Http2Client;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.cloud.openfeign.support.SpringMvcContract;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Compares ODSClient throughput and latency over the default Feign client (HttpURLConnection), the pooled
+ * Apache HttpClient 5 client and the java.net.http client, against a local stub ODS server.
+ * The stub only speaks HTTP/1.1, so the java.net.http client measures its upgrade fallback, not HTTP/2 itself.
+ *
+ * Run with: mvn test -Pbenchmark -Dtest=OdsTransportBenchmark
+ * Load can be changed with -Dbenchmark.threads, -Dbenchmark.requests and -Dbenchmark.latencyMillis.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class OdsTransportBenchmark {
+
+    private final int threads = Integer.getInteger("benchmark.threads", 64);
+    private final int requests = Integer.getInteger("benchmark.requests", 20_000);
+    private final int latencyMillis = Integer.getInteger("benchmark.latencyMillis", 5);
+
+    @DisplayName("ODS client throughput per Feign transport")
+    @Test
+    void compareTransports() throws Exception {
+        try (StubOdsServer ods = new StubOdsServer(FormPayloads.form(20, 25, 42), latencyMillis, 0);
+             CloseableHttpClient pooledHttpClient = HttpClients.custom()
+                     .setConnectionManager(PoolingHttpClientConnectionManagerBuilder.create()
+                             .setMaxConnTotal(200)
+                             .setMaxConnPerRoute(threads)
+                             .build())
+                     .build()) {
+            System.out.printf("%-22s %12s %10s %10s%n", "transport", "req/s", "p50 us", "p99 us");
+            run("default", new Client.Default(null, null), ods);
+            run("hc5 pooled", new ApacheHttp5Client(pooledHttpClient), ods);
+            run("java.net.http", new Http2Client(), ods);
+        }
+    }
+
+    private void run(String name, Client transport, StubOdsServer ods) throws Exception {
+        ODSClient odsClient = Feign.builder()
+                .client(transport)
+                .contract(new SpringMvcContract())
+                .target(ODSClient.class, ods.url());
+
+        measure(odsClient, requests / 10);
+        long start = System.nanoTime();
+        long[] latencies = measure(odsClient, requests);
+        double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+
+        System.out.printf("%-22s %12.0f %10d %10d%n", name, requests / seconds, percentile(latencies, 50), percentile(latencies, 99));
+    }
+
+    private long[] measure(ODSClient odsClient, int count) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<long[]>> workers = new ArrayList<>();
+            int perThread = count / threads;
+            for (int t = 0; t < threads; t++) {
+                int worker = t;
+                workers.add(executor.submit(() -> {
+                    long[] latencies = new long[perThread];
+                    for (int i = 0; i < perThread; i++) {
+                        long start = System.nanoTime();
+                        odsClient.executeFormReadyRequest("PAW-TCPOP-LE", "LE" + worker);
+                        latencies[i] = (System.nanoTime() - start) / 1_000;
+                    }
+                    return latencies;
+                }));
+            }
+            long[] all = new long[perThread * threads];
+            int offset = 0;
+            for (Future<long[]> worker : workers) {
+                long[] latencies = worker.get();
+                System.arraycopy(latencies, 0, all, offset, latencies.length);
+                offset += latencies.length;
+            }
+            return all;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static long percentile(long[] latencies, int percentile) {
+        long[] sorted = latencies.clone();
+        Arrays.sort(sorted);
+        int index = (int) Math.ceil(percentile / 100.0 * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+    }
+}
@@ -0,0 +1,184 @@
+package com.hsbc.gbgcf.crp.benchmark;
+
+import com.hsbc.gbgcf.crp.enums.Status;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Measures the PolicyTrackingRepository queries against a seeded H2 database,
+ * first on the baseline schema (V1) and then after the index migration (V2 onwards).
+ *
+ * Run with: mvn test -Pbenchmark -Dtest=PolicyTrackingIndexBenchmark
+ * Row counts can be changed with -Dbenchmark.trackingRows and -Dbenchmark.customers.
+ */
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class PolicyTrackingIndexBenchmark {
+
+    private static final String URL = "jdbc:h2:mem:indexbenchmark;DB_CLOSE_DELAY=-1";
+    private static final String[] JOURNEY_TYPES = {"PAW-TCPOP-LE", "PAW-ENERGY-LE", "PAW-TCPOP-MG", "PAW-ENERGY-MG"};
+    private static final Status[] STATUSES = Status.values();
+
+    private static final Map<String, String> QUERIES = new LinkedHashMap<>();
+
+    static {
+        QUERIES.put("findByLegalEntityIdAndMultipleStatuses",
+                "SELECT pt.* FROM policy_tracking pt JOIN legal_entities le ON le.id = pt.legal_entity_id "
+                        + "WHERE le.entity_id = ? AND pt.status IN ('CASE_INITIATED', 'PULL_FORM', 'IN_PROGRESS')");
+        QUERIES.put("findByClientIdAndMultipleStatuses",
+                "SELECT pt.* FROM policy_tracking pt JOIN clients c ON c.id = pt.client_id "
+                        + "WHERE c.master_group_id = ? AND pt.status IN ('CASE_INITIATED', 'PULL_FORM', 'IN_PROGRESS')");
+        QUERIES.put("findByLegalEntityIdAndStatusesLatest",
+                "SELECT pt.* FROM policy_tracking pt JOIN legal_entities le ON le.id = pt.legal_entity_id "
+                        + "WHERE le.entity_id = ? AND pt.status IN ('SUBMITTED', 'DECISION_RECEIVED') ORDER BY pt.created_date DESC");
+        QUERIES.put("findLatestFormDataContentByLE",
+                "SELECT pt.form_data_content FROM policy_tracking pt JOIN legal_entities le ON le.id = pt.legal_entity_id "
+                        + "WHERE le.entity_id = ? AND pt.journey_type = 'PAW-TCPOP-LE' AND pt.form_data_content IS NOT NULL "
+                        + "ORDER BY pt.created_date DESC FETCH FIRST 1 ROWS ONLY");
+        QUERIES.put("findByMgAndJourneyTypeLatest",
+                "SELECT pt.* FROM policy_tracking pt JOIN clients c ON c.id = pt.client_id "
+                        + "WHERE c.master_group_id = ? AND pt.journey_type = 'PAW-TCPOP-MG' ORDER BY pt.created_date DESC");
+    }
+
+    private final int trackingRows = Integer.getInteger("benchmark.trackingRows", 2_000_000);
+    private final int customers = Integer.getInteger("benchmark.customers", 20_000);
+    private final int iterations = Integer.getInteger("benchmark.iterations", 200);
+
+    private Connection connection;
+
+    @BeforeAll
+    void seed() throws SQLException {
+        connection = DriverManager.getConnection(URL, "sa", "");
+        Flyway.configure().dataSource(URL, "sa", "").target("1").load().migrate();
+
+        long start = System.nanoTime();
+        connection.setAutoCommit(false);
+        try (PreparedStatement policy = connection.prepareStatement("INSERT INTO policies (policy_code, policy_name) VALUES ('TCPOP', 'TCPOP')");
+             PreparedStatement legalEntity = connection.prepareStatement("INSERT INTO legal_entities (entity_id, entity_name) VALUES (?, ?)");
+             PreparedStatement client = connection.prepareStatement("INSERT INTO clients (master_group_id, client_name) VALUES (?, ?)")) {
+            policy.executeUpdate();
+            for (int i = 1; i <= customers; i++) {
+                legalEntity.setString(1, "LE" + i);
+                legalEntity.setString(2, "Legal entity " + i);
+                legalEntity.addBatch();
+                client.setString(1, "MG" + i);
+                client.setString(2, "Master group " + i);
+                client.addBatch();
+            }
+            legalEntity.executeBatch();
+            client.executeBatch();
+        }
+
+        Random random = new Random(42);
+        LocalDateTime baseDate = LocalDateTime.now().minusYears(2);
+        try (PreparedStatement tracking = connection.prepareStatement(
+                "INSERT INTO policy_tracking (legal_entity_id, client_id, policy_id, status, journey_type, form_data_content, created_date) "
+                        + "VALUES (?, ?, 1, ?, ?, ?, ?)")) {
+            for (int i = 0; i < trackingRows; i++) {
+                String journeyType = JOURNEY_TYPES[random.nextInt(JOURNEY_TYPES.length)];
+                long customerId = 1 + random.nextInt(customers);
+                if (journeyType.endsWith("LE")) {
+                    tracking.setLong(1, customerId);
+                    tracking.setNull(2, java.sql.Types.BIGINT);
+                } else {
+                    tracking.setNull(1, java.sql.Types.BIGINT);
+                    tracking.setLong(2, customerId);
+                }
+                tracking.setString(3, STATUSES[random.nextInt(STATUSES.length)].name());
+                tracking.setString(4, journeyType);
+                tracking.setString(5, random.nextInt(4) == 0 ? null : "{\"formData\":\"" + i + "\"}");
+                tracking.setTimestamp(6, Timestamp.valueOf(baseDate.plusSeconds(i)));
+                tracking.addBatch();
+                if (i % 10_000 == 9_999) {
+                    tracking.executeBatch();
+                    connection.commit();
+                }
+            }
+            tracking.executeBatch();
+        }
+        connection.commit();
+        connection.setAutoCommit(true);
+        System.out.printf("Seeded %,d tracking rows for %,d customers in %,d ms%n",
+                trackingRows, customers, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    @AfterAll
+    void close() throws SQLException {
+        try (PreparedStatement shutdown = connection.prepareStatement("SHUTDOWN")) {
+            shutdown.execute();
+        }
+        connection.close();
+    }
+
+    @DisplayName("Policy tracking query latency before and after the index migration")
+    @Test
+    void compareQueryLatencyBeforeAndAfterIndexes() throws SQLException {
+        Map<String, long[]> before = measureAll();
+
+        Flyway.configure().dataSource(URL, "sa", "").load().migrate();
+        try (PreparedStatement analyze = connection.prepareStatement("ANALYZE")) {
+            analyze.execute();
+        }
+
+        Map<String, long[]> after = measureAll();
+
+        System.out.printf("%-42s %12s %12s %12s %12s%n", "query", "p50 before", "p99 before", "p50 after", "p99 after");
+        for (String query : QUERIES.keySet()) {
+            long[] b = before.get(query);
+            long[] a = after.get(query);
+            System.out.printf("%-42s %10d us %10d us %10d us %10d us%n", query,
+                    percentile(b, 50), percentile(b, 99), percentile(a, 50), percentile(a, 99));
+        }
+    }
+
+    private Map<String, long[]> measureAll() throws SQLException {
+        Map<String, long[]> results = new LinkedHashMap<>();
+        for (Map.Entry<String, String> query : QUERIES.entrySet()) {
+            results.put(query.getKey(), measure(query.getKey(), query.getValue()));
+        }
+        return results;
+    }
+
+    private long[] measure(String name, String sql) throws SQLException {
+        String prefix = name.contains("LE") || name.contains("LegalEntity") ? "LE" : "MG";
+        Random random = new Random(7);
+        long[] latencies = new long[iterations];
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            for (int i = 0; i < iterations; i++) {
+                statement.setString(1, prefix + (1 + random.nextInt(customers)));
+                long start = System.nanoTime();
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    while (resultSet.next()) {
+                        resultSet.getObject(1);
+                    }
+                }
+                latencies[i] = (System.nanoTime() - start) / 1_000;
+            }
+        }
+        return latencies;
+    }
+
+    private static long percentile(long[] latencies, int percentile) {
+        long[] sorted = latencies.clone();
+        Arrays.sort(sorted);
+        int index = (int) Math.ceil(percentile / 100.0 * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+    }
+}
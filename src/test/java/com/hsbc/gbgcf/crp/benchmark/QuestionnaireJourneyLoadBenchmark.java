@@ -0,0 +1,389 @@
+package com.hsbc.gbgcf.crp.benchmark;
+
+import com.hsbc.gbgcf.crp.PositionsCollectorApplication;
+import com.hsbc.gbgcf.crp.constants.PolicyConstants;
+import com.hsbc.gbgcf.crp.enums.Status;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * End-to-end load test of QuestionnaireController. Starts the application on a local port against an
+ * in-memory H2 database and a local stand-in for the ODS and DSP token services, then has virtual users
+ * drive complete journeys (form-data, save N times, submit, retake) over HTTP. Reports p50/p95/p99 and
+ * throughput per endpoint, and how saturated the database connection pool was during the run.
+ *
+ * Every virtual user owns a disjoint set of customers, so a customer only ever has one journey in flight.
+ * A journey stops after a failed form-data call, and only retakes after a successful submit.
+ *
+ * Run with: mvn test -Pbenchmark -Dtest=QuestionnaireJourneyLoadBenchmark
+ * Load can be changed with -Dbenchmark.concurrency, -Dbenchmark.customers, -Dbenchmark.historyPerCustomer,
+ * -Dbenchmark.savesPerJourney, -Dbenchmark.thinkTimeMillis, -Dbenchmark.warmup and -Dbenchmark.duration (ISO-8601).
+ * The stand-in is tuned per route (ready, save, submit, retake, token) with -Dbenchmark.ods.ROUTE.latency
+ * (fixed:MILLIS, uniform:MIN:MAX or lognormal:MEDIAN:P99) and -Dbenchmark.ods.ROUTE.errorRate (0 to 1).
+ * Application properties can be overridden with -Dbenchmark.app.PROPERTY, e.g.
+ * -Dbenchmark.app.spring.datasource.hikari.maximum-pool-size=20.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class QuestionnaireJourneyLoadBenchmark {
+
+    private static final String JOURNEY_TYPE = "PAW-TCPOP-LE";
+    private static final String APP_PROPERTY_PREFIX = "benchmark.app.";
+    private static final Map<String, String> DEFAULT_LATENCIES = new LinkedHashMap<>();
+    private static final List<String> ENDPOINTS = List.of("form-data", "saveODSData", "submitODSData", "retake");
+
+    static {
+        DEFAULT_LATENCIES.put("ready", "lognormal:30:250");
+        DEFAULT_LATENCIES.put("save", "lognormal:20:150");
+        DEFAULT_LATENCIES.put("submit", "lognormal:80:600");
+        DEFAULT_LATENCIES.put("retake", "lognormal:20:150");
+        DEFAULT_LATENCIES.put("token", "fixed:10");
+    }
+
+    private final int concurrency = Integer.getInteger("benchmark.concurrency", 32);
+    private final int customers = Integer.getInteger("benchmark.customers", 5_000);
+    private final int historyPerCustomer = Integer.getInteger("benchmark.historyPerCustomer", 10);
+    private final int savesPerJourney = Integer.getInteger("benchmark.savesPerJourney", 5);
+    private final long thinkTimeMillis = Long.getLong("benchmark.thinkTimeMillis", 0);
+    private final Duration warmup = Duration.parse(System.getProperty("benchmark.warmup", "PT10S"));
+    private final Duration duration = Duration.parse(System.getProperty("benchmark.duration", "PT60S"));
+
+    private final String form = FormPayloads.form(20, 25, 42);
+
+    @DisplayName("Questionnaire journeys end to end against a local ODS stand-in")
+    @Test
+    void driveJourneys() throws Exception {
+        try (StubOdsServer ods = new StubOdsServer(form, 0, 0)) {
+            System.out.printf("%-8s %-20s %10s%n", "route", "latency", "errors");
+            for (Map.Entry<String, String> route : DEFAULT_LATENCIES.entrySet()) {
+                String latency = System.getProperty("benchmark.ods." + route.getKey() + ".latency", route.getValue());
+                double errorRate = Double.parseDouble(System.getProperty("benchmark.ods." + route.getKey() + ".errorRate", "0.005"));
+                ods.setRoute(route.getKey(), LatencyDistribution.parse(latency), errorRate);
+                System.out.printf("%-8s %-20s %9.1f%%%n", route.getKey(), latency, errorRate * 100);
+            }
+
+            ConfigurableApplicationContext context = start(ods);
+            try {
+                seed(context.getBean(JdbcTemplate.class));
+                String baseUrl = "http://127.0.0.1:" + ((WebServerApplicationContext) context).getWebServer().getPort() + "/api/v1";
+                HttpClient http = HttpClient.newBuilder()
+                        .version(HttpClient.Version.HTTP_1_1)
+                        .connectTimeout(Duration.ofSeconds(5))
+                        .build();
+
+                drive(http, baseUrl, warmup, null);
+                PoolSampler pool = new PoolSampler(context.getBean(DataSource.class).unwrap(HikariDataSource.class));
+                Run run = drive(http, baseUrl, duration, pool);
+                report(run, pool, context.getBean(MeterRegistry.class), ods);
+            } finally {
+                context.close();
+            }
+        }
+    }
+
+    private ConfigurableApplicationContext start(StubOdsServer ods) {
+        List<String> arguments = new ArrayList<>(List.of(
+                "--server.port=0",
+                "--spring.datasource.url=jdbc:h2:mem:journeyload;DB_CLOSE_DELAY=-1",
+                "--spring.jpa.show-sql=false",
+                "--form.compression.backfill.enabled=false",
+                "--logging.level.com.hsbc.gbgcf.crp=WARN",
+                "--ods.service.url=" + ods.url(),
+                "--dsp.token.service.url=" + ods.url()));
+        for (String name : System.getProperties().stringPropertyNames()) {
+            if (name.startsWith(APP_PROPERTY_PREFIX)) {
+                arguments.add("--" + name.substring(APP_PROPERTY_PREFIX.length()) + "=" + System.getProperty(name));
+            }
+        }
+        return new SpringApplicationBuilder(PositionsCollectorApplication.class)
+                .run(arguments.toArray(new String[0]));
+    }
+
+    /**
+     * Inserts the customers and their closed tracking history; journeys create their own open rows
+     */
+    private void seed(JdbcTemplate jdbcTemplate) {
+        long start = System.nanoTime();
+        jdbcTemplate.update("INSERT INTO policies (policy_code, policy_name) VALUES (?, ?)",
+                PolicyConstants.POLICY_CODE_TCPOP, PolicyConstants.POLICY_CODE_TCPOP);
+        List<Object[]> legalEntities = new ArrayList<>(customers);
+        for (int i = 1; i <= customers; i++) {
+            legalEntities.add(new Object[]{"LE" + i, "Legal entity " + i});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO legal_entities (entity_id, entity_name) VALUES (?, ?)", legalEntities);
+        jdbcTemplate.update("INSERT INTO legal_entity_policies (legal_entity_id, policy_id) SELECT le.id, p.id FROM legal_entities le CROSS JOIN policies p");
+
+        Random random = new Random(42);
+        LocalDateTime baseDate = LocalDateTime.now().minusYears(2);
+        List<Object[]> history = new ArrayList<>();
+        for (int i = 1; i <= customers; i++) {
+            for (int h = 0; h < historyPerCustomer; h++) {
+                history.add(new Object[]{i, Status.DECISION_RECEIVED.name(), JOURNEY_TYPE,
+                        Timestamp.valueOf(baseDate.plusMinutes(random.nextInt(500_000)))});
+            }
+            if (history.size() >= 10_000) {
+                insertHistory(jdbcTemplate, history);
+            }
+        }
+        insertHistory(jdbcTemplate, history);
+        System.out.printf("Seeded %,d customers with %,d history rows each in %,d ms%n",
+                customers, historyPerCustomer, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private static void insertHistory(JdbcTemplate jdbcTemplate, List<Object[]> history) {
+        jdbcTemplate.batchUpdate("INSERT INTO policy_tracking (id, legal_entity_id, policy_id, status, journey_type, created_date) "
+                + "VALUES (NEXT VALUE FOR policy_tracking_seq, ?, 1, ?, ?, ?)", history);
+        history.clear();
+    }
+
+    private Run drive(HttpClient http, String baseUrl, Duration length, PoolSampler pool) throws Exception {
+        ExecutorService users = Executors.newFixedThreadPool(concurrency);
+        ScheduledExecutorService sampler = Executors.newSingleThreadScheduledExecutor();
+        if (pool != null) {
+            sampler.scheduleAtFixedRate(pool::sample, 0, 50, TimeUnit.MILLISECONDS);
+        }
+        long start = System.nanoTime();
+        long deadline = start + length.toNanos();
+        try {
+            List<Future<VirtualUser>> running = new ArrayList<>();
+            for (int u = 0; u < concurrency; u++) {
+                VirtualUser user = new VirtualUser(u, http, baseUrl);
+                running.add(users.submit(() -> user.run(deadline)));
+            }
+            Run run = new Run();
+            for (Future<VirtualUser> user : running) {
+                run.add(user.get());
+            }
+            run.seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+            return run;
+        } finally {
+            users.shutdownNow();
+            sampler.shutdownNow();
+        }
+    }
+
+    private void report(Run run, PoolSampler pool, MeterRegistry meterRegistry, StubOdsServer ods) {
+        System.out.printf("%nconcurrency %d, %,d journeys in %.1f s (%.1f journeys/s), %,d stand-in requests%n",
+                concurrency, run.journeys, run.seconds, run.journeys / run.seconds, ods.requestCount());
+        System.out.printf("%-14s %10s %8s %10s %10s %10s %10s%n", "endpoint", "requests", "errors", "req/s", "p50 ms", "p95 ms", "p99 ms");
+        for (String endpoint : ENDPOINTS) {
+            Latencies latencies = run.latencies.get(endpoint);
+            long[] sorted = latencies.sorted();
+            System.out.printf("%-14s %,10d %8d %10.1f %10.1f %10.1f %10.1f%n", endpoint, sorted.length, run.errors.get(endpoint).get(),
+                    sorted.length / run.seconds, percentile(sorted, 50) / 1000.0, percentile(sorted, 95) / 1000.0, percentile(sorted, 99) / 1000.0);
+        }
+
+        System.out.printf("%nconnection pool (max %d): active mean %.1f, max %d; %.1f%% of samples fully busy; "
+                        + "waiting threads max %d, %.1f%% of samples with waiters%n",
+                pool.maximumPoolSize, pool.meanActive(), pool.maxActive, pool.percentOfSamples(pool.fullyBusy),
+                pool.maxWaiting, pool.percentOfSamples(pool.withWaiters));
+        Timer acquire = meterRegistry.find("hikaricp.connections.acquire").timer();
+        if (acquire != null) {
+            System.out.printf("connection acquire: mean %.3f ms, max %.3f ms over %,d checkouts%n",
+                    acquire.mean(TimeUnit.MILLISECONDS), acquire.max(TimeUnit.MILLISECONDS), acquire.count());
+        }
+    }
+
+    private static long percentile(long[] sorted, int percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile / 100.0 * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+    }
+
+    /**
+     * One simulated user walking its own customers through complete journeys
+     */
+    private final class VirtualUser {
+
+        private final int id;
+        private final HttpClient http;
+        private final String baseUrl;
+        private final Map<String, Latencies> latencies = new LinkedHashMap<>();
+        private final Map<String, AtomicLong> errors = new LinkedHashMap<>();
+        private long journeys;
+
+        VirtualUser(int id, HttpClient http, String baseUrl) {
+            this.id = id;
+            this.http = http;
+            this.baseUrl = baseUrl;
+            for (String endpoint : ENDPOINTS) {
+                latencies.put(endpoint, new Latencies());
+                errors.put(endpoint, new AtomicLong());
+            }
+        }
+
+        VirtualUser run(long deadline) throws InterruptedException {
+            int customersPerUser = Math.max(1, customers / concurrency);
+            int next = 0;
+            while (System.nanoTime() < deadline) {
+                String customer = "LE" + (id + 1 + concurrency * (next++ % customersPerUser));
+                String query = "?journeyType=" + JOURNEY_TYPE + "&customerIdentificationId=" + customer;
+                if (call("form-data", HttpRequest.newBuilder(URI.create(baseUrl + "/form-data/" + JOURNEY_TYPE + "/" + customer)).GET()) != 200) {
+                    continue;
+                }
+                for (int s = 0; s < savesPerJourney && System.nanoTime() < deadline; s++) {
+                    call("saveODSData", HttpRequest.newBuilder(URI.create(baseUrl + "/saveODSData" + query))
+                            .PUT(HttpRequest.BodyPublishers.ofString(form)));
+                }
+                // submitODSData binds its customer from the "customer IdentificationId" request parameter
+                int submitted = call("submitODSData", HttpRequest.newBuilder(URI.create(baseUrl + "/submitODSData?journeyType="
+                                + JOURNEY_TYPE + "&customer%20IdentificationId=" + customer))
+                        .POST(HttpRequest.BodyPublishers.ofString(form)));
+                if (submitted == 200) {
+                    call("retake", HttpRequest.newBuilder(URI.create(baseUrl + "/retake" + query)).POST(HttpRequest.BodyPublishers.noBody()));
+                }
+                journeys++;
+            }
+            return this;
+        }
+
+        private int call(String endpoint, HttpRequest.Builder request) throws InterruptedException {
+            if (thinkTimeMillis > 0) {
+                Thread.sleep(thinkTimeMillis);
+            }
+            long start = System.nanoTime();
+            int status;
+            try {
+                status = http.send(request.header("Content-Type", "application/json").timeout(Duration.ofSeconds(60)).build(),
+                        HttpResponse.BodyHandlers.discarding()).statusCode();
+            } catch (IOException e) {
+                status = -1;
+            }
+            latencies.get(endpoint).add((System.nanoTime() - start) / 1_000);
+            if (status < 200 || status >= 400) {
+                errors.get(endpoint).incrementAndGet();
+            }
+            return status;
+        }
+    }
+
+    /**
+     * Samples the Hikari pool while the load runs
+     */
+    private static final class PoolSampler {
+
+        private final HikariDataSource dataSource;
+        private final int maximumPoolSize;
+        private long samples;
+        private long activeTotal;
+        private int maxActive;
+        private int maxWaiting;
+        private long fullyBusy;
+        private long withWaiters;
+
+        PoolSampler(HikariDataSource dataSource) {
+            this.dataSource = dataSource;
+            this.maximumPoolSize = dataSource.getMaximumPoolSize();
+        }
+
+        synchronized void sample() {
+            HikariPoolMXBean pool = dataSource.getHikariPoolMXBean();
+            if (pool == null) {
+                return;
+            }
+            int active = pool.getActiveConnections();
+            int waiting = pool.getThreadsAwaitingConnection();
+            samples++;
+            activeTotal += active;
+            maxActive = Math.max(maxActive, active);
+            maxWaiting = Math.max(maxWaiting, waiting);
+            if (active >= maximumPoolSize) {
+                fullyBusy++;
+            }
+            if (waiting > 0) {
+                withWaiters++;
+            }
+        }
+
+        synchronized double meanActive() {
+            return samples == 0 ? 0 : (double) activeTotal / samples;
+        }
+
+        synchronized double percentOfSamples(long count) {
+            return samples == 0 ? 0 : 100.0 * count / samples;
+        }
+    }
+
+    private static final class Run {
+
+        private final Map<String, Latencies> latencies = new LinkedHashMap<>();
+        private final Map<String, AtomicLong> errors = new LinkedHashMap<>();
+        private long journeys;
+        private double seconds;
+
+        Run() {
+            for (String endpoint : ENDPOINTS) {
+                latencies.put(endpoint, new Latencies());
+                errors.put(endpoint, new AtomicLong());
+            }
+        }
+
+        void add(VirtualUser user) {
+            for (String endpoint : ENDPOINTS) {
+                latencies.get(endpoint).addAll(user.latencies.get(endpoint));
+                errors.get(endpoint).addAndGet(user.errors.get(endpoint).get());
+            }
+            journeys += user.journeys;
+        }
+    }
+
+    /**
+     * Growable array of latencies in microseconds, so recording does not box
+     */
+    private static final class Latencies {
+
+        private long[] values = new long[1024];
+        private int size;
+
+        void add(long micros) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = micros;
+        }
+
+        void addAll(Latencies other) {
+            for (int i = 0; i < other.size; i++) {
+                add(other.values[i]);
+            }
+        }
+
+        long[] sorted() {
+            long[] sorted = Arrays.copyOf(values, size);
+            Arrays.sort(sorted);
+            return sorted;
+        }
+    }
+}
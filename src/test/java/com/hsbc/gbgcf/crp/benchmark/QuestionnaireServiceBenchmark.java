@@ -0,0 +1,292 @@
+package com.hsbc.gbgcf.crp.benchmark;
+
+import com.hsbc.gbgcf.crp.PositionsCollectorApplication;
+import com.hsbc.gbgcf.crp.client.ODSClient;
+import com.hsbc.gbgcf.crp.client.ResilientODSClient;
+import com.hsbc.gbgcf.crp.constants.PolicyConstants;
+import com.hsbc.gbgcf.crp.entity.LegalEntity;
+import com.hsbc.gbgcf.crp.entity.Policy;
+import com.hsbc.gbgcf.crp.entity.PolicyTracking;
+import com.hsbc.gbgcf.crp.enums.Status;
+import com.hsbc.gbgcf.crp.repository.LegalEntitiesRepository;
+import com.hsbc.gbgcf.crp.repository.PolicyTrackingRepository;
+import com.hsbc.gbgcf.crp.service.QuestionnaireService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * JMH benchmark of the QuestionnaireServiceImpl hot paths against the real Spring context, an in-memory H2
+ * database seeded through the Flyway schema and an in-process ODS stub with configurable latency behind
+ * ResilientODSClient. Reports throughput, sampled latency percentiles and allocation rate (gc profiler).
+ *
+ * Customers are split in three groups so every operation keeps its data in a steady state: one group has a
+ * single open tracking row (getODSdata, saveOdsData, viewForm), one has its open row reopened before every
+ * submit, and one only has submitted history rows (retakeQuestionnaire).
+ *
+ * Run with: mvn test -Pbenchmark -Dtest=QuestionnaireServiceBenchmark
+ * Volumes and load can be changed with -Dbenchmark.customers, -Dbenchmark.historyPerCustomer,
+ * -Dbenchmark.odsLatencyMillis, -Dbenchmark.threads and -Dbenchmark.include (a regex of benchmark names).
+ * Results are also written to target/jmh-questionnaire-service.json for comparison between runs.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+public class QuestionnaireServiceBenchmark {
+
+    private static final String JOURNEY_TYPE = "PAW-TCPOP-LE";
+    private static final int ACTIVE = 0;
+    private static final int SUBMITTING = 1;
+    private static final int RETAKING = 2;
+    private static final int FORM_VARIANTS = 16;
+
+    @Param("3000")
+    public int customers;
+
+    @Param("20")
+    public int historyPerCustomer;
+
+    @Param("5")
+    public int odsLatencyMillis;
+
+    private ConfigurableApplicationContext context;
+    private QuestionnaireService questionnaireService;
+    private JdbcTemplate jdbcTemplate;
+    private final Map<String, Long> openTrackingIds = new HashMap<>();
+    private final AtomicInteger submitCursor = new AtomicInteger();
+    private String[] forms;
+
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    @DisplayName("Questionnaire service hot paths under JMH")
+    @Test
+    void runBenchmarks() throws Exception {
+        ChainedOptionsBuilder options = new OptionsBuilder()
+                .include(QuestionnaireServiceBenchmark.class.getSimpleName() + "." + System.getProperty("benchmark.include", ".*"))
+                .addProfiler(GCProfiler.class)
+                .resultFormat(ResultFormatType.JSON)
+                .result("target/jmh-questionnaire-service.json")
+                .threads(Integer.getInteger("benchmark.threads", 4));
+        for (String param : List.of("customers", "historyPerCustomer", "odsLatencyMillis")) {
+            String value = System.getProperty("benchmark." + param);
+            if (value != null) {
+                options.param(param, value);
+            }
+        }
+        new Runner(options.build()).run();
+    }
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = new SpringApplicationBuilder(PositionsCollectorApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=jdbc:h2:mem:questionnairebenchmark;DB_CLOSE_DELAY=-1",
+                        "--spring.jpa.show-sql=false",
+                        "--form.compression.backfill.enabled=false",
+                        "--logging.level.com.hsbc.gbgcf.crp=WARN");
+        questionnaireService = context.getBean(QuestionnaireService.class);
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+        forms = new String[FORM_VARIANTS];
+        for (int i = 0; i < FORM_VARIANTS; i++) {
+            forms[i] = FormPayloads.form(20, 25, i);
+        }
+        ResilientODSClient resilientODSClient = AopTestUtils.getUltimateTargetObject(context.getBean(ResilientODSClient.class));
+        ReflectionTestUtils.setField(resilientODSClient, "odsFeignClient",
+                new LatentOdsClient(forms[0], TimeUnit.MILLISECONDS.toNanos(odsLatencyMillis)));
+        seed();
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    @Benchmark
+    public ResponseEntity<String> getODSdata() {
+        return questionnaireService.getODSdata(JOURNEY_TYPE, customer(ACTIVE));
+    }
+
+    @Benchmark
+    public ResponseEntity<String> saveOdsData() {
+        String customer = customer(ACTIVE);
+        return questionnaireService.saveOdsData(JOURNEY_TYPE, customer, forms[customer.hashCode() & (FORM_VARIANTS - 1)]);
+    }
+
+    @Benchmark
+    public ResponseEntity<String> submitOdsData(SubmittingCustomer submitting) {
+        return questionnaireService.submitOdsData(JOURNEY_TYPE, submitting.customer, forms[submitting.form]);
+    }
+
+    @Benchmark
+    public ResponseEntity<String> viewForm() {
+        return questionnaireService.viewForm(JOURNEY_TYPE, customer(ACTIVE));
+    }
+
+    @Benchmark
+    public ResponseEntity<String> retakeQuestionnaire() {
+        return questionnaireService.retakeQuestionnaire(JOURNEY_TYPE, customer(RETAKING));
+    }
+
+    /**
+     * Hands each submit a customer whose open tracking row has just been reopened, outside the measured time
+     */
+    @State(Scope.Thread)
+    public static class SubmittingCustomer {
+
+        String customer;
+        int form;
+
+        @Setup(Level.Invocation)
+        public void reopen(QuestionnaireServiceBenchmark benchmark) {
+            int next = Math.floorMod(benchmark.submitCursor.getAndIncrement(), benchmark.customers / 3);
+            customer = "LE" + (3 * next + SUBMITTING + 1);
+            form = next & (FORM_VARIANTS - 1);
+            benchmark.jdbcTemplate.update("UPDATE policy_tracking SET status = ? WHERE id = ?",
+                    Status.IN_PROGRESS.name(), benchmark.openTrackingIds.get(customer));
+        }
+    }
+
+    private String customer(int group) {
+        return "LE" + (3 * ThreadLocalRandom.current().nextInt(customers / 3) + group + 1);
+    }
+
+    /**
+     * Inserts the customers with plain JDBC, then their tracking rows through the repository so the form
+     * content is compressed and tagged as in production.
+     */
+    private void seed() {
+        long start = System.nanoTime();
+        jdbcTemplate.update("INSERT INTO policies (policy_code, policy_name) VALUES (?, ?)",
+                PolicyConstants.POLICY_CODE_TCPOP, PolicyConstants.POLICY_CODE_TCPOP);
+        List<Object[]> legalEntities = new ArrayList<>(customers);
+        List<String> entityIds = new ArrayList<>(customers);
+        for (int i = 1; i <= customers; i++) {
+            legalEntities.add(new Object[]{"LE" + i, "Legal entity " + i});
+            entityIds.add("LE" + i);
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO legal_entities (entity_id, entity_name) VALUES (?, ?)", legalEntities);
+        jdbcTemplate.update("INSERT INTO legal_entity_policies (legal_entity_id, policy_id) SELECT le.id, p.id FROM legal_entities le CROSS JOIN policies p");
+
+        PolicyTrackingRepository policyTrackingRepository = context.getBean(PolicyTrackingRepository.class);
+        List<PolicyTracking> batch = new ArrayList<>();
+        for (LegalEntity legalEntity : context.getBean(LegalEntitiesRepository.class).findAllByEntityIdIn(entityIds)) {
+            int customer = Integer.parseInt(legalEntity.getEntityId().substring(2));
+            Policy policy = legalEntity.getPolicyByCode(PolicyConstants.POLICY_CODE_TCPOP);
+            for (int h = 0; h < historyPerCustomer; h++) {
+                batch.add(tracking(legalEntity, policy, h % 2 == 0 ? Status.SUBMITTED : Status.DECISION_RECEIVED, customer + h));
+            }
+            if ((customer - 1) % 3 != RETAKING) {
+                batch.add(tracking(legalEntity, policy, Status.IN_PROGRESS, customer));
+            }
+            if (batch.size() >= 5_000) {
+                policyTrackingRepository.saveAll(batch);
+                batch.clear();
+            }
+        }
+        policyTrackingRepository.saveAll(batch);
+
+        jdbcTemplate.query("SELECT le.entity_id, pt.id FROM policy_tracking pt JOIN legal_entities le ON le.id = pt.legal_entity_id WHERE pt.status = ?",
+                resultSet -> {
+                    openTrackingIds.put(resultSet.getString(1), resultSet.getLong(2));
+                }, Status.IN_PROGRESS.name());
+        System.out.printf("Seeded %,d customers with %,d history rows each in %,d ms%n",
+                customers, historyPerCustomer, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private PolicyTracking tracking(LegalEntity legalEntity, Policy policy, Status status, int form) {
+        PolicyTracking policyTracking = new PolicyTracking();
+        policyTracking.setLegalEntity(legalEntity);
+        policyTracking.setPolicy(policy);
+        policyTracking.setStatus(status);
+        policyTracking.setJourneyType(JOURNEY_TYPE);
+        policyTracking.setFormDataContent(forms[form & (FORM_VARIANTS - 1)]);
+        return policyTracking;
+    }
+
+    /**
+     * In-process ODS stub: every call parks for the configured latency and answers like the real service
+     */
+    static final class LatentOdsClient implements ODSClient {
+
+        private final String form;
+        private final long latencyNanos;
+
+        LatentOdsClient(String form, long latencyNanos) {
+            this.form = form;
+            this.latencyNanos = latencyNanos;
+        }
+
+        @Override
+        public String executeFormReadyRequest(String journeyType, String customerIdentificationId) {
+            return respond(form);
+        }
+
+        @Override
+        public String executeSaveRequest(String journeyType, String customerIdentificationId, String formData) {
+            return respond(formData);
+        }
+
+        @Override
+        public String executeSubmitRequest(String journeyType, String customerIdentificationId, String formData) {
+            return respond(formData);
+        }
+
+        @Override
+        public String executeResetRequest(String journeyType, String customerIdentificationId) {
+            return respond(form);
+        }
+
+        @Override
+        public String executeRetakeRequest(String journeyType, String customerIdentificationId) {
+            return respond(PolicyConstants.SUCCESS);
+        }
+
+        @Override
+        public String executeQuestionnaireErrorRequest(String journeyType, String customerIdentificationId) {
+            return respond("{}");
+        }
+
+        private String respond(String response) {
+            if (latencyNanos > 0) {
+                LockSupport.parkNanos(latencyNanos);
+            }
+            return response;
+        }
+    }
+}
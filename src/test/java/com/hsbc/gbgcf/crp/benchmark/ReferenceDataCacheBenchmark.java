@@ -0,0 +1,207 @@
+package com.hsbc.gbgcf.crp.benchmark;
+
+import com.hsbc.gbgcf.crp.PositionsCollectorApplication;
+import com.hsbc.gbgcf.crp.client.ResilientODSClient;
+import com.hsbc.gbgcf.crp.constants.PolicyConstants;
+import com.hsbc.gbgcf.crp.entity.LegalEntity;
+import com.hsbc.gbgcf.crp.entity.Policy;
+import com.hsbc.gbgcf.crp.entity.PolicyTracking;
+import com.hsbc.gbgcf.crp.enums.Status;
+import com.hsbc.gbgcf.crp.repository.LegalEntitiesRepository;
+import com.hsbc.gbgcf.crp.repository.PolicyTrackingRepository;
+import com.hsbc.gbgcf.crp.service.QuestionnaireService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * JMH benchmark of the SQL statements the policy reference data costs per request, with the Hibernate
+ * second-level cache on and off, against the real Spring context and an in-memory H2 database
+ * seeded through the Flyway schema. ODS is replaced by an in-process stub answering without latency.
+ *
+ * After every iteration the number of JDBC statements prepared per call, read from the Hibernate statistics,
+ * is printed next to the throughput. Statements are counted across all threads, so the benchmark runs on one
+ * thread unless -Dbenchmark.threads says otherwise.
+ *
+ * Run with: mvn test -Pbenchmark -Dtest=ReferenceDataCacheBenchmark
+ * Volumes can be changed with -Dbenchmark.customers and -Dbenchmark.historyPerCustomer, and the benchmarks
+ * run with -Dbenchmark.include (a regex of benchmark names).
+ * Results are also written to target/jmh-reference-data-cache.json for comparison between runs.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+public class ReferenceDataCacheBenchmark {
+
+    private static final String JOURNEY_TYPE = "PAW-TCPOP-LE";
+
+    @Param({"false", "true"})
+    public boolean secondLevelCache;
+
+    @Param("1000")
+    public int customers;
+
+    @Param("10")
+    public int historyPerCustomer;
+
+    private ConfigurableApplicationContext context;
+    private QuestionnaireService questionnaireService;
+    private PolicyTrackingRepository policyTrackingRepository;
+    private Statistics statistics;
+    private final AtomicLong calls = new AtomicLong();
+
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    @DisplayName("SQL statements per request with and without the second-level cache under JMH")
+    @Test
+    void runBenchmarks() throws Exception {
+        ChainedOptionsBuilder options = new OptionsBuilder()
+                .include(ReferenceDataCacheBenchmark.class.getSimpleName() + "." + System.getProperty("benchmark.include", ".*"))
+                .resultFormat(ResultFormatType.JSON)
+                .result("target/jmh-reference-data-cache.json")
+                .threads(Integer.getInteger("benchmark.threads", 1));
+        for (String param : List.of("customers", "historyPerCustomer")) {
+            String value = System.getProperty("benchmark." + param);
+            if (value != null) {
+                options.param(param, value);
+            }
+        }
+        new Runner(options.build()).run();
+    }
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = new SpringApplicationBuilder(PositionsCollectorApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=jdbc:h2:mem:referencedatabenchmark;DB_CLOSE_DELAY=-1",
+                        "--spring.jpa.show-sql=false",
+                        "--spring.jpa.properties.hibernate.generate_statistics=true",
+                        "--spring.jpa.properties.hibernate.cache.use_second_level_cache=" + secondLevelCache,
+                        "--form.compression.backfill.enabled=false",
+                        "--logging.level.com.hsbc.gbgcf.crp=WARN",
+                        "--logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener=WARN");
+        questionnaireService = context.getBean(QuestionnaireService.class);
+        policyTrackingRepository = context.getBean(PolicyTrackingRepository.class);
+        statistics = context.getBean(EntityManagerFactory.class).unwrap(SessionFactory.class).getStatistics();
+        ResilientODSClient resilientODSClient = AopTestUtils.getUltimateTargetObject(context.getBean(ResilientODSClient.class));
+        ReflectionTestUtils.setField(resilientODSClient, "odsFeignClient",
+                new QuestionnaireServiceBenchmark.LatentOdsClient(FormPayloads.form(5, 5, 0), 0));
+        seed();
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    @Setup(Level.Iteration)
+    public void resetStatistics() {
+        statistics.clear();
+        calls.set(0);
+    }
+
+    @TearDown(Level.Iteration)
+    public void reportStatements(BenchmarkParams params) {
+        long statements = statistics.getPrepareStatementCount();
+        System.out.printf("%n%s (second-level cache %s): %.2f SQL statements per call, %d L2 hits, %d L2 misses%n",
+                params.getBenchmark(), secondLevelCache ? "on" : "off", (double) statements / Math.max(1, calls.get()),
+                statistics.getSecondLevelCacheHitCount(), statistics.getSecondLevelCacheMissCount());
+    }
+
+    @Benchmark
+    public ResponseEntity<String> getODSdata() {
+        calls.incrementAndGet();
+        return questionnaireService.getODSdata(JOURNEY_TYPE, customer());
+    }
+
+    @Benchmark
+    public ResponseEntity<String> viewForm() {
+        calls.incrementAndGet();
+        return questionnaireService.viewForm(JOURNEY_TYPE, customer());
+    }
+
+    @Benchmark
+    public List<PolicyTracking> trackingHistory() {
+        calls.incrementAndGet();
+        return policyTrackingRepository.findByLEAndJourneyTypeLatest(customer(), JOURNEY_TYPE);
+    }
+
+    private String customer() {
+        return "LE" + (ThreadLocalRandom.current().nextInt(customers) + 1);
+    }
+
+    /**
+     * Inserts the customers with plain JDBC, then their tracking rows through the repository so the form
+     * content is compressed and tagged as in production. Every customer keeps one open row.
+     */
+    private void seed() {
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        jdbcTemplate.update("INSERT INTO policies (policy_code, policy_name) VALUES (?, ?)",
+                PolicyConstants.POLICY_CODE_TCPOP, PolicyConstants.POLICY_CODE_TCPOP);
+        List<Object[]> legalEntities = new ArrayList<>(customers);
+        List<String> entityIds = new ArrayList<>(customers);
+        for (int i = 1; i <= customers; i++) {
+            legalEntities.add(new Object[]{"LE" + i, "Legal entity " + i});
+            entityIds.add("LE" + i);
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO legal_entities (entity_id, entity_name) VALUES (?, ?)", legalEntities);
+        jdbcTemplate.update("INSERT INTO legal_entity_policies (legal_entity_id, policy_id) SELECT le.id, p.id FROM legal_entities le CROSS JOIN policies p");
+
+        String form = FormPayloads.form(5, 5, 1);
+        List<PolicyTracking> batch = new ArrayList<>();
+        for (LegalEntity legalEntity : context.getBean(LegalEntitiesRepository.class).findAllByEntityIdIn(entityIds)) {
+            Policy policy = legalEntity.getPolicyByCode(PolicyConstants.POLICY_CODE_TCPOP);
+            for (int h = 0; h < historyPerCustomer; h++) {
+                batch.add(tracking(legalEntity, policy, h % 2 == 0 ? Status.SUBMITTED : Status.DECISION_RECEIVED, form));
+            }
+            batch.add(tracking(legalEntity, policy, Status.IN_PROGRESS, form));
+        }
+        policyTrackingRepository.saveAll(batch);
+    }
+
+    private static PolicyTracking tracking(LegalEntity legalEntity, Policy policy, Status status, String form) {
+        PolicyTracking policyTracking = new PolicyTracking();
+        policyTracking.setLegalEntity(legalEntity);
+        policyTracking.setPolicy(policy);
+        policyTracking.setStatus(status);
+        policyTracking.setJourneyType(JOURNEY_TYPE);
+        policyTracking.setFormDataContent(form);
+        return policyTracking;
+    }
+}
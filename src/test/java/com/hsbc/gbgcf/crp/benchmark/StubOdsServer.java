@@ -0,0 +1,125 @@
+package com.hsbc.gbgcf.crp.benchmark;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Minimal local stand-in for the ODS and DSP token services. Every /form/* endpoint answers with the same form
+ * payload, and /token with an opaque token, after a configurable latency, so transport, resilience and load
+ * benchmarks can run without the real services. Latency and error rate can be set per route, where the route
+ * is the operation segment of the path (ready, save, submit, reset, retake, error) or token.
+ */
+public final class StubOdsServer implements AutoCloseable {
+
+    public static final String TOKEN = "stub-dsp-token";
+
+    private static final byte[] UNAVAILABLE = "{\"error\":\"stubbed failure\"}".getBytes(StandardCharsets.UTF_8);
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final byte[] payload;
+    private final AtomicLong requests = new AtomicLong();
+    private final Map<String, Route> routes = new ConcurrentHashMap<>();
+    private volatile LatencyDistribution latency;
+
+    /**
+     * Starts the stub on a free local port
+     *
+     * @param payload the body returned by every endpoint
+     * @param latencyMillis the minimum time each response takes
+     * @param jitterMillis the maximum extra random time added to each response
+     * @throws IOException if the server cannot bind
+     */
+    public StubOdsServer(String payload, long latencyMillis, long jitterMillis) throws IOException {
+        this.payload = payload.getBytes(StandardCharsets.UTF_8);
+        this.latency = LatencyDistribution.uniform(latencyMillis, latencyMillis + jitterMillis);
+        this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 1024);
+        this.executor = Executors.newCachedThreadPool();
+        server.setExecutor(executor);
+        server.createContext("/form", this::handle);
+        server.createContext("/token", this::handle);
+        server.start();
+    }
+
+    public String url() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    public long requestCount() {
+        return requests.get();
+    }
+
+    /**
+     * Changes the response latency of subsequent requests, e.g. to simulate ODS slowing down
+     */
+    public void setLatency(long latencyMillis, long jitterMillis) {
+        this.latency = LatencyDistribution.uniform(latencyMillis, latencyMillis + jitterMillis);
+    }
+
+    /**
+     * Overrides the latency of one route and makes a share of its requests fail with 503
+     *
+     * @param route the operation, e.g. ready or token
+     * @param latency the response time of the route
+     * @param errorRate the share of requests, between 0 and 1, answered with 503
+     */
+    public void setRoute(String route, LatencyDistribution latency, double errorRate) {
+        routes.put(route, new Route(latency, errorRate));
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        requests.incrementAndGet();
+        try (InputStream body = exchange.getRequestBody()) {
+            body.readAllBytes();
+        }
+        String route = route(exchange.getRequestURI().getPath());
+        Route behaviour = routes.get(route);
+        try {
+            Thread.sleep(Math.max(0, (behaviour != null ? behaviour.latency() : latency).nextMillis()));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (behaviour != null && behaviour.errorRate() > 0 && ThreadLocalRandom.current().nextDouble() < behaviour.errorRate()) {
+            respond(exchange, 503, "application/json", UNAVAILABLE);
+        } else if ("token".equals(route)) {
+            respond(exchange, 200, "text/plain", TOKEN.getBytes(StandardCharsets.UTF_8));
+        } else {
+            respond(exchange, 200, "application/json", payload);
+        }
+    }
+
+    private static String route(String path) {
+        String[] segments = path.split("/");
+        if (segments.length > 2 && "form".equals(segments[1])) {
+            return segments[2];
+        }
+        return segments.length > 1 ? segments[1] : "";
+    }
+
+    private static void respond(HttpExchange exchange, int status, String contentType, byte[] body) throws IOException {
+        exchange.getResponseHeaders().add("Content-Type", contentType);
+        exchange.sendResponseHeaders(status, body.length);
+        exchange.getResponseBody().write(body);
+        exchange.close();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private record Route(LatencyDistribution latency, double errorRate) {
+    }
+}
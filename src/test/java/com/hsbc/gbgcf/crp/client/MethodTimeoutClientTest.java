@@ -0,0 +1,66 @@
+package com.hsbc.gbgcf.crp.client;
+
+import com.hsbc.gbgcf.crp.config.FeignTransportProperties.MethodTimeout;
+import feign.MethodMetadata;
+import feign.Request;
+import feign.Response;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.openfeign.support.SpringMvcContract;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MethodTimeoutClientTest {
+
+    private static final Request.Options DEFAULT_OPTIONS = new Request.Options(2, TimeUnit.SECONDS, 10, TimeUnit.SECONDS, true);
+
+    @DisplayName("Should apply the configured read timeout to the matching client method")
+    @Test
+    void shouldApplyMethodReadTimeout() throws Exception {
+        // Arrange
+        AtomicReference<Request.Options> used = new AtomicReference<>();
+        MethodTimeout submitTimeout = new MethodTimeout();
+        submitTimeout.setReadTimeout(Duration.ofSeconds(30));
+        MethodTimeoutClient client = new MethodTimeoutClient((request, options) -> {
+            used.set(options);
+            return Response.builder().status(200).request(request).build();
+        }, Map.of("executeSubmitRequest", submitTimeout));
+
+        // Act
+        client.execute(requestFor("executeSubmitRequest"), DEFAULT_OPTIONS);
+
+        // Assert
+        assertThat(used.get().readTimeoutMillis()).isEqualTo(30_000);
+        assertThat(used.get().connectTimeoutMillis()).isEqualTo(2_000);
+        assertThat(used.get().isFollowRedirects()).isTrue();
+    }
+
+    @DisplayName("Should keep the client timeouts for methods without an override")
+    @Test
+    void shouldKeepDefaultsForOtherMethods() throws Exception {
+        // Arrange
+        MethodTimeout submitTimeout = new MethodTimeout();
+        submitTimeout.setReadTimeout(Duration.ofSeconds(30));
+        MethodTimeoutClient client = new MethodTimeoutClient((request, options) -> null, Map.of("executeSubmitRequest", submitTimeout));
+
+        // Act
+        Request.Options options = client.optionsFor(requestFor("executeFormReadyRequest"), DEFAULT_OPTIONS);
+
+        // Assert
+        assertThat(options).isSameAs(DEFAULT_OPTIONS);
+    }
+
+    private static Request requestFor(String methodName) {
+        MethodMetadata metadata = new SpringMvcContract().parseAndValidateMetadata(ODSClient.class).stream()
+                .filter(candidate -> candidate.method().getName().equals(methodName))
+                .findFirst()
+                .orElseThrow();
+        return Request.create(Request.HttpMethod.GET, "http://localhost/form", Map.of(), null, StandardCharsets.UTF_8, metadata.template());
+    }
+}
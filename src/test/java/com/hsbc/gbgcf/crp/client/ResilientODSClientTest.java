@@ -0,0 +1,246 @@
+package com.hsbc.gbgcf.crp.client;
+
+import com.hsbc.gbgcf.crp.config.OdsResilienceConfig;
+import feign.FeignException;
+import feign.Request;
+import feign.Response;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.common.retry.configuration.RetryConfigCustomizer;
+import io.github.resilience4j.retry.RetryConfig;
+import io.github.resilience4j.retry.RetryRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ResilientODSClientTest {
+
+    private static final String JOURNEY_TYPE = "PAW-TCPOP-LE";
+    private static final String CUSTOMER_ID = "LE12345";
+    private static final String FORM_DATA = "{\"formData\":\"test\"}";
+
+    @Mock
+    private ODSClient odsFeignClient;
+
+    @InjectMocks
+    private ResilientODSClient resilientODSClient;
+
+    private static final int WARMUP_CALLS = 100;
+
+    private final CircuitBreakerRegistry circuitBreakerRegistry = CircuitBreakerRegistry.ofDefaults();
+
+    private final ExecutorService hedgeExecutor = Executors.newCachedThreadPool();
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private void useRetryBudget(RetryBudget retryBudget) {
+        RetryConfigCustomizer customizer = new OdsResilienceConfig().formReadyRetryCustomizer(retryBudget, Duration.ofMillis(1));
+        RetryConfig.Builder<Object> retryConfig = RetryConfig.custom().maxAttempts(3);
+        customizer.customize(retryConfig);
+        ReflectionTestUtils.setField(resilientODSClient, "circuitBreakerRegistry", circuitBreakerRegistry);
+        ReflectionTestUtils.setField(resilientODSClient, "bulkheadRegistry", BulkheadRegistry.ofDefaults());
+        ReflectionTestUtils.setField(resilientODSClient, "retryRegistry", RetryRegistry.of(retryConfig.build()));
+        ReflectionTestUtils.setField(resilientODSClient, "odsRetryBudget", retryBudget);
+        ReflectionTestUtils.setField(resilientODSClient, "meterRegistry", meterRegistry);
+    }
+
+    @DisplayName("Should retry a form ready request that failed with a server error")
+    @Test
+    void shouldRetryTransientFormReadyFailure() {
+        // Arrange
+        useRetryBudget(new RetryBudget(0.1, 10));
+        when(odsFeignClient.executeFormReadyRequest(JOURNEY_TYPE, CUSTOMER_ID))
+                .thenThrow(serverError())
+                .thenReturn(FORM_DATA);
+
+        // Act
+        String form = resilientODSClient.executeFormReadyRequest(JOURNEY_TYPE, CUSTOMER_ID);
+
+        // Assert
+        assertThat(form).isEqualTo(FORM_DATA);
+        verify(odsFeignClient, times(2)).executeFormReadyRequest(JOURNEY_TYPE, CUSTOMER_ID);
+    }
+
+    @DisplayName("Should not retry a submit request, which is not idempotent")
+    @Test
+    void shouldNotRetrySubmit() {
+        // Arrange
+        useRetryBudget(new RetryBudget(0.1, 10));
+        when(odsFeignClient.executeSubmitRequest(JOURNEY_TYPE, CUSTOMER_ID, FORM_DATA)).thenThrow(serverError());
+
+        // Act & Assert
+        assertThatThrownBy(() -> resilientODSClient.executeSubmitRequest(JOURNEY_TYPE, CUSTOMER_ID, FORM_DATA))
+                .isInstanceOf(FeignException.FeignServerException.class);
+        verify(odsFeignClient, times(1)).executeSubmitRequest(JOURNEY_TYPE, CUSTOMER_ID, FORM_DATA);
+    }
+
+    @DisplayName("Should stop retrying once the retry budget is spent")
+    @Test
+    void shouldStopRetryingWhenBudgetIsSpent() {
+        // Arrange
+        useRetryBudget(new RetryBudget(0, 1));
+        when(odsFeignClient.executeFormReadyRequest(JOURNEY_TYPE, CUSTOMER_ID)).thenThrow(serverError());
+
+        // Act & Assert
+        assertThatThrownBy(() -> resilientODSClient.executeFormReadyRequest(JOURNEY_TYPE, CUSTOMER_ID))
+                .isInstanceOf(FeignException.FeignServerException.class);
+        verify(odsFeignClient, times(2)).executeFormReadyRequest(JOURNEY_TYPE, CUSTOMER_ID);
+    }
+
+    @DisplayName("Should not spend a retry when the last allowed attempt fails")
+    @Test
+    void shouldNotSpendBudgetOnLastAttempt() {
+        // Arrange
+        RetryBudget retryBudget = new RetryBudget(0, 3);
+        useRetryBudget(retryBudget);
+        when(odsFeignClient.executeFormReadyRequest(JOURNEY_TYPE, CUSTOMER_ID)).thenThrow(serverError());
+
+        // Act & Assert
+        assertThatThrownBy(() -> resilientODSClient.executeFormReadyRequest(JOURNEY_TYPE, CUSTOMER_ID))
+                .isInstanceOf(FeignException.FeignServerException.class);
+        verify(odsFeignClient, times(3)).executeFormReadyRequest(JOURNEY_TYPE, CUSTOMER_ID);
+        assertThat(retryBudget.getAvailableRetries()).isEqualTo(1.0);
+    }
+
+    @DisplayName("Should reject calls without reaching ODS while the endpoint's circuit is open")
+    @Test
+    void shouldRejectCallsWhenCircuitIsOpen() {
+        // Arrange
+        useRetryBudget(new RetryBudget(0.1, 10));
+        circuitBreakerRegistry.circuitBreaker("executeFormReadyRequest").transitionToOpenState();
+
+        // Act & Assert
+        assertThatThrownBy(() -> resilientODSClient.executeFormReadyRequest(JOURNEY_TYPE, CUSTOMER_ID))
+                .isInstanceOf(CallNotPermittedException.class);
+        verify(odsFeignClient, never()).executeFormReadyRequest(JOURNEY_TYPE, CUSTOMER_ID);
+        assertThat(circuitBreakerRegistry.circuitBreaker("executeSaveRequest").getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @DisplayName("Should time ODS calls by method, journey, outcome and status")
+    @Test
+    void shouldTimeCallsByMethodJourneyAndOutcome() {
+        // Arrange
+        useRetryBudget(new RetryBudget(0.1, 10));
+        when(odsFeignClient.executeFormReadyRequest(JOURNEY_TYPE, CUSTOMER_ID)).thenReturn(FORM_DATA);
+        when(odsFeignClient.executeSubmitRequest(JOURNEY_TYPE, CUSTOMER_ID, FORM_DATA)).thenThrow(serverError());
+        circuitBreakerRegistry.circuitBreaker("executeRetakeRequest").transitionToOpenState();
+
+        // Act
+        resilientODSClient.executeFormReadyRequest(JOURNEY_TYPE, CUSTOMER_ID);
+        assertThatThrownBy(() -> resilientODSClient.executeSubmitRequest(JOURNEY_TYPE, CUSTOMER_ID, FORM_DATA))
+                .isInstanceOf(FeignException.FeignServerException.class);
+        assertThatThrownBy(() -> resilientODSClient.executeRetakeRequest(JOURNEY_TYPE, CUSTOMER_ID))
+                .isInstanceOf(CallNotPermittedException.class);
+
+        // Assert
+        assertThat(meterRegistry.get("ods.client.requests")
+                .tags("method", "executeFormReadyRequest", "journey", "LE", "outcome", "SUCCESS", "status", "2xx").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("ods.client.requests")
+                .tags("method", "executeSubmitRequest", "journey", "LE", "outcome", "SERVER_ERROR", "status", "503").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("ods.client.requests")
+                .tags("method", "executeRetakeRequest", "journey", "LE", "outcome", "CIRCUIT_OPEN", "status", "NONE").timer().count()).isEqualTo(1);
+    }
+
+    @DisplayName("Should answer from a hedged request when the first call is slower than the recent p95")
+    @Test
+    void shouldAnswerFromHedgeWhenFirstCallIsSlow() {
+        // Arrange
+        useRetryBudget(new RetryBudget(0.1, 10));
+        enableHedging(new RetryBudget(1, 5));
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch slowCallRelease = new CountDownLatch(1);
+        when(odsFeignClient.executeFormReadyRequest(JOURNEY_TYPE, CUSTOMER_ID)).thenAnswer(invocation -> {
+            if (calls.incrementAndGet() == WARMUP_CALLS + 1) {
+                slowCallRelease.await(5, TimeUnit.SECONDS);
+                return "slow";
+            }
+            return FORM_DATA;
+        });
+        warmUp();
+
+        // Act
+        long start = System.nanoTime();
+        String form = resilientODSClient.executeFormReadyRequest(JOURNEY_TYPE, CUSTOMER_ID);
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        slowCallRelease.countDown();
+
+        // Assert
+        assertThat(form).isEqualTo(FORM_DATA);
+        assertThat(elapsedMillis).isLessThan(2_000);
+        assertThat(calls).hasValue(WARMUP_CALLS + 2);
+    }
+
+    @DisplayName("Should wait for the first call when the hedge budget is spent")
+    @Test
+    void shouldNotHedgeWhenBudgetIsSpent() {
+        // Arrange
+        useRetryBudget(new RetryBudget(0.1, 10));
+        enableHedging(new RetryBudget(0, 0));
+        AtomicInteger calls = new AtomicInteger();
+        when(odsFeignClient.executeFormReadyRequest(JOURNEY_TYPE, CUSTOMER_ID)).thenAnswer(invocation -> {
+            if (calls.incrementAndGet() == WARMUP_CALLS + 1) {
+                Thread.sleep(200);
+                return "slow";
+            }
+            return FORM_DATA;
+        });
+        warmUp();
+
+        // Act
+        String form = resilientODSClient.executeFormReadyRequest(JOURNEY_TYPE, CUSTOMER_ID);
+
+        // Assert
+        assertThat(form).isEqualTo("slow");
+        assertThat(calls).hasValue(WARMUP_CALLS + 1);
+    }
+
+    private void enableHedging(RetryBudget hedgeBudget) {
+        ReflectionTestUtils.setField(resilientODSClient, "odsHedgeBudget", hedgeBudget);
+        ReflectionTestUtils.setField(resilientODSClient, "odsHedgeExecutor", hedgeExecutor);
+        resilientODSClient.hedgingEnabled = true;
+        resilientODSClient.hedgePercentile = 95;
+        resilientODSClient.hedgeMinDelay = Duration.ofMillis(20);
+    }
+
+    private void warmUp() {
+        for (int i = 0; i < WARMUP_CALLS; i++) {
+            resilientODSClient.executeFormReadyRequest(JOURNEY_TYPE, CUSTOMER_ID);
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        hedgeExecutor.shutdownNow();
+    }
+
+    private static FeignException serverError() {
+        Request request = Request.create(Request.HttpMethod.GET, "http://ods/form", Map.of(), null, StandardCharsets.UTF_8, null);
+        return FeignException.errorStatus("ODSClient#executeFormReadyRequest(String,String)",
+                Response.builder().status(503).reason("Service Unavailable").request(request).headers(Map.of()).build());
+    }
+}
@@ -1,5 +1,12 @@
 package com.hsbc.gbgcf.crp.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hsbc.gbgcf.crp.constants.PolicyConstants;
+import com.hsbc.gbgcf.crp.dto.FormDataResult;
+import com.hsbc.gbgcf.crp.dto.SubmissionStatus;
+import com.hsbc.gbgcf.crp.enums.OutboxStatus;
+import com.hsbc.gbgcf.crp.repository.FormContentStreamRepository.OutputStreamOpener;
+import com.hsbc.gbgcf.crp.service.IdempotencyService;
 import com.hsbc.gbgcf.crp.service.QuestionnaireService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -7,13 +14,27 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -33,6 +54,15 @@ public class QuestionnaireControllerIntegrationTest {
     @MockBean
     private QuestionnaireService questionnaireService;
 
+    @MockBean
+    private IdempotencyService idempotencyService;
+
+    @Autowired
+    private QuestionnaireController questionnaireController;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
     private static final String TEST_JOURNEY_TYPE = "testJourney";
     private static final String TEST_CUSTOMER_ID = "12345";
     private static final String TEST_FORM_DATA = "{\"key\":\"value\"}";
@@ -121,6 +151,86 @@ public class QuestionnaireControllerIntegrationTest {
                 .andExpect(status().isInternalServerError());
     }
 
+    @Test
+    public void shouldSubmitODSDataThroughIdempotencyServiceWhenKeyIsSent() throws Exception {
+        when(idempotencyService.execute(eq("submitODSData"), eq("key-1"), anyString(), any()))
+                .thenAnswer(invocation -> invocation.<Supplier<ResponseEntity<String>>>getArgument(3).get());
+
+        mockMvc.perform(post("/api/v1/submitODSData")
+                .param("journeyType", TEST_JOURNEY_TYPE)
+                .param("customer IdentificationId", TEST_CUSTOMER_ID)
+                .header(PolicyConstants.IDEMPOTENCY_KEY_HEADER, "key-1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(TEST_FORM_DATA))
+                .andExpect(status().isOk())
+                .andExpect(content().string(TEST_RESPONSE));
+
+        verify(idempotencyService).execute(eq("submitODSData"), eq("key-1"),
+                eq(TEST_JOURNEY_TYPE + "\n" + TEST_CUSTOMER_ID + "\n" + TEST_FORM_DATA), any());
+        verify(questionnaireService).submitOdsData(TEST_JOURNEY_TYPE, TEST_CUSTOMER_ID, TEST_FORM_DATA);
+    }
+
+    @Test
+    public void shouldReturnReplayedResponseWithoutCallingServiceForDuplicateSave() throws Exception {
+        when(idempotencyService.execute(eq("saveODSData"), eq("key-2"), anyString(), any()))
+                .thenReturn(ResponseEntity.ok().header(PolicyConstants.IDEMPOTENT_REPLAYED_HEADER, "true").body(TEST_RESPONSE));
+
+        mockMvc.perform(put("/api/v1/saveODSData")
+                .param("journeyType", TEST_JOURNEY_TYPE)
+                .param("customerIdentificationId", TEST_CUSTOMER_ID)
+                .header(PolicyConstants.IDEMPOTENCY_KEY_HEADER, "key-2")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(TEST_FORM_DATA))
+                .andExpect(status().isOk())
+                .andExpect(header().string(PolicyConstants.IDEMPOTENT_REPLAYED_HEADER, "true"))
+                .andExpect(content().string(TEST_RESPONSE));
+
+        verify(questionnaireService, never()).saveOdsData(anyString(), anyString(), anyString());
+    }
+
+    @Test
+    public void shouldReturnFlushedSaveWhenSaveIsPending() throws Exception {
+        when(questionnaireService.flushOdsData(TEST_JOURNEY_TYPE, TEST_CUSTOMER_ID)).thenReturn(ResponseEntity.ok(TEST_RESPONSE));
+
+        mockMvc.perform(post("/api/v1/saveODSData/flush")
+                .param("journeyType", TEST_JOURNEY_TYPE)
+                .param("customerIdentificationId", TEST_CUSTOMER_ID))
+                .andExpect(status().isOk())
+                .andExpect(content().string(TEST_RESPONSE));
+    }
+
+    @Test
+    public void shouldReturnNoContentWhenNoSaveIsPending() throws Exception {
+        when(questionnaireService.flushOdsData(TEST_JOURNEY_TYPE, TEST_CUSTOMER_ID)).thenReturn(ResponseEntity.noContent().build());
+
+        mockMvc.perform(post("/api/v1/saveODSData/flush")
+                .param("journeyType", TEST_JOURNEY_TYPE)
+                .param("customerIdentificationId", TEST_CUSTOMER_ID))
+                .andExpect(status().isNoContent());
+    }
+
+    @Test
+    public void shouldReturnSubmissionStatusWhenSubmissionExists() throws Exception {
+        LocalDateTime created = LocalDateTime.of(2024, 1, 1, 10, 0);
+        when(questionnaireService.findSubmission(7L)).thenReturn(Optional.of(
+                new SubmissionStatus(7L, TEST_JOURNEY_TYPE, TEST_CUSTOMER_ID, OutboxStatus.PENDING, 1, "timeout", created, created)));
+
+        mockMvc.perform(get("/api/v1/submissions/{submissionId}", 7L))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.submissionId").value(7))
+                .andExpect(jsonPath("$.status").value("PENDING"))
+                .andExpect(jsonPath("$.attempts").value(1))
+                .andExpect(jsonPath("$.lastError").value("timeout"));
+    }
+
+    @Test
+    public void shouldReturnNotFoundWhenSubmissionIsUnknown() throws Exception {
+        when(questionnaireService.findSubmission(8L)).thenReturn(Optional.empty());
+
+        mockMvc.perform(get("/api/v1/submissions/{submissionId}", 8L))
+                .andExpect(status().isNotFound());
+    }
+
     @Test
     public void shouldReturnFormDataWhenViewFormRequestIsValid() throws Exception {
         mockMvc.perform(get("/api/v1/viewForm")
@@ -142,6 +252,122 @@ public class QuestionnaireControllerIntegrationTest {
                 .andExpect(status().isInternalServerError());
     }
 
+    @Test
+    public void shouldReturnNotModifiedWhenViewFormEtagMatches() throws Exception {
+        when(questionnaireService.findFormEtag(TEST_JOURNEY_TYPE, TEST_CUSTOMER_ID)).thenReturn(Optional.of("abc123"));
+
+        mockMvc.perform(get("/api/v1/viewForm")
+                .param("journeyType", TEST_JOURNEY_TYPE)
+                .param("customerIdentificationId", TEST_CUSTOMER_ID)
+                .header(HttpHeaders.IF_NONE_MATCH, "\"abc123\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"abc123\""))
+                .andExpect(content().string(""));
+
+        verify(questionnaireService, never()).viewForm(anyString(), anyString());
+    }
+
+    @Test
+    public void shouldReturnFormWithEtagWhenViewFormEtagDiffers() throws Exception {
+        when(questionnaireService.findFormEtag(TEST_JOURNEY_TYPE, TEST_CUSTOMER_ID)).thenReturn(Optional.of("abc123"));
+
+        mockMvc.perform(get("/api/v1/viewForm")
+                .param("journeyType", TEST_JOURNEY_TYPE)
+                .param("customerIdentificationId", TEST_CUSTOMER_ID)
+                .header(HttpHeaders.IF_NONE_MATCH, "\"stale\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"abc123\""))
+                .andExpect(content().string(TEST_RESPONSE));
+    }
+
+    @Test
+    public void shouldStreamBulkFormDataAsNdjson() throws Exception {
+        FormDataResult first = new FormDataResult(TEST_JOURNEY_TYPE, "LE1", 200, TEST_RESPONSE);
+        FormDataResult second = new FormDataResult(TEST_JOURNEY_TYPE, "LE2", 404, PolicyConstants.FORM_ALREADY_SUBMITTED);
+        doAnswer(invocation -> {
+            Consumer<FormDataResult> results = invocation.getArgument(1);
+            results.accept(first);
+            results.accept(second);
+            return null;
+        }).when(questionnaireService).getODSdataBulk(anyList(), any());
+
+        MvcResult result = mockMvc.perform(post("/api/v1/form-data/bulk")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[{\"journeyType\":\"" + TEST_JOURNEY_TYPE + "\",\"customerIdentificationId\":\"LE1\"},"
+                        + "{\"journeyType\":\"" + TEST_JOURNEY_TYPE + "\",\"customerIdentificationId\":\"LE2\"}]"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string(objectMapper.writeValueAsString(first) + "\n" + objectMapper.writeValueAsString(second) + "\n"));
+    }
+
+    @Test
+    public void shouldRejectBulkFormDataOverTheSizeLimit() throws Exception {
+        ReflectionTestUtils.setField(questionnaireController, "bulkMaxSize", 1);
+        try {
+            mockMvc.perform(post("/api/v1/form-data/bulk")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content("[{\"journeyType\":\"a\",\"customerIdentificationId\":\"1\"},{\"journeyType\":\"a\",\"customerIdentificationId\":\"2\"}]"))
+                    .andExpect(status().isBadRequest());
+
+            verify(questionnaireService, never()).getODSdataBulk(anyList(), any());
+        } finally {
+            ReflectionTestUtils.setField(questionnaireController, "bulkMaxSize", 200);
+        }
+    }
+
+    @Test
+    public void shouldRejectBulkFormDataWithIncompleteEntries() throws Exception {
+        mockMvc.perform(post("/api/v1/form-data/bulk")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[{\"journeyType\":\"" + TEST_JOURNEY_TYPE + "\",\"customerIdentificationId\":\"LE1\"},{\"customerIdentificationId\":\"LE2\"},null]"))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string(PolicyConstants.INVALID_BULK_REQUEST));
+
+        verify(questionnaireService, never()).getODSdataBulk(anyList(), any());
+    }
+
+    @Test
+    public void shouldStreamFormDataWhenStreamingIsEnabled() throws Exception {
+        ReflectionTestUtils.setField(questionnaireController, "streamingEnabled", true);
+        try {
+            when(questionnaireService.streamViewForm(eq(TEST_JOURNEY_TYPE), eq(TEST_CUSTOMER_ID), any()))
+                    .thenAnswer(invocation -> {
+                        OutputStreamOpener output = invocation.getArgument(2);
+                        output.open().write(TEST_RESPONSE.getBytes(StandardCharsets.UTF_8));
+                        return true;
+                    });
+
+            mockMvc.perform(get("/api/v1/viewForm")
+                    .param("journeyType", TEST_JOURNEY_TYPE)
+                    .param("customerIdentificationId", TEST_CUSTOMER_ID))
+                    .andExpect(status().isOk())
+                    .andExpect(content().string(TEST_RESPONSE));
+        } finally {
+            ReflectionTestUtils.setField(questionnaireController, "streamingEnabled", false);
+        }
+    }
+
+    @Test
+    public void shouldReturnNotFoundWhenStreamingFindsNoForm() throws Exception {
+        ReflectionTestUtils.setField(questionnaireController, "streamingEnabled", true);
+        try {
+            when(questionnaireService.streamViewForm(eq(TEST_JOURNEY_TYPE), eq(TEST_CUSTOMER_ID), any()))
+                    .thenReturn(false);
+
+            mockMvc.perform(get("/api/v1/viewForm")
+                    .param("journeyType", TEST_JOURNEY_TYPE)
+                    .param("customerIdentificationId", TEST_CUSTOMER_ID))
+                    .andExpect(status().isNotFound())
+                    .andExpect(content().string(PolicyConstants.FORM_NOT_AVAILABLE));
+        } finally {
+            ReflectionTestUtils.setField(questionnaireController, "streamingEnabled", false);
+        }
+    }
+
     @Test
     public void shouldReturnInitialFormWhenResetRequestIsValid() throws Exception {
         mockMvc.perform(get("/api/v1/reset")
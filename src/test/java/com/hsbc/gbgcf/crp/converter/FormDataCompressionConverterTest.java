@@ -0,0 +1,80 @@
+package com.hsbc.gbgcf.crp.converter;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class FormDataCompressionConverterTest {
+
+    private static final String FORM_DATA = "{\"questions\":[" + "{\"id\":\"q1\",\"answer\":\"yes\",\"comment\":\"none\"},".repeat(50)
+            + "{\"id\":\"q51\",\"answer\":\"não\"}]}";
+
+    @DisplayName("Should round-trip form data with every codec")
+    @ParameterizedTest
+    @EnumSource(FormDataCodec.class)
+    void shouldRoundTripWithEveryCodec(FormDataCodec codec) {
+        // Arrange
+        FormDataCompressionConverter converter = new FormDataCompressionConverter(codec);
+
+        // Act
+        byte[] stored = converter.convertToDatabaseColumn(FORM_DATA);
+
+        // Assert
+        assertThat(stored[0]).isEqualTo(FormDataCompressionConverter.MAGIC_0);
+        assertThat(stored[1]).isEqualTo(FormDataCompressionConverter.MAGIC_1);
+        assertThat(stored[2]).isEqualTo(FormDataCompressionConverter.FORMAT_VERSION);
+        assertThat(stored[3]).isEqualTo(codec.getId());
+        assertThat(converter.convertToEntityAttribute(stored)).isEqualTo(FORM_DATA);
+    }
+
+    @DisplayName("Should compress repetitive questionnaire JSON")
+    @Test
+    void shouldCompressRepetitiveJson() {
+        // Arrange
+        FormDataCompressionConverter converter = new FormDataCompressionConverter(FormDataCodec.GZIP);
+
+        // Act
+        byte[] stored = converter.convertToDatabaseColumn(FORM_DATA);
+
+        // Assert
+        assertThat(stored.length).isLessThan(FORM_DATA.getBytes(StandardCharsets.UTF_8).length / 5);
+    }
+
+    @DisplayName("Should decode values written with another codec than the configured one")
+    @Test
+    void shouldDecodeUsingTheStoredCodec() {
+        // Arrange
+        byte[] stored = new FormDataCompressionConverter(FormDataCodec.DEFLATE_FAST).convertToDatabaseColumn(FORM_DATA);
+
+        // Act
+        String decoded = new FormDataCompressionConverter(FormDataCodec.GZIP).convertToEntityAttribute(stored);
+
+        // Assert
+        assertThat(decoded).isEqualTo(FORM_DATA);
+    }
+
+    @DisplayName("Should read values without a header as plain UTF-8 and pass nulls through")
+    @Test
+    void shouldReadHeaderlessValuesAsPlainText() {
+        FormDataCompressionConverter converter = new FormDataCompressionConverter();
+
+        assertThat(converter.convertToEntityAttribute("{}".getBytes(StandardCharsets.UTF_8))).isEqualTo("{}");
+        assertThat(converter.convertToEntityAttribute(null)).isNull();
+        assertThat(converter.convertToDatabaseColumn(null)).isNull();
+    }
+
+    @DisplayName("Should reject an unknown format version")
+    @Test
+    void shouldRejectUnknownFormatVersion() {
+        byte[] stored = {'F', 'D', 9, 1, 0};
+
+        assertThatThrownBy(() -> new FormDataCompressionConverter().convertToEntityAttribute(stored))
+                .isInstanceOf(IllegalStateException.class);
+    }
+}
@@ -0,0 +1,102 @@
+package com.hsbc.gbgcf.crp.entity;
+
+import com.hsbc.gbgcf.crp.constants.PolicyConstants;
+import com.hsbc.gbgcf.crp.util.EntityBuilders;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PolicyIndexTest {
+
+    @DisplayName("Should find a legal entity's policy by its code")
+    @Test
+    void shouldFindLegalEntityPolicyByCode() {
+        // Arrange
+        Policy tcpop = EntityBuilders.aPolicyWithCode(PolicyConstants.POLICY_CODE_TCPOP);
+        LegalEntity legalEntity = EntityBuilders.aLegalEntityWithPolicies(List.of(EntityBuilders.aPolicyWithCode("OTHER"), tcpop));
+
+        // Act
+        Policy policy = legalEntity.getPolicyByCode(PolicyConstants.POLICY_CODE_TCPOP);
+
+        // Assert
+        assertThat(policy).isSameAs(tcpop);
+    }
+
+    @DisplayName("Should return null when no policy has the code")
+    @Test
+    void shouldReturnNullForUnknownCode() {
+        // Arrange
+        Client client = EntityBuilders.aClientWithPolicies(List.of(EntityBuilders.aPolicyWithCode("OTHER")));
+
+        // Act & Assert
+        assertThat(client.getPolicyByCode(PolicyConstants.POLICY_CODE_TCPOP)).isNull();
+        assertThat(EntityBuilders.aClientWithPolicies(null).getPolicyByCode(PolicyConstants.POLICY_CODE_TCPOP)).isNull();
+    }
+
+    @DisplayName("Should keep the first policy when two share a code")
+    @Test
+    void shouldKeepFirstPolicyOfDuplicateCode() {
+        // Arrange
+        Policy first = EntityBuilders.aPolicyWithCode(PolicyConstants.POLICY_CODE_TCPOP);
+        Policy second = EntityBuilders.aPolicyWithCode(PolicyConstants.POLICY_CODE_TCPOP);
+        LegalEntity legalEntity = EntityBuilders.aLegalEntityWithPolicies(List.of(first, second));
+
+        // Act
+        Policy policy = legalEntity.getPolicyByCode(PolicyConstants.POLICY_CODE_TCPOP);
+
+        // Assert
+        assertThat(policy).isSameAs(first);
+    }
+
+    @DisplayName("Should rebuild the index when the policies are replaced")
+    @Test
+    void shouldRebuildIndexAfterSetPolicies() {
+        // Arrange
+        Policy original = EntityBuilders.aPolicyWithCode(PolicyConstants.POLICY_CODE_TCPOP);
+        Policy replacement = EntityBuilders.aPolicyWithCode(PolicyConstants.POLICY_CODE_TCPOP);
+        LegalEntity legalEntity = EntityBuilders.aLegalEntityWithPolicies(new ArrayList<>(List.of(original)));
+        Client client = EntityBuilders.aClientWithPolicies(List.of());
+        assertThat(legalEntity.getPolicyByCode(PolicyConstants.POLICY_CODE_TCPOP)).isSameAs(original);
+        assertThat(client.getPolicyByCode(PolicyConstants.POLICY_CODE_TCPOP)).isNull();
+
+        // Act
+        legalEntity.setPolicies(List.of(replacement));
+        client.setPolicies(List.of(replacement));
+
+        // Assert
+        assertThat(legalEntity.getPolicyByCode(PolicyConstants.POLICY_CODE_TCPOP)).isSameAs(replacement);
+        assertThat(client.getPolicyByCode(PolicyConstants.POLICY_CODE_TCPOP)).isSameAs(replacement);
+    }
+
+    @DisplayName("Should rebuild the index when policies are added to or removed from the loaded collection")
+    @Test
+    void shouldRebuildIndexAfterCollectionChanges() {
+        // Arrange
+        Policy tcpop = EntityBuilders.aPolicyWithCode(PolicyConstants.POLICY_CODE_TCPOP);
+        List<Policy> policies = new ArrayList<>(List.of(EntityBuilders.aPolicyWithCode("OTHER")));
+        LegalEntity legalEntity = EntityBuilders.aLegalEntityWithPolicies(policies);
+        assertThat(legalEntity.getPolicyByCode(PolicyConstants.POLICY_CODE_TCPOP)).isNull();
+
+        // Act & Assert
+        policies.add(tcpop);
+        assertThat(legalEntity.getPolicyByCode(PolicyConstants.POLICY_CODE_TCPOP)).isSameAs(tcpop);
+        policies.remove(tcpop);
+        assertThat(legalEntity.getPolicyByCode(PolicyConstants.POLICY_CODE_TCPOP)).isNull();
+    }
+
+    @DisplayName("Should reuse the index while the policy collection is unchanged")
+    @Test
+    void shouldReuseIndexForSameCollection() {
+        // Arrange
+        List<Policy> policies = List.of(EntityBuilders.aPolicyWithCode(PolicyConstants.POLICY_CODE_TCPOP));
+        PolicyIndex index = PolicyIndex.of(policies);
+
+        // Act & Assert
+        assertThat(index.isBuiltFrom(policies)).isTrue();
+        assertThat(index.isBuiltFrom(new ArrayList<>(policies))).isFalse();
+    }
+}
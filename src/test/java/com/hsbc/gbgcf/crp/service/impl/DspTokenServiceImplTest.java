@@ -0,0 +1,150 @@
+package com.hsbc.gbgcf.crp.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hsbc.gbgcf.crp.client.DspTokenClient;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class DspTokenServiceImplTest {
+
+    private static final Instant NOW = Instant.parse("2024-01-01T10:00:00Z");
+
+    @Mock
+    private DspTokenClient dspTokenClient;
+
+    @InjectMocks
+    private DspTokenServiceImpl dspTokenService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(dspTokenService, "objectMapper", new ObjectMapper());
+        dspTokenService.defaultTtl = Duration.ofMinutes(30);
+        dspTokenService.expiryMargin = Duration.ofSeconds(10);
+        setTime(NOW);
+    }
+
+    @DisplayName("Should serve the cached token without calling the token service again")
+    @Test
+    void shouldReuseCachedToken() {
+        // Arrange
+        when(dspTokenClient.getToken()).thenReturn("opaque-token");
+
+        // Act
+        String first = dspTokenService.getToken();
+        setTime(NOW.plus(Duration.ofMinutes(20)));
+        String second = dspTokenService.getToken();
+
+        // Assert
+        assertThat(first).isEqualTo("opaque-token");
+        assertThat(second).isEqualTo("opaque-token");
+        verify(dspTokenClient, times(1)).getToken();
+        assertThat(dspTokenService.getTokenAge()).contains(Duration.ofMinutes(20));
+    }
+
+    @DisplayName("Should fetch a new token once the cached one is within the expiry margin")
+    @Test
+    void shouldFetchNewTokenNearExpiry() {
+        // Arrange
+        when(dspTokenClient.getToken()).thenReturn("first-token", "second-token");
+        dspTokenService.getToken();
+        setTime(NOW.plus(Duration.ofMinutes(30)).minusSeconds(5));
+
+        // Act
+        String token = dspTokenService.getToken();
+
+        // Assert
+        assertThat(token).isEqualTo("second-token");
+        verify(dspTokenClient, times(2)).getToken();
+    }
+
+    @DisplayName("Should fetch a new token once the JWT expiry is within the expiry margin")
+    @Test
+    void shouldFetchNewTokenNearJwtExpiry() {
+        // Arrange
+        String jwt = jwtExpiringAt(NOW.plus(Duration.ofMinutes(5)));
+        when(dspTokenClient.getToken()).thenReturn(jwt, "second-token");
+        dspTokenService.getToken();
+
+        // Act
+        setTime(NOW.plus(Duration.ofMinutes(4)));
+        String beforeMargin = dspTokenService.getToken();
+        setTime(NOW.plus(Duration.ofMinutes(5)).minusSeconds(5));
+        String withinMargin = dspTokenService.getToken();
+
+        // Assert
+        assertThat(beforeMargin).isEqualTo(jwt);
+        assertThat(withinMargin).isEqualTo("second-token");
+        verify(dspTokenClient, times(2)).getToken();
+    }
+
+    @DisplayName("Should collapse concurrent callers into a single token fetch")
+    @Test
+    void shouldCollapseConcurrentFetches() throws Exception {
+        // Arrange
+        CountDownLatch fetchStarted = new CountDownLatch(1);
+        CountDownLatch releaseFetch = new CountDownLatch(1);
+        when(dspTokenClient.getToken()).thenAnswer(invocation -> {
+            fetchStarted.countDown();
+            releaseFetch.await(5, TimeUnit.SECONDS);
+            return "shared-token";
+        });
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<String>> callers = new ArrayList<>();
+            callers.add(executor.submit(dspTokenService::getToken));
+            assertThat(fetchStarted.await(5, TimeUnit.SECONDS)).isTrue();
+            for (int i = 0; i < 7; i++) {
+                callers.add(executor.submit(dspTokenService::getToken));
+            }
+
+            // Act
+            Thread.sleep(100);
+            releaseFetch.countDown();
+
+            // Assert
+            for (Future<String> caller : callers) {
+                assertThat(caller.get(5, TimeUnit.SECONDS)).isEqualTo("shared-token");
+            }
+            verify(dspTokenClient, times(1)).getToken();
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private void setTime(Instant instant) {
+        dspTokenService.clock = Clock.fixed(instant, ZoneOffset.UTC);
+    }
+
+    private static String jwtExpiringAt(Instant expiry) {
+        Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+        String header = encoder.encodeToString("{\"alg\":\"none\"}".getBytes(StandardCharsets.UTF_8));
+        String claims = encoder.encodeToString(("{\"exp\":" + expiry.getEpochSecond() + "}").getBytes(StandardCharsets.UTF_8));
+        return header + "." + claims + ".signature";
+    }
+}
@@ -0,0 +1,164 @@
+package com.hsbc.gbgcf.crp.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hsbc.gbgcf.crp.entity.FormVersion;
+import com.hsbc.gbgcf.crp.repository.FormVersionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class FormVersionServiceImplTest {
+
+    private static final String CUSTOMER_ID = "LE12345";
+    private static final String JOURNEY_TYPE = "PAW-TCPOP-LE";
+
+    @Mock
+    private FormVersionRepository formVersionRepository;
+
+    @InjectMocks
+    private FormVersionServiceImpl formVersionService;
+
+    private final List<FormVersion> stored = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(formVersionService, "objectMapper", new ObjectMapper());
+        ReflectionTestUtils.setField(formVersionService, "snapshotInterval", 3);
+        formVersionService.init();
+        lenient().when(formVersionRepository.save(any(FormVersion.class))).thenAnswer(invocation -> {
+            stored.add(invocation.getArgument(0));
+            return invocation.getArgument(0);
+        });
+        lenient().when(formVersionRepository.findFirstByCustomerIdAndJourneyTypeAndSnapshotTrueOrderByVersionDesc(CUSTOMER_ID, JOURNEY_TYPE))
+                .thenAnswer(invocation -> stored.stream().filter(FormVersion::isSnapshot)
+                        .reduce((first, second) -> second));
+        lenient().when(formVersionRepository.findFromVersion(eq(CUSTOMER_ID), eq(JOURNEY_TYPE), anyInt()))
+                .thenAnswer(invocation -> stored.stream()
+                        .filter(version -> version.getVersion() >= (Integer) invocation.getArgument(2))
+                        .toList());
+    }
+
+    @DisplayName("Should store the first version in full and later versions as patches")
+    @Test
+    void shouldStoreSnapshotThenPatches() {
+        // Act
+        formVersionService.append(CUSTOMER_ID, JOURNEY_TYPE, 1L, "{\"q1\":\"Yes\",\"q2\":\"No\"}");
+        formVersionService.append(CUSTOMER_ID, JOURNEY_TYPE, 1L, "{\"q1\":\"Yes\",\"q2\":\"Partially\"}");
+
+        // Assert
+        assertThat(stored).hasSize(2);
+        assertThat(stored.get(0).isSnapshot()).isTrue();
+        assertThat(stored.get(1).isSnapshot()).isFalse();
+        assertThat(stored.get(1).getVersion()).isEqualTo(2);
+        assertThat(stored.get(1).getContent()).contains("/q2").doesNotContain("q1");
+    }
+
+    @DisplayName("Should write a new snapshot every snapshot interval")
+    @Test
+    void shouldWriteSnapshotEveryInterval() {
+        // Act
+        for (int i = 1; i <= 4; i++) {
+            formVersionService.append(CUSTOMER_ID, JOURNEY_TYPE, 1L, "{\"answer\":" + i + "}");
+        }
+
+        // Assert
+        assertThat(stored).extracting(FormVersion::isSnapshot).containsExactly(true, false, false, true);
+    }
+
+    @DisplayName("Should not store unchanged content")
+    @Test
+    void shouldNotStoreUnchangedContent() {
+        // Arrange
+        formVersionService.append(CUSTOMER_ID, JOURNEY_TYPE, 1L, "{\"q1\":\"Yes\"}");
+
+        // Act
+        formVersionService.append(CUSTOMER_ID, JOURNEY_TYPE, 1L, "{ \"q1\" : \"Yes\" }");
+
+        // Assert
+        assertThat(stored).hasSize(1);
+    }
+
+    @DisplayName("Should reconstruct the latest version from the snapshot and its patches")
+    @Test
+    void shouldReconstructLatestVersion() {
+        // Arrange
+        formVersionService.append(CUSTOMER_ID, JOURNEY_TYPE, 1L, "{\"q1\":\"Yes\",\"q2\":\"No\"}");
+        formVersionService.append(CUSTOMER_ID, JOURNEY_TYPE, 1L, "{\"q1\":\"No\",\"q2\":\"No\"}");
+        formVersionService.append(CUSTOMER_ID, JOURNEY_TYPE, 2L, "{\"q1\":\"No\",\"q2\":\"No\",\"q3\":[1,2]}");
+
+        // Act
+        Optional<String> latest = formVersionService.findLatest(CUSTOMER_ID, JOURNEY_TYPE);
+
+        // Assert
+        assertThat(latest).contains("{\"q1\":\"No\",\"q2\":\"No\",\"q3\":[1,2]}");
+    }
+
+    @DisplayName("Should keep every decimal digit of the form")
+    @Test
+    void shouldKeepDecimalPrecision() {
+        // Arrange
+        String form = "{\"turnover\":12345678901234567890.123456789,\"ratio\":0.10}";
+
+        // Act
+        formVersionService.append(CUSTOMER_ID, JOURNEY_TYPE, 1L, form);
+
+        // Assert
+        assertThat(formVersionService.normalize(form)).isEqualTo(form);
+        assertThat(formVersionService.findLatest(CUSTOMER_ID, JOURNEY_TYPE)).contains(form);
+    }
+
+    @DisplayName("Should return the same bytes for a version rebuilt from patches as for the same form stored as a snapshot")
+    @Test
+    void shouldRebuildPatchedVersionWithSnapshotBytes() {
+        // Arrange
+        String form = "{ \"q1\" : \"Yes\", \"amount\" : 1.50, \"rate\" : 2.000 }";
+        formVersionService.append(CUSTOMER_ID, JOURNEY_TYPE, 1L, "{\"q1\":\"No\",\"amount\":1.5,\"rate\":2}");
+        formVersionService.append(CUSTOMER_ID, JOURNEY_TYPE, 1L, form);
+
+        // Act
+        Optional<String> latest = formVersionService.findLatest(CUSTOMER_ID, JOURNEY_TYPE);
+
+        // Assert
+        assertThat(stored).extracting(FormVersion::isSnapshot).containsExactly(true, false);
+        assertThat(latest).contains(formVersionService.normalize(form));
+        assertThat(latest).contains("{\"q1\":\"Yes\",\"amount\":1.50,\"rate\":2.000}");
+    }
+
+    @DisplayName("Should store non-JSON content as snapshots")
+    @Test
+    void shouldStoreNonJsonContentAsSnapshot() {
+        // Act
+        formVersionService.append(CUSTOMER_ID, JOURNEY_TYPE, 1L, "plain text form");
+        formVersionService.append(CUSTOMER_ID, JOURNEY_TYPE, 1L, "plain text form, edited");
+
+        // Assert
+        assertThat(stored).extracting(FormVersion::isSnapshot).containsExactly(true, true);
+        assertThat(formVersionService.findLatest(CUSTOMER_ID, JOURNEY_TYPE)).contains("plain text form, edited");
+    }
+
+    @DisplayName("Should return empty when no version is stored")
+    @Test
+    void shouldReturnEmptyWhenNoVersionStored() {
+        assertThat(formVersionService.findLatest(CUSTOMER_ID, JOURNEY_TYPE)).isEmpty();
+        verify(formVersionRepository, never()).findFromVersion(any(), any(), any());
+    }
+}
@@ -0,0 +1,316 @@
+package com.hsbc.gbgcf.crp.service.impl;
+
+import com.hsbc.gbgcf.crp.constants.PolicyConstants;
+import com.hsbc.gbgcf.crp.entity.IdempotencyRecord;
+import com.hsbc.gbgcf.crp.repository.IdempotencyRecordRepository;
+import com.hsbc.gbgcf.crp.util.FormEtag;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class IdempotencyServiceImplTest {
+
+    private static final Instant NOW = Instant.parse("2024-01-01T10:00:00Z");
+    private static final LocalDateTime LOCAL_NOW = LocalDateTime.ofInstant(NOW, ZoneOffset.UTC);
+    private static final String OPERATION = "submitODSData";
+    private static final String REQUEST = "PAW-TCPOP-LE\nLE123\n{\"formData\":\"test\"}";
+
+    @Mock
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+
+    @InjectMocks
+    private IdempotencyServiceImpl idempotencyService;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private final AtomicInteger calls = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        ReflectionTestUtils.setField(idempotencyService, "meterRegistry", meterRegistry);
+        idempotencyService.ttl = Duration.ofHours(24);
+        idempotencyService.pendingTimeout = Duration.ofMinutes(5);
+        idempotencyService.clock = Clock.fixed(NOW, ZoneOffset.UTC);
+        idempotencyService.init();
+    }
+
+    private Supplier<ResponseEntity<String>> call(ResponseEntity<String> response) {
+        return () -> {
+            calls.incrementAndGet();
+            return response;
+        };
+    }
+
+    @DisplayName("Should replay the stored response to a retry without running the call again")
+    @Test
+    void shouldReplayStoredResponse() {
+        // Arrange
+        idempotencyService.execute(OPERATION, "key-1", REQUEST, call(ResponseEntity.ok(PolicyConstants.SUCCESS)));
+
+        // Act
+        ResponseEntity<String> replayed = idempotencyService.execute(OPERATION, "key-1", REQUEST, call(ResponseEntity.ok("other")));
+
+        // Assert
+        assertThat(calls.get()).isEqualTo(1);
+        assertThat(replayed.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(replayed.getBody()).isEqualTo(PolicyConstants.SUCCESS);
+        assertThat(replayed.getHeaders().getFirst(PolicyConstants.IDEMPOTENT_REPLAYED_HEADER)).isEqualTo("true");
+        assertThat(meterRegistry.counter("idempotency.replays", "operation", OPERATION, "source", "memory").count()).isEqualTo(1);
+        InOrder order = inOrder(idempotencyRecordRepository);
+        order.verify(idempotencyRecordRepository).insertPending(OPERATION + ":key-1", FormEtag.of(REQUEST), LOCAL_NOW);
+        order.verify(idempotencyRecordRepository).complete(OPERATION + ":key-1", 200, PolicyConstants.SUCCESS);
+        verify(idempotencyRecordRepository, never()).save(any());
+    }
+
+    @DisplayName("Should scope keys by operation")
+    @Test
+    void shouldScopeKeysByOperation() {
+        // Arrange
+        idempotencyService.execute("saveODSData", "key-1", REQUEST, call(ResponseEntity.ok("{}")));
+
+        // Act
+        idempotencyService.execute(OPERATION, "key-1", REQUEST, call(ResponseEntity.ok(PolicyConstants.SUCCESS)));
+
+        // Assert
+        assertThat(calls.get()).isEqualTo(2);
+    }
+
+    @DisplayName("Should reject a key reused for a different request")
+    @Test
+    void shouldRejectKeyReusedForDifferentRequest() {
+        // Arrange
+        idempotencyService.execute(OPERATION, "key-1", REQUEST, call(ResponseEntity.ok(PolicyConstants.SUCCESS)));
+
+        // Act
+        ResponseEntity<String> response = idempotencyService.execute(OPERATION, "key-1", REQUEST + "changed", call(ResponseEntity.ok("other")));
+
+        // Assert
+        assertThat(calls.get()).isEqualTo(1);
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.UNPROCESSABLE_ENTITY);
+        assertThat(response.getBody()).isEqualTo(PolicyConstants.IDEMPOTENCY_KEY_REUSED);
+    }
+
+    @DisplayName("Should not store server errors so the retry runs the call again")
+    @Test
+    void shouldNotStoreServerErrors() {
+        // Arrange
+        idempotencyService.execute(OPERATION, "key-1", REQUEST, call(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(null)));
+
+        // Act
+        ResponseEntity<String> response = idempotencyService.execute(OPERATION, "key-1", REQUEST, call(ResponseEntity.ok(PolicyConstants.SUCCESS)));
+
+        // Assert
+        assertThat(calls.get()).isEqualTo(2);
+        assertThat(response.getBody()).isEqualTo(PolicyConstants.SUCCESS);
+        verify(idempotencyRecordRepository).deletePending(OPERATION + ":key-1");
+        verify(idempotencyRecordRepository).complete(OPERATION + ":key-1", 200, PolicyConstants.SUCCESS);
+    }
+
+    @DisplayName("Should replay a response stored in the database when it is not cached in process")
+    @Test
+    void shouldReplayResponseFromDatabase() {
+        // Arrange
+        IdempotencyRecord idempotencyRecord = new IdempotencyRecord();
+        idempotencyRecord.setIdempotencyKey(OPERATION + ":key-1");
+        idempotencyRecord.setRequestHash(FormEtag.of(REQUEST));
+        idempotencyRecord.setStatusCode(404);
+        idempotencyRecord.setResponseBody(PolicyConstants.FAILED);
+        idempotencyRecord.setCreatedDate(LocalDateTime.ofInstant(NOW, ZoneOffset.UTC).minusHours(1));
+        when(idempotencyRecordRepository.findById(OPERATION + ":key-1")).thenReturn(Optional.of(idempotencyRecord));
+
+        // Act
+        ResponseEntity<String> response = idempotencyService.execute(OPERATION, "key-1", REQUEST, call(ResponseEntity.ok(PolicyConstants.SUCCESS)));
+
+        // Assert
+        assertThat(calls.get()).isZero();
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+        assertThat(response.getBody()).isEqualTo(PolicyConstants.FAILED);
+        verify(idempotencyRecordRepository, never()).insertPending(any(), any(), any());
+    }
+
+    @DisplayName("Should ignore a stored response older than the TTL")
+    @Test
+    void shouldIgnoreExpiredResponseFromDatabase() {
+        // Arrange
+        IdempotencyRecord idempotencyRecord = new IdempotencyRecord();
+        idempotencyRecord.setRequestHash(FormEtag.of(REQUEST));
+        idempotencyRecord.setStatusCode(200);
+        idempotencyRecord.setResponseBody("stale");
+        idempotencyRecord.setCreatedDate(LocalDateTime.ofInstant(NOW, ZoneOffset.UTC).minusHours(25));
+        when(idempotencyRecordRepository.findById(OPERATION + ":key-1")).thenReturn(Optional.of(idempotencyRecord));
+
+        // Act
+        ResponseEntity<String> response = idempotencyService.execute(OPERATION, "key-1", REQUEST, call(ResponseEntity.ok(PolicyConstants.SUCCESS)));
+
+        // Assert
+        assertThat(calls.get()).isEqualTo(1);
+        assertThat(response.getBody()).isEqualTo(PolicyConstants.SUCCESS);
+    }
+
+    @DisplayName("Should reject a blank or oversized key")
+    @Test
+    void shouldRejectInvalidKey() {
+        // Act
+        ResponseEntity<String> blank = idempotencyService.execute(OPERATION, " ", REQUEST, call(ResponseEntity.ok(PolicyConstants.SUCCESS)));
+        ResponseEntity<String> oversized = idempotencyService.execute(OPERATION, "k".repeat(129), REQUEST, call(ResponseEntity.ok(PolicyConstants.SUCCESS)));
+
+        // Assert
+        assertThat(calls.get()).isZero();
+        assertThat(blank.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(oversized.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+    }
+
+    @DisplayName("Should let a duplicate arriving while the first request runs share its response")
+    @Test
+    void shouldShareResponseWithConcurrentDuplicate() throws Exception {
+        // Arrange
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Supplier<ResponseEntity<String>> slowCall = () -> {
+            calls.incrementAndGet();
+            started.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return ResponseEntity.ok(PolicyConstants.SUCCESS);
+        };
+
+        // Act
+        try {
+            Future<ResponseEntity<String>> first = executor.submit(() -> idempotencyService.execute(OPERATION, "key-1", REQUEST, slowCall));
+            assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+            Future<ResponseEntity<String>> duplicate = executor.submit(() -> idempotencyService.execute(OPERATION, "key-1", REQUEST, slowCall));
+            Thread.sleep(100);
+            release.countDown();
+
+            // Assert
+            assertThat(first.get(5, TimeUnit.SECONDS).getBody()).isEqualTo(PolicyConstants.SUCCESS);
+            assertThat(duplicate.get(5, TimeUnit.SECONDS).getBody()).isEqualTo(PolicyConstants.SUCCESS);
+            assertThat(calls.get()).isEqualTo(1);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private IdempotencyRecord aPendingRecord(LocalDateTime createdDate) {
+        IdempotencyRecord idempotencyRecord = new IdempotencyRecord();
+        idempotencyRecord.setIdempotencyKey(OPERATION + ":key-1");
+        idempotencyRecord.setRequestHash(FormEtag.of(REQUEST));
+        idempotencyRecord.setCreatedDate(createdDate);
+        return idempotencyRecord;
+    }
+
+    @DisplayName("Should answer 409 while another instance runs the request with the same key")
+    @Test
+    void shouldRejectDuplicateReservedElsewhere() {
+        // Arrange
+        when(idempotencyRecordRepository.findById(OPERATION + ":key-1")).thenReturn(Optional.of(aPendingRecord(LOCAL_NOW.minusSeconds(10))));
+
+        // Act
+        ResponseEntity<String> response = idempotencyService.execute(OPERATION, "key-1", REQUEST, call(ResponseEntity.ok(PolicyConstants.SUCCESS)));
+
+        // Assert
+        assertThat(calls.get()).isZero();
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.CONFLICT);
+        assertThat(response.getBody()).isEqualTo(PolicyConstants.IDEMPOTENCY_KEY_IN_PROGRESS);
+        verify(idempotencyRecordRepository, never()).insertPending(any(), any(), any());
+    }
+
+    @DisplayName("Should replay the response another instance stored while this one was reserving the key")
+    @Test
+    void shouldReplayResponseStoredDuringReservation() {
+        // Arrange
+        IdempotencyRecord completed = aPendingRecord(LOCAL_NOW.minusSeconds(10));
+        completed.setStatusCode(200);
+        completed.setResponseBody(PolicyConstants.SUCCESS);
+        when(idempotencyRecordRepository.findById(OPERATION + ":key-1")).thenReturn(Optional.empty(), Optional.of(completed));
+        when(idempotencyRecordRepository.insertPending(OPERATION + ":key-1", FormEtag.of(REQUEST), LOCAL_NOW))
+                .thenThrow(new DataIntegrityViolationException("duplicate key"));
+
+        // Act
+        ResponseEntity<String> response = idempotencyService.execute(OPERATION, "key-1", REQUEST, call(ResponseEntity.ok("other")));
+
+        // Assert
+        assertThat(calls.get()).isZero();
+        assertThat(response.getBody()).isEqualTo(PolicyConstants.SUCCESS);
+        assertThat(response.getHeaders().getFirst(PolicyConstants.IDEMPOTENT_REPLAYED_HEADER)).isEqualTo("true");
+        verify(idempotencyRecordRepository, never()).complete(any(), any(), any());
+    }
+
+    @DisplayName("Should take over a reservation older than the pending timeout")
+    @Test
+    void shouldTakeOverAbandonedReservation() {
+        // Arrange
+        when(idempotencyRecordRepository.findById(OPERATION + ":key-1")).thenReturn(Optional.of(aPendingRecord(LOCAL_NOW.minusMinutes(10))));
+        when(idempotencyRecordRepository.insertPending(OPERATION + ":key-1", FormEtag.of(REQUEST), LOCAL_NOW))
+                .thenThrow(new DataIntegrityViolationException("duplicate key"))
+                .thenReturn(1);
+
+        // Act
+        ResponseEntity<String> response = idempotencyService.execute(OPERATION, "key-1", REQUEST, call(ResponseEntity.ok(PolicyConstants.SUCCESS)));
+
+        // Assert
+        assertThat(calls.get()).isEqualTo(1);
+        assertThat(response.getBody()).isEqualTo(PolicyConstants.SUCCESS);
+        verify(idempotencyRecordRepository).deleteStale(OPERATION + ":key-1", LOCAL_NOW.minusHours(24), LOCAL_NOW.minusMinutes(5));
+        verify(idempotencyRecordRepository).complete(OPERATION + ":key-1", 200, PolicyConstants.SUCCESS);
+    }
+
+    @DisplayName("Should free the key when the call throws")
+    @Test
+    void shouldReleaseKeyWhenCallFails() {
+        // Act & Assert
+        assertThatThrownBy(() -> idempotencyService.execute(OPERATION, "key-1", REQUEST, () -> {
+            throw new IllegalStateException("ODS down");
+        })).isInstanceOf(IllegalStateException.class);
+        verify(idempotencyRecordRepository).deletePending(OPERATION + ":key-1");
+        verify(idempotencyRecordRepository, never()).complete(any(), any(), any());
+    }
+
+    @DisplayName("Should purge the stored responses older than the TTL")
+    @Test
+    void shouldPurgeExpiredResponses() {
+        // Act
+        idempotencyService.purgeExpired();
+
+        // Assert
+        verify(idempotencyRecordRepository).deleteCreatedBefore(LocalDateTime.ofInstant(NOW, ZoneOffset.UTC).minusHours(24));
+    }
+}
@@ -0,0 +1,182 @@
+package com.hsbc.gbgcf.crp.service.impl;
+
+import com.hsbc.gbgcf.crp.entity.PolicyTracking;
+import com.hsbc.gbgcf.crp.entity.SubmitOutbox;
+import com.hsbc.gbgcf.crp.repository.PolicyTrackingRepository;
+import com.hsbc.gbgcf.crp.service.FormVersionService;
+import com.hsbc.gbgcf.crp.service.SubmitOutboxService;
+import com.hsbc.gbgcf.crp.util.FormEtag;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class PolicyTrackingServiceImplTest {
+
+    private static final String FORM_DATA = "{\"formData\":\"test\"}";
+
+    @Mock
+    private PolicyTrackingRepository policyTrackingRepository;
+
+    @Mock
+    private FormVersionService formVersionService;
+
+    @Mock
+    private SubmitOutboxService submitOutboxService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private PolicyTrackingServiceImpl policyTrackingService;
+
+    @BeforeEach
+    void setUp() {
+        policyTrackingService.multipleRetakeEnabled = true;
+    }
+
+    private SubmitOutbox aDeliveredSubmission() {
+        SubmitOutbox submission = new SubmitOutbox();
+        submission.setId(7L);
+        submission.setPolicyTrackingId(42L);
+        submission.setCustomerId("LE123");
+        submission.setJourneyType("PAW-TCPOP-LE");
+        return submission;
+    }
+
+    @DisplayName("Should write the form on the tracking row when form versioning is disabled")
+    @Test
+    void shouldSaveFormOnTrackingRow() {
+        // Arrange
+        PolicyTracking policyTracking = new PolicyTracking();
+
+        // Act
+        policyTrackingService.saveWithForm(policyTracking, "LE123", "PAW-TCPOP-LE", FORM_DATA);
+
+        // Assert
+        assertThat(policyTracking.getFormDataContent()).isEqualTo(FORM_DATA);
+        verify(policyTrackingRepository).save(policyTracking);
+        verify(formVersionService, never()).append(any(), any(), any(), any());
+    }
+
+    @DisplayName("Should save and lock the tracking row before appending the normalized form version")
+    @Test
+    void shouldAppendFormVersionAfterSavingTrackingRow() {
+        // Arrange
+        policyTrackingService.formVersioningEnabled = true;
+        PolicyTracking policyTracking = new PolicyTracking();
+        policyTracking.setId(42L);
+        String normalized = "{\"formData\":\"normalized\"}";
+        when(formVersionService.normalize(FORM_DATA)).thenReturn(normalized);
+
+        // Act
+        String stored = policyTrackingService.saveWithForm(policyTracking, "LE123", "PAW-TCPOP-LE", FORM_DATA);
+
+        // Assert
+        assertThat(stored).isEqualTo(normalized);
+        assertThat(policyTracking.getFormDataContent()).isNull();
+        assertThat(policyTracking.getFormEtag()).isEqualTo(FormEtag.of(normalized));
+        InOrder order = inOrder(policyTrackingRepository, formVersionService);
+        order.verify(policyTrackingRepository).save(policyTracking);
+        order.verify(policyTrackingRepository).lockById(42L);
+        order.verify(formVersionService).append("LE123", "PAW-TCPOP-LE", 42L, normalized);
+    }
+
+    @DisplayName("Should save again, from a fresh transaction, when another tracking row took the form version")
+    @Test
+    void shouldRetryFormVersionConflict() {
+        // Arrange
+        policyTrackingService.formVersioningEnabled = true;
+        PolicyTracking policyTracking = new PolicyTracking();
+        List<Long> savedIds = new ArrayList<>();
+        when(policyTrackingRepository.save(policyTracking)).thenAnswer(invocation -> {
+            savedIds.add(policyTracking.getId());
+            policyTracking.setId(42L);
+            return policyTracking;
+        });
+        when(formVersionService.normalize(FORM_DATA)).thenReturn(FORM_DATA);
+        doThrow(new DataIntegrityViolationException("uk_form_versions_version")).doNothing()
+                .when(formVersionService).append("LE123", "PAW-TCPOP-LE", 42L, FORM_DATA);
+
+        // Act
+        String stored = policyTrackingService.saveWithForm(policyTracking, "LE123", "PAW-TCPOP-LE", FORM_DATA);
+
+        // Assert
+        assertThat(stored).isEqualTo(FORM_DATA);
+        assertThat(savedIds).containsExactly(null, null);
+        verify(formVersionService, times(2)).append("LE123", "PAW-TCPOP-LE", 42L, FORM_DATA);
+        verify(transactionManager).rollback(any());
+    }
+
+    @DisplayName("Should give up after repeated form version conflicts")
+    @Test
+    void shouldFailAfterRepeatedFormVersionConflicts() {
+        // Arrange
+        policyTrackingService.formVersioningEnabled = true;
+        PolicyTracking policyTracking = new PolicyTracking();
+        policyTracking.setId(42L);
+        when(formVersionService.normalize(FORM_DATA)).thenReturn(FORM_DATA);
+        doThrow(new DataIntegrityViolationException("uk_form_versions_version"))
+                .when(formVersionService).append("LE123", "PAW-TCPOP-LE", 42L, FORM_DATA);
+
+        // Act & Assert
+        assertThatThrownBy(() -> policyTrackingService.saveWithForm(policyTracking, "LE123", "PAW-TCPOP-LE", FORM_DATA))
+                .isInstanceOf(DataIntegrityViolationException.class);
+        verify(formVersionService, times(3)).append("LE123", "PAW-TCPOP-LE", 42L, FORM_DATA);
+    }
+
+    @DisplayName("Should store the delivered form on the tracking row before marking the submit delivered")
+    @Test
+    void shouldRecordDelivery() {
+        // Arrange
+        SubmitOutbox submission = aDeliveredSubmission();
+        PolicyTracking policyTracking = new PolicyTracking();
+        when(policyTrackingRepository.findById(42L)).thenReturn(Optional.of(policyTracking));
+
+        // Act
+        policyTrackingService.recordDelivery(submission, FORM_DATA);
+
+        // Assert
+        assertThat(policyTracking.getFormDataContent()).isEqualTo(FORM_DATA);
+        assertThat(policyTracking.getRetake()).isEqualTo("enable");
+        InOrder order = inOrder(policyTrackingRepository, submitOutboxService);
+        order.verify(policyTrackingRepository).save(policyTracking);
+        order.verify(submitOutboxService).markDelivered(submission);
+    }
+
+    @DisplayName("Should still mark the submit delivered when its tracking row is gone")
+    @Test
+    void shouldRecordDeliveryWithoutTrackingRow() {
+        // Arrange
+        SubmitOutbox submission = aDeliveredSubmission();
+        when(policyTrackingRepository.findById(42L)).thenReturn(Optional.empty());
+
+        // Act
+        policyTrackingService.recordDelivery(submission, FORM_DATA);
+
+        // Assert
+        verify(policyTrackingRepository, never()).save(any());
+        verify(submitOutboxService).markDelivered(submission);
+    }
+}
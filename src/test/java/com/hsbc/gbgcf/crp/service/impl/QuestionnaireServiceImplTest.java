@@ -2,15 +2,30 @@ package com.hsbc.gbgcf.crp.service.impl;
 
 import com.hsbc.gbgcf.crp.client.ODSClient;
 import com.hsbc.gbgcf.crp.constants.PolicyConstants;
+import com.hsbc.gbgcf.crp.dto.FormDataRequest;
+import com.hsbc.gbgcf.crp.dto.FormDataResult;
 import com.hsbc.gbgcf.crp.entity.Client;
 import com.hsbc.gbgcf.crp.entity.LegalEntity;
 import com.hsbc.gbgcf.crp.entity.Policy;
 import com.hsbc.gbgcf.crp.entity.PolicyTracking;
+import com.hsbc.gbgcf.crp.entity.SubmitOutbox;
+import com.hsbc.gbgcf.crp.enums.OutboxStatus;
 import com.hsbc.gbgcf.crp.enums.Status;
 import com.hsbc.gbgcf.crp.repository.ClientRepository;
 import com.hsbc.gbgcf.crp.repository.LegalEntitiesRepository;
 import com.hsbc.gbgcf.crp.repository.PolicyTrackingRepository;
+import com.hsbc.gbgcf.crp.repository.StoredFormContent;
+import com.hsbc.gbgcf.crp.service.SubmitOutboxService;
+import com.hsbc.gbgcf.crp.util.CoalescingWindow;
 import com.hsbc.gbgcf.crp.util.EntityBuilders;
+import com.hsbc.gbgcf.crp.util.FormEtag;
+import feign.FeignException;
+import feign.Request;
+import feign.Response;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -18,22 +33,41 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.CsvSource;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
 
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -53,9 +87,26 @@ class QuestionnaireServiceImplTest {
     @Mock
     private ODSClient odsClient;
 
+    @Mock
+    private SubmitOutboxService submitOutboxService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private LegalEntityJourney legalEntityJourney;
+
+    @InjectMocks
+    private MasterGroupJourney masterGroupJourney;
+
+    @InjectMocks
+    private PolicyTrackingServiceImpl policyTrackingService;
+
     @InjectMocks
     private QuestionnaireServiceImpl questionnaireService;
 
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
     private static final String FORM_DATA = "{\"formData\":\"test\"}";
     // Using constants from PolicyConstants class
     private static final String FORM_ALREADY_SUBMITTED = PolicyConstants.FORM_ALREADY_SUBMITTED;
@@ -63,6 +114,11 @@ class QuestionnaireServiceImplTest {
     @BeforeEach
     void setUp() {
         ReflectionTestUtils.setField(questionnaireService, "multipleRetakeEnabled", true);
+        ReflectionTestUtils.setField(questionnaireService, "legalEntityJourney", legalEntityJourney);
+        ReflectionTestUtils.setField(questionnaireService, "masterGroupJourney", masterGroupJourney);
+        ReflectionTestUtils.setField(policyTrackingService, "multipleRetakeEnabled", true);
+        ReflectionTestUtils.setField(questionnaireService, "policyTrackingService", policyTrackingService);
+        ReflectionTestUtils.setField(questionnaireService, "meterRegistry", meterRegistry);
     }
 
     @Nested
@@ -92,7 +148,7 @@ class QuestionnaireServiceImplTest {
             assertThat(response).isNotNull();
             assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
             assertThat(response.getBody()).isEqualTo(FORM_DATA);
-            verify(policyTrackingRepository, times(2)).save(any(PolicyTracking.class));
+            verify(policyTrackingRepository, times(1)).save(any(PolicyTracking.class));
             verify(odsClient).executeFormReadyRequest(journeyType, legalEntityId);
         }
 
@@ -119,7 +175,7 @@ class QuestionnaireServiceImplTest {
             assertThat(response).isNotNull();
             assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
             assertThat(response.getBody()).isEqualTo(FORM_DATA);
-            verify(policyTrackingRepository, times(2)).save(any(PolicyTracking.class));
+            verify(policyTrackingRepository, times(1)).save(any(PolicyTracking.class));
             verify(odsClient).executeFormReadyRequest(journeyType, masterGroupId);
         }
 
@@ -181,7 +237,7 @@ class QuestionnaireServiceImplTest {
         assertThat(response).isNotNull();
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
         assertThat(response.getBody()).isEqualTo(FORM_DATA);
-        verify(policyTrackingRepository, times(2)).save(existingPolicyTracking);
+        verify(policyTrackingRepository, times(1)).save(existingPolicyTracking);
     }
 
     @DisplayName("Should use existing policy tracking when it exists for master group")
@@ -215,7 +271,7 @@ class QuestionnaireServiceImplTest {
         assertThat(response).isNotNull();
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
         assertThat(response.getBody()).isEqualTo(FORM_DATA);
-        verify(policyTrackingRepository, times(2)).save(existingPolicyTracking);
+        verify(policyTrackingRepository, times(1)).save(existingPolicyTracking);
     }
     
     @DisplayName("Should validate journey type matches required pattern")
@@ -286,4 +342,759 @@ class QuestionnaireServiceImplTest {
         assertThat(response).isNotNull();
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
     }
-}
\ No newline at end of file
+
+    @Nested
+    @DisplayName("Concurrent Get ODS Data Tests")
+    class ConcurrentQuestionnaireRetrieverCases {
+
+        private ExecutorService executor;
+
+        @BeforeEach
+        void setUp() {
+            executor = Executors.newFixedThreadPool(4);
+            ReflectionTestUtils.setField(questionnaireService, "questionnaireExecutor", executor);
+            ReflectionTestUtils.setField(questionnaireService, "concurrentEnabled", true);
+        }
+
+        @AfterEach
+        void tearDown() {
+            executor.shutdownNow();
+        }
+
+        @DisplayName("Should get ODS data concurrently for a legal entity and persist the existing tracking")
+        @Test
+        void shouldGetOdsDataConcurrentlyForLegalEntity() {
+            // Arrange
+            String journeyType = "PAW-TCPOP-LE";
+            String legalEntityId = "LE12345";
+            Policy policy = EntityBuilders.aPolicyWithCode(PolicyConstants.POLICY_CODE_TCPOP);
+            List<Policy> policies = new ArrayList<>();
+            policies.add(policy);
+            LegalEntity legalEntity = EntityBuilders.aLegalEntityWithPolicies(policies);
+            PolicyTracking existingPolicyTracking = EntityBuilders.aPolicyTrackingWithStatus(Status.CASE_INITIATED);
+
+            when(policyTrackingRepository.findByLegalEntityIdAndMultipleStatuses(
+                    eq(legalEntityId), eq(Status.CASE_INITIATED), eq(Status.PULL_FORM), eq(Status.IN_PROGRESS)))
+                    .thenReturn(existingPolicyTracking);
+            when(legalEntitiesRepository.findByEntityId(legalEntityId)).thenReturn(Optional.of(legalEntity));
+            when(odsClient.executeFormReadyRequest(journeyType, legalEntityId)).thenReturn(FORM_DATA);
+
+            // Act
+            ResponseEntity<String> response = questionnaireService.getODSdata(journeyType, legalEntityId);
+
+            // Assert
+            assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+            assertThat(response.getBody()).isEqualTo(FORM_DATA);
+            assertThat(existingPolicyTracking.getPolicy()).isEqualTo(policy);
+            assertThat(existingPolicyTracking.getStatus()).isEqualTo(Status.PULL_FORM);
+            verify(policyTrackingRepository, times(1)).save(existingPolicyTracking);
+        }
+
+        @DisplayName("Should create a tracking row when none exists for a master group")
+        @Test
+        void shouldCreateTrackingConcurrentlyForMasterGroup() {
+            // Arrange
+            String journeyType = "PAW-TCPOP-MG";
+            String masterGroupId = "MG12345";
+            Policy policy = EntityBuilders.aPolicyWithCode(PolicyConstants.POLICY_CODE_TCPOP);
+            List<Policy> policies = new ArrayList<>();
+            policies.add(policy);
+            Client client = EntityBuilders.aClientWithPolicies(policies);
+
+            when(clientRepository.findByMasterGroupId(masterGroupId)).thenReturn(Optional.of(client));
+            when(odsClient.executeFormReadyRequest(journeyType, masterGroupId)).thenReturn(FORM_ALREADY_SUBMITTED);
+
+            // Act
+            ResponseEntity<String> response = questionnaireService.getODSdata(journeyType, masterGroupId);
+
+            // Assert
+            assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+            assertThat(response.getBody()).isEqualTo(FORM_ALREADY_SUBMITTED);
+            verify(policyTrackingRepository).save(any(PolicyTracking.class));
+        }
+
+        @DisplayName("Should propagate the ODS failure instead of a wrapped completion exception")
+        @Test
+        void shouldPropagateOdsFailure() {
+            // Arrange
+            String journeyType = "PAW-TCPOP-LE";
+            String legalEntityId = "LE12345";
+            LegalEntity legalEntity = EntityBuilders.aLegalEntityWithPolicies(new ArrayList<>());
+
+            when(legalEntitiesRepository.findByEntityId(legalEntityId)).thenReturn(Optional.of(legalEntity));
+            when(odsClient.executeFormReadyRequest(journeyType, legalEntityId)).thenThrow(new IllegalStateException("ODS down"));
+
+            // Act / Assert
+            assertThatThrownBy(() -> questionnaireService.getODSdata(journeyType, legalEntityId))
+                    .isInstanceOf(IllegalStateException.class)
+                    .hasMessage("ODS down");
+        }
+    }
+
+    @Nested
+    @DisplayName("View Form Tests")
+    class ViewFormCases {
+
+        @DisplayName("Should return the latest stored form for a legal entity using a single-row projection")
+        @Test
+        void shouldReturnLatestFormForLegalEntity() {
+            // Arrange
+            String journeyType = "PAW-TCPOP-LE";
+            String legalEntityId = "LE12345";
+            when(policyTrackingRepository.findLatestFormDataContentByLE(eq(legalEntityId), eq(journeyType), any(Pageable.class)))
+                    .thenReturn(List.of(new StoredFormContent(null, FORM_DATA)));
+
+            // Act
+            ResponseEntity<String> response = questionnaireService.viewForm(journeyType, legalEntityId);
+
+            // Assert
+            assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+            assertThat(response.getBody()).isEqualTo(FORM_DATA);
+            verify(policyTrackingRepository).findLatestFormDataContentByLE(legalEntityId, journeyType, PageRequest.of(0, 1));
+        }
+
+        @DisplayName("Should return NOT_FOUND when no form is stored for a master group")
+        @Test
+        void shouldReturnNotFoundWhenNoFormForMasterGroup() {
+            // Arrange
+            String journeyType = "PAW-TCPOP-MG";
+            String masterGroupId = "MG12345";
+            when(policyTrackingRepository.findLatestFormDataContentByMg(eq(masterGroupId), eq(journeyType), any(Pageable.class)))
+                    .thenReturn(List.of());
+
+            // Act
+            ResponseEntity<String> response = questionnaireService.viewForm(journeyType, masterGroupId);
+
+            // Assert
+            assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+            assertThat(response.getBody()).isEqualTo(PolicyConstants.FORM_NOT_AVAILABLE);
+        }
+    }
+
+    @Nested
+    @DisplayName("Form ETag Tests")
+    class FormEtagCases {
+
+        @DisplayName("Should store the entity tag of a pulled form without tagging the form data response")
+        @Test
+        void shouldStoreEtagWithoutTaggingOdsDataResponse() {
+            // Arrange
+            String journeyType = "PAW-TCPOP-LE";
+            String legalEntityId = "LE12345";
+            LegalEntity legalEntity = EntityBuilders.aLegalEntityWithPolicies(
+                    new ArrayList<>(List.of(EntityBuilders.aPolicyWithCode(PolicyConstants.POLICY_CODE_TCPOP))));
+            when(legalEntitiesRepository.findByEntityId(legalEntityId)).thenReturn(Optional.of(legalEntity));
+            when(odsClient.executeFormReadyRequest(journeyType, legalEntityId)).thenReturn(FORM_DATA);
+            ArgumentCaptor<PolicyTracking> saved = ArgumentCaptor.forClass(PolicyTracking.class);
+
+            // Act
+            ResponseEntity<String> response = questionnaireService.getODSdata(journeyType, legalEntityId);
+
+            // Assert
+            verify(policyTrackingRepository).save(saved.capture());
+            assertThat(saved.getValue().getFormEtag()).isEqualTo(FormEtag.of(FORM_DATA));
+            assertThat(response.getHeaders().getETag()).isNull();
+        }
+
+        @DisplayName("Should look up the entity tag of the latest form without reading its content")
+        @Test
+        void shouldFindLatestFormEtagForMasterGroup() {
+            // Arrange
+            String journeyType = "PAW-TCPOP-MG";
+            String masterGroupId = "MG12345";
+            when(policyTrackingRepository.findLatestFormEtagByMg(eq(masterGroupId), eq(journeyType), any(Pageable.class)))
+                    .thenReturn(List.of("abc123"));
+
+            // Act
+            Optional<String> etag = questionnaireService.findFormEtag(journeyType, masterGroupId);
+
+            // Assert
+            assertThat(etag).contains("abc123");
+            verify(policyTrackingRepository).findLatestFormEtagByMg(masterGroupId, journeyType, PageRequest.of(0, 1));
+        }
+
+        @DisplayName("Should return no entity tag when the latest form predates entity tags")
+        @Test
+        void shouldReturnEmptyEtagForUntaggedForm() {
+            // Arrange
+            String journeyType = "PAW-TCPOP-LE";
+            String legalEntityId = "LE12345";
+            List<String> untagged = new ArrayList<>();
+            untagged.add(null);
+            when(policyTrackingRepository.findLatestFormEtagByLE(eq(legalEntityId), eq(journeyType), any(Pageable.class)))
+                    .thenReturn(untagged);
+
+            // Act
+            Optional<String> etag = questionnaireService.findFormEtag(journeyType, legalEntityId);
+
+            // Assert
+            assertThat(etag).isEmpty();
+        }
+    }
+
+    @Nested
+    @DisplayName("ODS Circuit Open Tests")
+    class CircuitOpenCases {
+
+        @DisplayName("Should serve the last stored form when the form ready circuit is open")
+        @Test
+        void shouldServeStoredFormWhenCircuitIsOpen() {
+            // Arrange
+            String journeyType = "PAW-TCPOP-LE";
+            String legalEntityId = "LE12345";
+            LegalEntity legalEntity = EntityBuilders.aLegalEntityWithPolicies(
+                    new ArrayList<>(List.of(EntityBuilders.aPolicyWithCode(PolicyConstants.POLICY_CODE_TCPOP))));
+            when(legalEntitiesRepository.findByEntityId(legalEntityId)).thenReturn(Optional.of(legalEntity));
+            when(odsClient.executeFormReadyRequest(journeyType, legalEntityId))
+                    .thenThrow(CallNotPermittedException.createCallNotPermittedException(CircuitBreaker.ofDefaults("executeFormReadyRequest")));
+            when(policyTrackingRepository.findLatestFormDataContentByLE(eq(legalEntityId), eq(journeyType), any(Pageable.class)))
+                    .thenReturn(List.of(new StoredFormContent(null, FORM_DATA)));
+
+            // Act
+            ResponseEntity<String> response = questionnaireService.getODSdata(journeyType, legalEntityId);
+
+            // Assert
+            assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+            assertThat(response.getBody()).isEqualTo(FORM_DATA);
+            verify(policyTrackingRepository, never()).save(any(PolicyTracking.class));
+        }
+
+        @DisplayName("Should return SERVICE_UNAVAILABLE when the circuit is open and no form is stored")
+        @Test
+        void shouldReturnServiceUnavailableWithoutStoredForm() {
+            // Arrange
+            String journeyType = "PAW-TCPOP-MG";
+            String masterGroupId = "MG12345";
+            Client client = EntityBuilders.aClientWithPolicies(
+                    new ArrayList<>(List.of(EntityBuilders.aPolicyWithCode(PolicyConstants.POLICY_CODE_TCPOP))));
+            when(clientRepository.findByMasterGroupId(masterGroupId)).thenReturn(Optional.of(client));
+            when(odsClient.executeFormReadyRequest(journeyType, masterGroupId))
+                    .thenThrow(CallNotPermittedException.createCallNotPermittedException(CircuitBreaker.ofDefaults("executeFormReadyRequest")));
+            when(policyTrackingRepository.findLatestFormDataContentByMg(eq(masterGroupId), eq(journeyType), any(Pageable.class)))
+                    .thenReturn(List.of());
+
+            // Act
+            ResponseEntity<String> response = questionnaireService.getODSdata(journeyType, masterGroupId);
+
+            // Assert
+            assertThat(response.getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+            assertThat(response.getBody()).isEqualTo(PolicyConstants.ODS_UNAVAILABLE);
+        }
+    }
+
+    @Nested
+    @DisplayName("Coalesced Get ODS Data Tests")
+    class CoalescedQuestionnaireRetrieverCases {
+
+        @BeforeEach
+        void setUp() {
+            ReflectionTestUtils.setField(questionnaireService, "coalescingEnabled", true);
+        }
+
+        @DisplayName("Should share one ODS call and save between concurrent requests for the same customer")
+        @Test
+        void shouldCoalesceConcurrentRequestsForSameCustomer() throws Exception {
+            // Arrange
+            String journeyType = "PAW-TCPOP-LE";
+            String legalEntityId = "LE12345";
+            LegalEntity legalEntity = EntityBuilders.aLegalEntityWithPolicies(
+                    new ArrayList<>(List.of(EntityBuilders.aPolicyWithCode(PolicyConstants.POLICY_CODE_TCPOP))));
+            CountDownLatch odsCalled = new CountDownLatch(1);
+            CountDownLatch releaseOds = new CountDownLatch(1);
+            when(legalEntitiesRepository.findByEntityId(legalEntityId)).thenReturn(Optional.of(legalEntity));
+            when(odsClient.executeFormReadyRequest(journeyType, legalEntityId)).thenAnswer(invocation -> {
+                odsCalled.countDown();
+                releaseOds.await(5, TimeUnit.SECONDS);
+                return FORM_DATA;
+            });
+            ExecutorService callers = Executors.newFixedThreadPool(4);
+            try {
+                List<Future<ResponseEntity<String>>> responses = new ArrayList<>();
+                responses.add(callers.submit(() -> questionnaireService.getODSdata(journeyType, legalEntityId)));
+                assertThat(odsCalled.await(5, TimeUnit.SECONDS)).isTrue();
+                for (int i = 0; i < 3; i++) {
+                    responses.add(callers.submit(() -> questionnaireService.getODSdata(journeyType, legalEntityId)));
+                }
+
+                // Act
+                Thread.sleep(100);
+                releaseOds.countDown();
+
+                // Assert
+                for (Future<ResponseEntity<String>> response : responses) {
+                    assertThat(response.get(5, TimeUnit.SECONDS).getBody()).isEqualTo(FORM_DATA);
+                }
+            } finally {
+                callers.shutdownNow();
+            }
+            verify(odsClient, times(1)).executeFormReadyRequest(journeyType, legalEntityId);
+            verify(policyTrackingRepository, times(1)).save(any(PolicyTracking.class));
+        }
+
+        @DisplayName("Should not share executions between different customers")
+        @Test
+        void shouldNotCoalesceDifferentCustomers() {
+            // Arrange
+            String journeyType = "PAW-TCPOP-LE";
+            LegalEntity legalEntity = EntityBuilders.aLegalEntityWithPolicies(
+                    new ArrayList<>(List.of(EntityBuilders.aPolicyWithCode(PolicyConstants.POLICY_CODE_TCPOP))));
+            when(legalEntitiesRepository.findByEntityId(any())).thenReturn(Optional.of(legalEntity));
+            when(odsClient.executeFormReadyRequest(eq(journeyType), any())).thenReturn(FORM_DATA);
+
+            // Act
+            questionnaireService.getODSdata(journeyType, "LE12345");
+            questionnaireService.getODSdata(journeyType, "LE67890");
+
+            // Assert
+            verify(odsClient).executeFormReadyRequest(journeyType, "LE12345");
+            verify(odsClient).executeFormReadyRequest(journeyType, "LE67890");
+        }
+    }
+
+    @Nested
+    @DisplayName("Bulk Get ODS Data Tests")
+    class BulkQuestionnaireRetrieverCases {
+
+        private ExecutorService executor;
+
+        @BeforeEach
+        void setUp() {
+            executor = Executors.newFixedThreadPool(2);
+            ReflectionTestUtils.setField(questionnaireService, "questionnaireExecutor", executor);
+            ReflectionTestUtils.setField(questionnaireService, "bulkParallelism", 2);
+        }
+
+        @AfterEach
+        void tearDown() {
+            executor.shutdownNow();
+        }
+
+        @DisplayName("Should fetch every customer's form from batched lookups and report each result")
+        @Test
+        void shouldFetchFormsFromBatchedLookups() {
+            // Arrange
+            List<Policy> policies = new ArrayList<>(List.of(EntityBuilders.aPolicyWithCode(PolicyConstants.POLICY_CODE_TCPOP)));
+            LegalEntity first = EntityBuilders.aLegalEntityWithPolicies(policies);
+            first.setEntityId("LE1");
+            LegalEntity second = EntityBuilders.aLegalEntityWithPolicies(policies);
+            second.setEntityId("LE2");
+            Client masterGroup = EntityBuilders.aClientWithPolicies(policies);
+            masterGroup.setMasterGroupId("MG1");
+            PolicyTracking existingTracking = EntityBuilders.aPolicyTrackingWithLegalEntity(first);
+            existingTracking.setStatus(Status.CASE_INITIATED);
+            when(policyTrackingRepository.findByLegalEntityIdsAndMultipleStatuses(any(), any(Status[].class))).thenReturn(List.of(existingTracking));
+            when(legalEntitiesRepository.findAllByEntityIdIn(any())).thenReturn(List.of(first, second));
+            when(policyTrackingRepository.findByClientIdsAndMultipleStatuses(any(), any(Status[].class))).thenReturn(List.of());
+            when(clientRepository.findAllByMasterGroupIdIn(any())).thenReturn(List.of(masterGroup));
+            when(odsClient.executeFormReadyRequest(eq("PAW-TCPOP-LE"), any())).thenReturn(FORM_DATA);
+            when(odsClient.executeFormReadyRequest("PAW-TCPOP-MG", "MG1")).thenReturn(FORM_ALREADY_SUBMITTED);
+            List<FormDataResult> results = new ArrayList<>();
+
+            // Act
+            questionnaireService.getODSdataBulk(List.of(
+                    new FormDataRequest("PAW-TCPOP-LE", "LE1"),
+                    new FormDataRequest("PAW-TCPOP-LE", "LE2"),
+                    new FormDataRequest("PAW-TCPOP-MG", "MG1")), results::add);
+
+            // Assert
+            assertThat(results).containsExactlyInAnyOrder(
+                    new FormDataResult("PAW-TCPOP-LE", "LE1", 200, FORM_DATA),
+                    new FormDataResult("PAW-TCPOP-LE", "LE2", 200, FORM_DATA),
+                    new FormDataResult("PAW-TCPOP-MG", "MG1", 404, FORM_ALREADY_SUBMITTED));
+            assertThat(existingTracking.getStatus()).isEqualTo(Status.PULL_FORM);
+            verify(legalEntitiesRepository, never()).findByEntityId(any());
+            verify(clientRepository, never()).findByMasterGroupId(any());
+            verify(policyTrackingRepository, times(3)).save(any(PolicyTracking.class));
+        }
+
+        @DisplayName("Should run a duplicated customer once and track all its journeys on one row")
+        @Test
+        void shouldRunDuplicatedCustomerOnce() {
+            // Arrange
+            LegalEntity legalEntity = EntityBuilders.aLegalEntityWithPolicies(
+                    new ArrayList<>(List.of(EntityBuilders.aPolicyWithCode(PolicyConstants.POLICY_CODE_TCPOP))));
+            legalEntity.setEntityId("LE1");
+            when(policyTrackingRepository.findByLegalEntityIdsAndMultipleStatuses(any(), any(Status[].class))).thenReturn(List.of());
+            when(legalEntitiesRepository.findAllByEntityIdIn(any())).thenReturn(List.of(legalEntity));
+            when(odsClient.executeFormReadyRequest("PAW-TCPOP-LE", "LE1")).thenReturn(FORM_DATA);
+            when(odsClient.executeFormReadyRequest("PAW-ENERGY-LE", "LE1")).thenReturn(FORM_DATA);
+            List<FormDataResult> results = new ArrayList<>();
+
+            // Act
+            questionnaireService.getODSdataBulk(List.of(
+                    new FormDataRequest("PAW-TCPOP-LE", "LE1"),
+                    new FormDataRequest("PAW-ENERGY-LE", "LE1"),
+                    new FormDataRequest("PAW-TCPOP-LE", "LE1")), results::add);
+
+            // Assert
+            assertThat(results).containsExactly(
+                    new FormDataResult("PAW-TCPOP-LE", "LE1", 200, FORM_DATA),
+                    new FormDataResult("PAW-ENERGY-LE", "LE1", 200, FORM_DATA),
+                    new FormDataResult("PAW-TCPOP-LE", "LE1", 200, FORM_DATA));
+            verify(odsClient).executeFormReadyRequest("PAW-TCPOP-LE", "LE1");
+            verify(odsClient).executeFormReadyRequest("PAW-ENERGY-LE", "LE1");
+            ArgumentCaptor<PolicyTracking> saved = ArgumentCaptor.forClass(PolicyTracking.class);
+            verify(policyTrackingRepository, times(2)).save(saved.capture());
+            assertThat(saved.getAllValues().get(1)).isSameAs(saved.getAllValues().get(0));
+        }
+
+        @DisplayName("Should report a failing customer without failing the rest of the batch")
+        @Test
+        void shouldReportFailingCustomerInItsResult() {
+            // Arrange
+            LegalEntity known = EntityBuilders.aLegalEntityWithPolicies(
+                    new ArrayList<>(List.of(EntityBuilders.aPolicyWithCode(PolicyConstants.POLICY_CODE_TCPOP))));
+            known.setEntityId("LE1");
+            when(policyTrackingRepository.findByLegalEntityIdsAndMultipleStatuses(any(), any(Status[].class))).thenReturn(List.of());
+            when(legalEntitiesRepository.findAllByEntityIdIn(any())).thenReturn(List.of(known));
+            when(odsClient.executeFormReadyRequest("PAW-TCPOP-LE", "LE1")).thenReturn(FORM_DATA);
+            List<FormDataResult> results = new ArrayList<>();
+
+            // Act
+            questionnaireService.getODSdataBulk(List.of(
+                    new FormDataRequest("PAW-TCPOP-LE", "LE1"),
+                    new FormDataRequest("PAW-TCPOP-LE", "UNKNOWN")), results::add);
+
+            // Assert
+            assertThat(results).containsExactlyInAnyOrder(
+                    new FormDataResult("PAW-TCPOP-LE", "LE1", 200, FORM_DATA),
+                    new FormDataResult("PAW-TCPOP-LE", "UNKNOWN", 500, PolicyConstants.ERROR_PROCESSING_REQUEST));
+        }
+    }
+
+    @Nested
+    @DisplayName("Submit Tests")
+    class SubmitCases {
+
+        @DisplayName("Should mark the tracking row submitted before calling ODS")
+        @Test
+        void shouldSaveSubmittedStatusBeforeSubmitting() {
+            // Arrange
+            PolicyTracking policyTracking = new PolicyTracking();
+            policyTracking.setStatus(Status.IN_PROGRESS);
+            when(policyTrackingRepository.findByLegalEntityIdAndStatuses("LE123", Status.PULL_FORM, Status.IN_PROGRESS)).thenReturn(policyTracking);
+            when(odsClient.executeSubmitRequest("PAW-TCPOP-LE", "LE123", FORM_DATA)).thenReturn(FORM_DATA);
+
+            // Act
+            ResponseEntity<String> response = questionnaireService.submitOdsData("PAW-TCPOP-LE", "LE123", FORM_DATA);
+
+            // Assert
+            assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+            assertThat(policyTracking.getStatus()).isEqualTo(Status.SUBMITTED);
+            InOrder order = inOrder(policyTrackingRepository, odsClient);
+            order.verify(policyTrackingRepository).save(policyTracking);
+            order.verify(odsClient).executeSubmitRequest("PAW-TCPOP-LE", "LE123", FORM_DATA);
+        }
+
+        @DisplayName("Should not call ODS again once the tracking row is submitted")
+        @Test
+        void shouldNotResubmitSubmittedForm() {
+            // Arrange
+            when(policyTrackingRepository.findByLegalEntityIdAndStatuses("LE123", Status.PULL_FORM, Status.IN_PROGRESS)).thenReturn(null);
+
+            // Act
+            ResponseEntity<String> response = questionnaireService.submitOdsData("PAW-TCPOP-LE", "LE123", FORM_DATA);
+
+            // Assert
+            assertThat(response.getStatusCode()).isEqualTo(HttpStatus.INTERNAL_SERVER_ERROR);
+            verify(odsClient, never()).executeSubmitRequest(any(), any(), any());
+        }
+    }
+
+    @Nested
+    @DisplayName("Asynchronous Submit Tests")
+    class AsyncSubmitCases {
+
+        @BeforeEach
+        void setUp() {
+            ReflectionTestUtils.setField(questionnaireService, "asyncSubmitEnabled", true);
+            ReflectionTestUtils.setField(questionnaireService, "submitDispatchExecutor", (Executor) Runnable::run);
+        }
+
+        private SubmitOutbox aClaimedSubmission() {
+            SubmitOutbox submission = new SubmitOutbox();
+            submission.setId(7L);
+            submission.setPolicyTrackingId(42L);
+            submission.setCustomerId("LE123");
+            submission.setJourneyType("PAW-TCPOP-LE");
+            submission.setFormData(FORM_DATA);
+            submission.setStatus(OutboxStatus.IN_FLIGHT);
+            submission.setAttempts(1);
+            return submission;
+        }
+
+        @DisplayName("Should record the submit in the outbox and answer 202 without calling ODS")
+        @Test
+        void shouldAcceptSubmitIntoOutbox() {
+            // Arrange
+            PolicyTracking policyTracking = new PolicyTracking();
+            policyTracking.setStatus(Status.IN_PROGRESS);
+            when(policyTrackingRepository.findByLegalEntityIdAndStatuses("LE123", Status.PULL_FORM, Status.IN_PROGRESS)).thenReturn(policyTracking);
+            SubmitOutbox submission = aClaimedSubmission();
+            when(submitOutboxService.enqueue(policyTracking, "PAW-TCPOP-LE", "LE123", FORM_DATA)).thenReturn(submission);
+
+            // Act
+            ResponseEntity<String> response = questionnaireService.submitOdsData("PAW-TCPOP-LE", "LE123", FORM_DATA);
+
+            // Assert
+            assertThat(response.getStatusCode()).isEqualTo(HttpStatus.ACCEPTED);
+            assertThat(response.getBody()).isEqualTo(PolicyConstants.SUBMISSION_STATUS_PATH + "7");
+            assertThat(response.getHeaders().getFirst(HttpHeaders.LOCATION)).isEqualTo(PolicyConstants.SUBMISSION_STATUS_PATH + "7");
+            assertThat(policyTracking.getStatus()).isEqualTo(Status.SUBMITTED);
+            verify(odsClient, never()).executeSubmitRequest(any(), any(), any());
+            verify(policyTrackingRepository, never()).save(any());
+        }
+
+        @DisplayName("Should deliver a claimed submit to ODS and store the returned form")
+        @Test
+        void shouldDeliverClaimedSubmit() {
+            // Arrange
+            SubmitOutbox submission = aClaimedSubmission();
+            PolicyTracking policyTracking = new PolicyTracking();
+            policyTracking.setStatus(Status.SUBMITTED);
+            when(submitOutboxService.claimReady(4)).thenReturn(List.of(submission));
+            when(odsClient.executeSubmitRequest("PAW-TCPOP-LE", "LE123", FORM_DATA)).thenReturn(FORM_DATA);
+            when(policyTrackingRepository.findById(42L)).thenReturn(Optional.of(policyTracking));
+
+            // Act
+            questionnaireService.dispatchSubmissions();
+
+            // Assert
+            assertThat(policyTracking.getFormDataContent()).isEqualTo(FORM_DATA);
+            assertThat(policyTracking.getRetake()).isEqualTo("enable");
+            verify(policyTrackingRepository).save(policyTracking);
+            verify(submitOutboxService).markDelivered(submission);
+        }
+
+        @DisplayName("Should mark a submit ODS answers with FAILED as rejected")
+        @Test
+        void shouldRejectSubmitOdsRefuses() {
+            // Arrange
+            SubmitOutbox submission = aClaimedSubmission();
+            when(submitOutboxService.claimReady(4)).thenReturn(List.of(submission));
+            when(odsClient.executeSubmitRequest("PAW-TCPOP-LE", "LE123", FORM_DATA)).thenReturn(PolicyConstants.FAILED);
+
+            // Act
+            questionnaireService.dispatchSubmissions();
+
+            // Assert
+            verify(submitOutboxService).markRejected(submission, PolicyConstants.FAILED);
+            verify(policyTrackingRepository, never()).save(any());
+        }
+
+        @DisplayName("Should leave a submit whose delivery failed to be retried")
+        @Test
+        void shouldRetryFailedDelivery() {
+            // Arrange
+            SubmitOutbox submission = aClaimedSubmission();
+            when(submitOutboxService.claimReady(4)).thenReturn(List.of(submission));
+            when(odsClient.executeSubmitRequest("PAW-TCPOP-LE", "LE123", FORM_DATA)).thenThrow(new IllegalStateException("ODS down"));
+
+            // Act
+            questionnaireService.dispatchSubmissions();
+
+            // Assert
+            verify(submitOutboxService).markAttemptFailed(submission, "ODS down");
+            verify(submitOutboxService, never()).markDelivered(any());
+        }
+
+        @DisplayName("Should retry a submit ODS throttled rather than reject it")
+        @Test
+        void shouldRetryThrottledDelivery() {
+            // Arrange
+            SubmitOutbox submission = aClaimedSubmission();
+            when(submitOutboxService.claimReady(4)).thenReturn(List.of(submission));
+            FeignException throttled = clientError(429);
+            when(odsClient.executeSubmitRequest("PAW-TCPOP-LE", "LE123", FORM_DATA)).thenThrow(throttled);
+
+            // Act
+            questionnaireService.dispatchSubmissions();
+
+            // Assert
+            verify(submitOutboxService).markAttemptFailed(submission, throttled.getMessage());
+            verify(submitOutboxService, never()).markRejected(any(), any());
+        }
+
+        @DisplayName("Should hand back a submit shed by an open circuit without counting the attempt")
+        @Test
+        void shouldDeferSubmitWhileCircuitIsOpen() {
+            // Arrange
+            SubmitOutbox submission = aClaimedSubmission();
+            when(submitOutboxService.claimReady(4)).thenReturn(List.of(submission));
+            when(odsClient.executeSubmitRequest("PAW-TCPOP-LE", "LE123", FORM_DATA))
+                    .thenThrow(CallNotPermittedException.createCallNotPermittedException(CircuitBreaker.ofDefaults("executeSubmitRequest")));
+
+            // Act
+            questionnaireService.dispatchSubmissions();
+
+            // Assert
+            verify(submitOutboxService).markAttemptDeferred(eq(submission), any());
+            verify(submitOutboxService, never()).markAttemptFailed(any(), any());
+        }
+
+        private FeignException clientError(int status) {
+            Request request = Request.create(Request.HttpMethod.POST, "http://ods/submit", Map.of(), null, StandardCharsets.UTF_8, null);
+            return FeignException.errorStatus("ODSClient#executeSubmitRequest(String,String,String)",
+                    Response.builder().status(status).reason("Too Many Requests").request(request).headers(Map.of()).build());
+        }
+    }
+
+    @Nested
+    @DisplayName("Autosave Coalescing Tests")
+    class AutosaveCoalescingCases {
+
+        private PolicyTracking activeTracking;
+
+        @BeforeEach
+        void setUp() {
+            ReflectionTestUtils.setField(questionnaireService, "autosaveCoalescingEnabled", true);
+            ReflectionTestUtils.setField(questionnaireService, "autosaveFlushExecutor", (Executor) Runnable::run);
+            activeTracking = new PolicyTracking();
+            activeTracking.setStatus(Status.PULL_FORM);
+        }
+
+        private void awaitPendingSaves(int count) throws InterruptedException {
+            CoalescingWindow<?, ?, ?> autosaves = (CoalescingWindow<?, ?, ?>) ReflectionTestUtils.getField(questionnaireService, "autosaves");
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (autosaves.pendingCount() != count && System.nanoTime() < deadline) {
+                Thread.sleep(5);
+            }
+            assertThat(autosaves.pendingCount()).isEqualTo(count);
+        }
+
+        @DisplayName("Should acknowledge every save of one window at once and send only the latest to ODS")
+        @Test
+        void shouldCoalesceSavesWithinWindow() {
+            // Arrange
+            ReflectionTestUtils.setField(questionnaireService, "autosaveWindow", Duration.ofMillis(200));
+            questionnaireService.init();
+            when(policyTrackingRepository.findByLegalEntityIdAndStatuses("LE123", Status.PULL_FORM, Status.IN_PROGRESS)).thenReturn(activeTracking);
+            when(odsClient.executeSaveRequest(eq("PAW-TCPOP-LE"), eq("LE123"), any())).thenAnswer(invocation -> invocation.getArgument(2));
+
+            // Act
+            ResponseEntity<String> first = questionnaireService.saveOdsData("PAW-TCPOP-LE", "LE123", "{\"step\":1}");
+            ResponseEntity<String> second = questionnaireService.saveOdsData("PAW-TCPOP-LE", "LE123", "{\"step\":2}");
+
+            // Assert
+            assertThat(first.getStatusCode()).isEqualTo(HttpStatus.ACCEPTED);
+            assertThat(second.getStatusCode()).isEqualTo(HttpStatus.ACCEPTED);
+            verify(policyTrackingRepository, timeout(5000)).save(activeTracking);
+            verify(odsClient, times(1)).executeSaveRequest("PAW-TCPOP-LE", "LE123", "{\"step\":2}");
+            verify(odsClient, never()).executeSaveRequest("PAW-TCPOP-LE", "LE123", "{\"step\":1}");
+            assertThat(activeTracking.getStatus()).isEqualTo(Status.IN_PROGRESS);
+        }
+
+        @DisplayName("Should answer a flush with the result of the pending save")
+        @Test
+        void shouldFlushPendingSave() {
+            // Arrange
+            ReflectionTestUtils.setField(questionnaireService, "autosaveWindow", Duration.ofHours(1));
+            questionnaireService.init();
+            when(policyTrackingRepository.findByLegalEntityIdAndStatuses("LE123", Status.PULL_FORM, Status.IN_PROGRESS)).thenReturn(activeTracking);
+            when(odsClient.executeSaveRequest("PAW-TCPOP-LE", "LE123", FORM_DATA)).thenReturn(FORM_DATA);
+            questionnaireService.saveOdsData("PAW-TCPOP-LE", "LE123", FORM_DATA);
+
+            // Act
+            ResponseEntity<String> response = questionnaireService.flushOdsData("PAW-TCPOP-LE", "LE123");
+
+            // Assert
+            assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+            assertThat(response.getBody()).isEqualTo(FORM_DATA);
+            verify(policyTrackingRepository).save(activeTracking);
+        }
+
+        @DisplayName("Should send the pending save to ODS before the submit")
+        @Test
+        void shouldFlushPendingSaveBeforeSubmit() throws Exception {
+            // Arrange
+            ReflectionTestUtils.setField(questionnaireService, "autosaveWindow", Duration.ofHours(1));
+            questionnaireService.init();
+            when(policyTrackingRepository.findByLegalEntityIdAndStatuses("LE123", Status.PULL_FORM, Status.IN_PROGRESS)).thenReturn(activeTracking);
+            when(odsClient.executeSaveRequest("PAW-TCPOP-LE", "LE123", FORM_DATA)).thenReturn(FORM_DATA);
+            when(odsClient.executeSubmitRequest("PAW-TCPOP-LE", "LE123", FORM_DATA)).thenReturn(FORM_DATA);
+            assertThat(questionnaireService.saveOdsData("PAW-TCPOP-LE", "LE123", FORM_DATA).getStatusCode()).isEqualTo(HttpStatus.ACCEPTED);
+            awaitPendingSaves(1);
+
+            // Act
+            ResponseEntity<String> response = questionnaireService.submitOdsData("PAW-TCPOP-LE", "LE123", FORM_DATA);
+
+            // Assert
+            assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+            InOrder ods = inOrder(odsClient);
+            ods.verify(odsClient).executeSaveRequest("PAW-TCPOP-LE", "LE123", FORM_DATA);
+            ods.verify(odsClient).executeSubmitRequest("PAW-TCPOP-LE", "LE123", FORM_DATA);
+            awaitPendingSaves(0);
+        }
+
+        @DisplayName("Should count a coalesced save that ODS failed")
+        @Test
+        void shouldCountFailedCoalescedSave() {
+            // Arrange
+            ReflectionTestUtils.setField(questionnaireService, "autosaveWindow", Duration.ofHours(1));
+            questionnaireService.init();
+            when(policyTrackingRepository.findByLegalEntityIdAndStatuses("LE123", Status.PULL_FORM, Status.IN_PROGRESS)).thenReturn(activeTracking);
+            when(odsClient.executeSaveRequest("PAW-TCPOP-LE", "LE123", FORM_DATA)).thenThrow(new IllegalStateException("ODS down"));
+            questionnaireService.saveOdsData("PAW-TCPOP-LE", "LE123", FORM_DATA);
+
+            // Act
+            ResponseEntity<String> response = questionnaireService.flushOdsData("PAW-TCPOP-LE", "LE123");
+
+            // Assert
+            assertThat(response.getStatusCode()).isEqualTo(HttpStatus.INTERNAL_SERVER_ERROR);
+            assertThat(meterRegistry.counter("questionnaire.autosave.failures", "journey", "LE").count()).isEqualTo(1.0);
+        }
+
+        @DisplayName("Should not submit when the pending save failed")
+        @Test
+        void shouldNotSubmitWhenPendingSaveFailed() {
+            // Arrange
+            ReflectionTestUtils.setField(questionnaireService, "autosaveWindow", Duration.ofHours(1));
+            questionnaireService.init();
+            when(policyTrackingRepository.findByLegalEntityIdAndStatuses("LE123", Status.PULL_FORM, Status.IN_PROGRESS)).thenReturn(activeTracking);
+            when(odsClient.executeSaveRequest("PAW-TCPOP-LE", "LE123", FORM_DATA)).thenThrow(new IllegalStateException("ODS down"));
+            questionnaireService.saveOdsData("PAW-TCPOP-LE", "LE123", FORM_DATA);
+
+            // Act
+            ResponseEntity<String> response = questionnaireService.submitOdsData("PAW-TCPOP-LE", "LE123", FORM_DATA);
+
+            // Assert
+            assertThat(response.getStatusCode()).isEqualTo(HttpStatus.INTERNAL_SERVER_ERROR);
+            verify(odsClient, never()).executeSubmitRequest(any(), any(), any());
+            assertThat(activeTracking.getStatus()).isEqualTo(Status.PULL_FORM);
+        }
+
+        @DisplayName("Should send the pending saves on shutdown")
+        @Test
+        void shouldDrainPendingSavesOnShutdown() throws Exception {
+            // Arrange
+            ReflectionTestUtils.setField(questionnaireService, "autosaveWindow", Duration.ofHours(1));
+            questionnaireService.init();
+            when(policyTrackingRepository.findByLegalEntityIdAndStatuses("LE123", Status.PULL_FORM, Status.IN_PROGRESS)).thenReturn(activeTracking);
+            when(odsClient.executeSaveRequest("PAW-TCPOP-LE", "LE123", FORM_DATA)).thenReturn(FORM_DATA);
+            questionnaireService.saveOdsData("PAW-TCPOP-LE", "LE123", FORM_DATA);
+            awaitPendingSaves(1);
+
+            // Act
+            questionnaireService.drainAutosaves();
+
+            // Assert
+            verify(odsClient).executeSaveRequest("PAW-TCPOP-LE", "LE123", FORM_DATA);
+            verify(policyTrackingRepository).save(activeTracking);
+            awaitPendingSaves(0);
+        }
+
+        @DisplayName("Should answer no content when no save is pending")
+        @Test
+        void shouldFlushNothingWhenNoSavePending() {
+            // Arrange
+            questionnaireService.init();
+
+            // Act
+            ResponseEntity<String> response = questionnaireService.flushOdsData("PAW-TCPOP-LE", "LE123");
+
+            // Assert
+            assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NO_CONTENT);
+            verify(odsClient, never()).executeSaveRequest(any(), any(), any());
+        }
+    }
+}
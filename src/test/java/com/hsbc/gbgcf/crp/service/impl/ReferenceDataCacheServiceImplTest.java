@@ -0,0 +1,86 @@
+package com.hsbc.gbgcf.crp.service.impl;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.hsbc.gbgcf.crp.constants.PolicyConstants;
+import com.hsbc.gbgcf.crp.entity.Client;
+import com.hsbc.gbgcf.crp.entity.LegalEntity;
+import com.hsbc.gbgcf.crp.util.EntityBuilders;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReferenceDataCacheServiceImplTest {
+
+    private CaffeineCacheManager cacheManager;
+
+    private ReferenceDataCacheServiceImpl referenceDataCacheService;
+
+    @BeforeEach
+    void setUp() {
+        cacheManager = new CaffeineCacheManager();
+        cacheManager.setCaffeine(Caffeine.newBuilder().maximumSize(10).recordStats());
+        cacheManager.setCacheNames(List.of(PolicyConstants.CACHE_LEGAL_ENTITIES, PolicyConstants.CACHE_CLIENTS));
+        referenceDataCacheService = new ReferenceDataCacheServiceImpl();
+        ReflectionTestUtils.setField(referenceDataCacheService, "cacheManager", cacheManager);
+    }
+
+    @DisplayName("Should evict a single cached legal entity")
+    @Test
+    void shouldEvictSingleLegalEntity() {
+        // Arrange
+        Cache cache = cacheManager.getCache(PolicyConstants.CACHE_LEGAL_ENTITIES);
+        LegalEntity legalEntity = EntityBuilders.aLegalEntityWithEntityId("LE12345");
+        cache.put("LE12345", legalEntity);
+        cache.put("LE67890", EntityBuilders.aLegalEntityWithEntityId("LE67890"));
+
+        // Act
+        referenceDataCacheService.evictLegalEntity("LE12345");
+
+        // Assert
+        assertThat(cache.get("LE12345")).isNull();
+        assertThat(cache.get("LE67890")).isNotNull();
+    }
+
+    @DisplayName("Should clear every reference data cache")
+    @Test
+    void shouldEvictAll() {
+        // Arrange
+        Client client = EntityBuilders.aClientWithMasterGroupId("MG12345");
+        cacheManager.getCache(PolicyConstants.CACHE_CLIENTS).put("MG12345", client);
+        cacheManager.getCache(PolicyConstants.CACHE_LEGAL_ENTITIES).put("LE12345", EntityBuilders.aLegalEntity());
+
+        // Act
+        referenceDataCacheService.evictAll();
+
+        // Assert
+        assertThat(cacheManager.getCache(PolicyConstants.CACHE_CLIENTS).get("MG12345")).isNull();
+        assertThat(cacheManager.getCache(PolicyConstants.CACHE_LEGAL_ENTITIES).get("LE12345")).isNull();
+    }
+
+    @DisplayName("Should report hit and miss statistics per cache")
+    @Test
+    void shouldReportStatistics() {
+        // Arrange
+        Cache cache = cacheManager.getCache(PolicyConstants.CACHE_CLIENTS);
+        cache.put("MG12345", EntityBuilders.aClientWithMasterGroupId("MG12345"));
+        cache.get("MG12345");
+        cache.get("MG67890");
+
+        // Act
+        Map<String, CacheStats> statistics = referenceDataCacheService.getStatistics();
+
+        // Assert
+        assertThat(statistics).containsKeys(PolicyConstants.CACHE_LEGAL_ENTITIES, PolicyConstants.CACHE_CLIENTS);
+        assertThat(statistics.get(PolicyConstants.CACHE_CLIENTS).hitCount()).isEqualTo(1);
+        assertThat(statistics.get(PolicyConstants.CACHE_CLIENTS).missCount()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,167 @@
+package com.hsbc.gbgcf.crp.service.impl;
+
+import com.hsbc.gbgcf.crp.entity.PolicyTracking;
+import com.hsbc.gbgcf.crp.entity.SubmitOutbox;
+import com.hsbc.gbgcf.crp.enums.OutboxStatus;
+import com.hsbc.gbgcf.crp.enums.Status;
+import com.hsbc.gbgcf.crp.repository.PolicyTrackingRepository;
+import com.hsbc.gbgcf.crp.repository.SubmitOutboxRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class SubmitOutboxServiceImplTest {
+
+    private static final Instant NOW = Instant.parse("2024-01-01T10:00:00Z");
+    private static final LocalDateTime LOCAL_NOW = LocalDateTime.ofInstant(NOW, ZoneOffset.UTC);
+
+    @Mock
+    private SubmitOutboxRepository submitOutboxRepository;
+
+    @Mock
+    private PolicyTrackingRepository policyTrackingRepository;
+
+    @InjectMocks
+    private SubmitOutboxServiceImpl submitOutboxService;
+
+    @BeforeEach
+    void setUp() {
+        submitOutboxService.retryHorizon = Duration.ofHours(24);
+        submitOutboxService.initialBackoff = Duration.ofSeconds(2);
+        submitOutboxService.maxBackoff = Duration.ofSeconds(5);
+        submitOutboxService.lease = Duration.ofMinutes(5);
+        submitOutboxService.clock = Clock.fixed(NOW, ZoneOffset.UTC);
+    }
+
+    private SubmitOutbox aSubmission(long id, int attempts) {
+        SubmitOutbox submission = new SubmitOutbox();
+        submission.setId(id);
+        submission.setCustomerId("LE123");
+        submission.setJourneyType("PAW-TCPOP-LE");
+        submission.setStatus(OutboxStatus.PENDING);
+        submission.setAttempts(attempts);
+        submission.setVersion(3);
+        submission.setCreatedDate(LOCAL_NOW.minusMinutes(10));
+        return submission;
+    }
+
+    @DisplayName("Should save the tracking row and a pending submit pointing at it")
+    @Test
+    void shouldEnqueuePendingSubmit() {
+        // Arrange
+        PolicyTracking policyTracking = new PolicyTracking();
+        policyTracking.setId(42L);
+        policyTracking.setStatus(Status.SUBMITTED);
+        when(policyTrackingRepository.save(policyTracking)).thenReturn(policyTracking);
+        when(submitOutboxRepository.save(any(SubmitOutbox.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        SubmitOutbox submission = submitOutboxService.enqueue(policyTracking, "PAW-TCPOP-LE", "LE123", "{}");
+
+        // Assert
+        assertThat(submission.getPolicyTrackingId()).isEqualTo(42L);
+        assertThat(submission.getStatus()).isEqualTo(OutboxStatus.PENDING);
+        assertThat(submission.getNextAttemptAt()).isEqualTo(LOCAL_NOW);
+        assertThat(submission.getFormData()).isEqualTo("{}");
+    }
+
+    @DisplayName("Should only return the submits whose claim succeeded")
+    @Test
+    void shouldSkipSubmitsClaimedElsewhere() {
+        // Arrange
+        SubmitOutbox first = aSubmission(1L, 0);
+        SubmitOutbox second = aSubmission(2L, 0);
+        when(submitOutboxRepository.findReady(LOCAL_NOW, LOCAL_NOW.minusMinutes(5), OutboxStatus.PENDING, OutboxStatus.IN_FLIGHT, PageRequest.of(0, 2)))
+                .thenReturn(List.of(first, second));
+        when(submitOutboxRepository.claim(1L, 3, OutboxStatus.IN_FLIGHT, LOCAL_NOW)).thenReturn(1);
+        when(submitOutboxRepository.claim(2L, 3, OutboxStatus.IN_FLIGHT, LOCAL_NOW)).thenReturn(0);
+
+        // Act
+        List<SubmitOutbox> claimed = submitOutboxService.claimReady(2);
+
+        // Assert
+        assertThat(claimed).containsExactly(first);
+        assertThat(first.getStatus()).isEqualTo(OutboxStatus.IN_FLIGHT);
+        assertThat(first.getAttempts()).isEqualTo(1);
+        assertThat(first.getVersion()).isEqualTo(4);
+        assertThat(first.getUpdatedDate()).isEqualTo(LOCAL_NOW);
+    }
+
+    @DisplayName("Should schedule the retry of a failed attempt with exponential backoff")
+    @Test
+    void shouldBackOffBeforeRetry() {
+        // Act
+        submitOutboxService.markAttemptFailed(aSubmission(1L, 1), "timeout");
+        submitOutboxService.markAttemptFailed(aSubmission(2L, 2), "timeout");
+
+        // Assert
+        verify(submitOutboxRepository).complete(1L, 3, OutboxStatus.PENDING, LOCAL_NOW.plusSeconds(2), "timeout", LOCAL_NOW);
+        verify(submitOutboxRepository).complete(2L, 3, OutboxStatus.PENDING, LOCAL_NOW.plusSeconds(4), "timeout", LOCAL_NOW);
+    }
+
+    @DisplayName("Should cap the backoff and fail the submit once it is older than the retry horizon")
+    @Test
+    void shouldFailSubmitAfterRetryHorizon() {
+        // Arrange
+        SubmitOutbox recent = aSubmission(1L, 4);
+        SubmitOutbox expired = aSubmission(2L, 5);
+        expired.setCreatedDate(LOCAL_NOW.minusHours(24));
+
+        // Act
+        submitOutboxService.markAttemptFailed(recent, "timeout");
+        submitOutboxService.markAttemptFailed(expired, "timeout");
+
+        // Assert
+        verify(submitOutboxRepository).complete(1L, 3, OutboxStatus.PENDING, LOCAL_NOW.plusSeconds(5), "timeout", LOCAL_NOW);
+        ArgumentCaptor<OutboxStatus> status = ArgumentCaptor.forClass(OutboxStatus.class);
+        verify(submitOutboxRepository).complete(eq(2L), anyLong(), status.capture(), isNull(), eq("timeout"), eq(LOCAL_NOW));
+        assertThat(status.getValue()).isEqualTo(OutboxStatus.FAILED);
+    }
+
+    @DisplayName("Should keep retrying a submit past many attempts while it is within the retry horizon")
+    @Test
+    void shouldKeepRetryingWithinRetryHorizon() {
+        // Act
+        submitOutboxService.markAttemptFailed(aSubmission(1L, 50), "timeout");
+
+        // Assert
+        verify(submitOutboxRepository).complete(1L, 3, OutboxStatus.PENDING, LOCAL_NOW.plusSeconds(5), "timeout", LOCAL_NOW);
+    }
+
+    @DisplayName("Should hand a shed submit back without counting the attempt")
+    @Test
+    void shouldDeferWithoutCountingAttempt() {
+        // Arrange
+        when(submitOutboxRepository.release(1L, 3, OutboxStatus.PENDING, LOCAL_NOW.plusSeconds(2), "circuit open", LOCAL_NOW)).thenReturn(1);
+
+        // Act
+        submitOutboxService.markAttemptDeferred(aSubmission(1L, 1), "circuit open");
+
+        // Assert
+        verify(submitOutboxRepository).release(1L, 3, OutboxStatus.PENDING, LOCAL_NOW.plusSeconds(2), "circuit open", LOCAL_NOW);
+        verify(submitOutboxRepository, never()).complete(any(), anyLong(), any(), any(), any(), any());
+    }
+}
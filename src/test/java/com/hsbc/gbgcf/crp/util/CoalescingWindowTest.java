@@ -0,0 +1,189 @@
+package com.hsbc.gbgcf.crp.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CoalescingWindowTest {
+
+    private final List<String> flushed = new CopyOnWriteArrayList<>();
+
+    @DisplayName("Should flush only the latest value of a window and hand its result to every submitter")
+    @Test
+    void shouldFlushLatestValueOnce() throws Exception {
+        // Arrange
+        CoalescingWindow<String, String, String> window = new CoalescingWindow<>(Duration.ofMillis(50), ForkJoinPool.commonPool(),
+                (key, value) -> {
+                    flushed.add(key + "=" + value);
+                    return "saved " + value;
+                });
+
+        // Act
+        CompletableFuture<String> first = window.submit("key", "v1");
+        CompletableFuture<String> second = window.submit("key", "v2");
+        CompletableFuture<String> third = window.submit("key", "v3");
+
+        // Assert
+        assertThat(first.get(5, TimeUnit.SECONDS)).isEqualTo("saved v3");
+        assertThat(second.get(5, TimeUnit.SECONDS)).isEqualTo("saved v3");
+        assertThat(third.get(5, TimeUnit.SECONDS)).isEqualTo("saved v3");
+        assertThat(flushed).containsExactly("key=v3");
+        assertThat(window.pendingCount()).isZero();
+    }
+
+    @DisplayName("Should keep the windows of different keys apart")
+    @Test
+    void shouldCoalescePerKey() throws Exception {
+        // Arrange
+        CoalescingWindow<String, String, String> window = new CoalescingWindow<>(Duration.ofHours(1), ForkJoinPool.commonPool(),
+                (key, value) -> {
+                    flushed.add(key + "=" + value);
+                    return value;
+                });
+        CompletableFuture<String> a = window.submit("a", "a1");
+        CompletableFuture<String> b = window.submit("b", "b1");
+
+        // Act
+        Optional<String> result = window.flush("a");
+
+        // Assert
+        assertThat(result).contains("a1");
+        assertThat(a.get(5, TimeUnit.SECONDS)).isEqualTo("a1");
+        assertThat(b).isNotDone();
+        assertThat(flushed).containsExactly("a=a1");
+        assertThat(window.pendingCount()).isEqualTo(1);
+    }
+
+    @DisplayName("Should flush the pending value right away on flush")
+    @Test
+    void shouldFlushPendingValueOnDemand() {
+        // Arrange
+        CoalescingWindow<String, String, String> window = new CoalescingWindow<>(Duration.ofHours(1), ForkJoinPool.commonPool(),
+                (key, value) -> {
+                    flushed.add(key + "=" + value);
+                    return value;
+                });
+        CompletableFuture<String> pending = window.submit("key", "v1");
+        window.submit("key", "v2");
+
+        // Act
+        Optional<String> result = window.flush("key");
+
+        // Assert
+        assertThat(result).contains("v2");
+        assertThat(pending).isCompletedWithValue("v2");
+        assertThat(flushed).containsExactly("key=v2");
+        assertThat(window.pendingCount()).isZero();
+    }
+
+    @DisplayName("Should return empty from flush when nothing is pending")
+    @Test
+    void shouldFlushNothingWhenIdle() {
+        // Arrange
+        CoalescingWindow<String, String, String> window = new CoalescingWindow<>(Duration.ofHours(1), ForkJoinPool.commonPool(),
+                (key, value) -> value);
+
+        // Act
+        Optional<String> result = window.flush("key");
+
+        // Assert
+        assertThat(result).isEmpty();
+    }
+
+    @DisplayName("Should flush every pending key and carry on past a failed flush")
+    @Test
+    void shouldFlushAllPendingKeys() throws Exception {
+        // Arrange
+        CoalescingWindow<String, String, String> window = new CoalescingWindow<>(Duration.ofHours(1), ForkJoinPool.commonPool(),
+                (key, value) -> {
+                    if (key.equals("a")) {
+                        throw new IllegalStateException("flush failed");
+                    }
+                    flushed.add(key + "=" + value);
+                    return value;
+                });
+        CompletableFuture<String> a = window.submit("a", "a1");
+        CompletableFuture<String> b = window.submit("b", "b1");
+
+        // Act
+        int count = window.flushAll();
+
+        // Assert
+        assertThat(count).isEqualTo(2);
+        assertThat(flushed).containsExactly("b=b1");
+        assertThat(a).isCompletedExceptionally();
+        assertThat(b.get(5, TimeUnit.SECONDS)).isEqualTo("b1");
+        assertThat(window.pendingCount()).isZero();
+    }
+
+    @DisplayName("Should not overlap flushes of a key and send values arriving meanwhile afterwards")
+    @Test
+    void shouldSerializeFlushesOfKey() throws Exception {
+        // Arrange
+        CountDownLatch flushing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CoalescingWindow<String, String, String> window = new CoalescingWindow<>(Duration.ofHours(1), ForkJoinPool.commonPool(),
+                (key, value) -> {
+                    flushed.add(key + "=" + value);
+                    if (value.equals("v1")) {
+                        flushing.countDown();
+                        await(release);
+                    }
+                    return value;
+                });
+        window.submit("key", "v1");
+        CompletableFuture<Optional<String>> first = CompletableFuture.supplyAsync(() -> window.flush("key"));
+        assertThat(flushing.await(5, TimeUnit.SECONDS)).isTrue();
+        CompletableFuture<String> second = window.submit("key", "v2");
+
+        // Act
+        CompletableFuture<Optional<String>> forced = CompletableFuture.supplyAsync(() -> window.flush("key"));
+        release.countDown();
+
+        // Assert
+        assertThat(first.get(5, TimeUnit.SECONDS)).contains("v2");
+        assertThat(forced.get(5, TimeUnit.SECONDS)).contains("v2");
+        assertThat(second.get(5, TimeUnit.SECONDS)).isEqualTo("v2");
+        assertThat(flushed).containsExactly("key=v1", "key=v2");
+        assertThat(window.pendingCount()).isZero();
+    }
+
+    @DisplayName("Should pass a failed flush on to its submitters and open a fresh window afterwards")
+    @Test
+    void shouldPropagateFlushFailure() {
+        // Arrange
+        CoalescingWindow<String, String, String> window = new CoalescingWindow<>(Duration.ofHours(1), ForkJoinPool.commonPool(),
+                (key, value) -> {
+                    if (value.equals("bad")) {
+                        throw new IllegalStateException("boom");
+                    }
+                    return value;
+                });
+        CompletableFuture<String> failed = window.submit("key", "bad");
+
+        // Act & Assert
+        assertThatThrownBy(() -> window.flush("key")).isInstanceOf(IllegalStateException.class);
+        assertThat(failed).isCompletedExceptionally();
+        window.submit("key", "good");
+        assertThat(window.flush("key")).contains("good");
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.hsbc.gbgcf.crp.util;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JourneyTagsTest {
+
+    @AfterEach
+    void tearDown() {
+        JourneyTags.clear();
+    }
+
+    @DisplayName("Should derive the journey tag from the journey type")
+    @ParameterizedTest
+    @CsvSource({
+        "PAW-TCPOP-LE, LE",
+        "PAW-ENERGY-MG, MG",
+        "PAW-TCPOP, none",
+        "PAW-TCPOP-LEGAL, none"
+    })
+    void shouldDeriveJourneyTag(String journeyType, String expectedTag) {
+        // Act & Assert
+        assertThat(JourneyTags.of(journeyType)).isEqualTo(expectedTag);
+    }
+
+    @DisplayName("Should carry the current journey tag into tasks run on another thread")
+    @Test
+    void shouldPropagateCurrentJourneyTag() throws Exception {
+        // Arrange
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        JourneyTags.set(JourneyTags.MASTER_GROUP);
+        CompletableFuture<String> seen = new CompletableFuture<>();
+
+        // Act
+        try {
+            executor.execute(JourneyTags.propagate(() -> seen.complete(JourneyTags.current())));
+            String afterTask = CompletableFuture.supplyAsync(JourneyTags::current, executor).get(5, TimeUnit.SECONDS);
+
+            // Assert
+            assertThat(seen.get(5, TimeUnit.SECONDS)).isEqualTo(JourneyTags.MASTER_GROUP);
+            assertThat(afterTask).isEqualTo(JourneyTags.NONE);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.hsbc.gbgcf.crp.util;
+
+import com.hsbc.gbgcf.crp.enums.CustomerType;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JourneyTypeTest {
+
+    @DisplayName("Should parse the customer type from the dash-separated parts of the journey type")
+    @ParameterizedTest
+    @CsvSource({
+        "PAW-TCPOP-LE, LEGAL_ENTITY",
+        "LE, LEGAL_ENTITY",
+        "PAW-MG-LE, LEGAL_ENTITY",
+        "PAW-ENERGY-MG, MASTER_GROUP",
+        "MG-PAW, MASTER_GROUP",
+        "PAW-TCPOP, NONE",
+        "PAW-TCPOP-LEGAL, NONE",
+        "PAW--, NONE"
+    })
+    void shouldParseCustomerType(String value, CustomerType expectedCustomerType) {
+        // Act
+        JourneyType journeyType = JourneyType.of(value);
+
+        // Assert
+        assertThat(journeyType.getCustomerType()).isEqualTo(expectedCustomerType);
+        assertThat(journeyType.isCustomerJourney()).isEqualTo(expectedCustomerType != CustomerType.NONE);
+        assertThat(journeyType.getValue()).isEqualTo(value);
+    }
+
+    @DisplayName("Should return the interned journey type on repeated lookups")
+    @Test
+    void shouldInternParsedJourneyTypes() {
+        // Act
+        JourneyType first = JourneyType.of("PAW-TCPOP-LE");
+        JourneyType second = JourneyType.of(new String("PAW-TCPOP-LE"));
+
+        // Assert
+        assertThat(second).isSameAs(first);
+    }
+}
@@ -0,0 +1,89 @@
+package com.hsbc.gbgcf.crp.util;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.cfg.JsonNodeFeature;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JsonDiffTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @DisplayName("Should rebuild the target document from the source and the patch")
+    @ParameterizedTest
+    @CsvSource(delimiter = '|', value = {
+        "{\"a\":1,\"b\":{\"c\":\"x\"}}|{\"a\":2,\"b\":{\"c\":\"x\",\"d\":null}}",
+        "{\"a\":1,\"gone\":true}|{\"a\":1}",
+        "{\"list\":[{\"q\":\"1\",\"answer\":\"Yes\"},{\"q\":\"2\",\"answer\":\"No\"}]}|{\"list\":[{\"q\":\"1\",\"answer\":\"Yes\"},{\"q\":\"2\",\"answer\":\"Partially\"}]}",
+        "{\"list\":[1,2]}|{\"list\":[1,2,3]}",
+        "{\"a/b\":{\"~c\":1}}|{\"a/b\":{\"~c\":2}}",
+        "[1,2]|{\"a\":1}"
+    })
+    void shouldRebuildTargetFromPatch(String source, String target) throws Exception {
+        // Arrange
+        JsonNode sourceNode = objectMapper.readTree(source);
+        JsonNode targetNode = objectMapper.readTree(target);
+
+        // Act
+        JsonNode patch = JsonDiff.diff(sourceNode, targetNode);
+        JsonNode rebuilt = JsonDiff.apply(sourceNode, patch);
+
+        // Assert
+        assertThat(rebuilt).isEqualTo(targetNode);
+        assertThat(sourceNode).isEqualTo(objectMapper.readTree(source));
+    }
+
+    @DisplayName("Should only patch the changed array element")
+    @Test
+    void shouldOnlyPatchChangedArrayElement() throws Exception {
+        // Arrange
+        JsonNode source = objectMapper.readTree("{\"sections\":[{\"answer\":\"Yes\"},{\"answer\":\"No\"}]}");
+        JsonNode target = objectMapper.readTree("{\"sections\":[{\"answer\":\"Yes\"},{\"answer\":\"Partially\"}]}");
+
+        // Act
+        JsonNode patch = JsonDiff.diff(source, target);
+
+        // Assert
+        assertThat(patch).hasSize(1);
+        assertThat(patch.get(0).get("op").asText()).isEqualTo("replace");
+        assertThat(patch.get(0).get("path").asText()).isEqualTo("/sections/1/answer");
+    }
+
+    @DisplayName("Should produce an empty patch for equal documents")
+    @Test
+    void shouldProduceEmptyPatchForEqualDocuments() throws Exception {
+        JsonNode document = objectMapper.readTree("{\"a\":[1,{\"b\":2}]}");
+
+        assertThat(JsonDiff.diff(document, document.deepCopy())).isEmpty();
+    }
+
+    @DisplayName("Should rebuild the target with the same bytes when members are reordered or decimals rescaled")
+    @ParameterizedTest
+    @CsvSource(delimiter = '|', value = {
+        "{\"a\":1,\"b\":2}|{\"b\":2,\"a\":1}",
+        "{\"a\":1,\"b\":2}|{\"c\":3,\"a\":1,\"b\":2}",
+        "{\"amount\":1.5,\"rate\":2}|{\"amount\":1.50,\"rate\":2.0}"
+    })
+    void shouldRebuildTargetBytes(String source, String target) throws Exception {
+        // Arrange
+        ObjectMapper exactMapper = new ObjectMapper()
+                .enable(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS)
+                .configure(JsonNodeFeature.STRIP_TRAILING_BIGDECIMAL_ZEROES, false);
+        JsonNode sourceNode = exactMapper.readTree(source);
+        JsonNode targetNode = exactMapper.readTree(target);
+
+        // Act
+        JsonNode patch = JsonDiff.diff(sourceNode, targetNode);
+        JsonNode rebuilt = JsonDiff.apply(sourceNode, patch);
+
+        // Assert
+        assertThat(patch).isNotEmpty();
+        assertThat(exactMapper.writeValueAsString(rebuilt)).isEqualTo(target);
+    }
+}